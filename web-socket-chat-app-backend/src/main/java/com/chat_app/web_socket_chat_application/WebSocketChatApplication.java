@@ -1,13 +1,30 @@
 package com.chat_app.web_socket_chat_application;
 
+import com.chat_app.web_socket_chat_application.config.AsyncLoggingInitializer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import java.util.Map;
+
 @SpringBootApplication
 public class WebSocketChatApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(WebSocketChatApplication.class, args);
+		SpringApplication application = new SpringApplication(WebSocketChatApplication.class);
+		// Defaults only, application.properties and the environment take precedence
+		application.setDefaultProperties(Map.of(
+				"server.compression.enabled", "true",
+				"server.compression.mime-types", "application/json,application/x-ndjson,text/html,text/plain,text/css,application/javascript",
+				"server.compression.min-response-size", "2KB",
+				// Let in-flight requests finish once WebSocket sessions are drained
+				"server.shutdown", "graceful",
+				"spring.lifecycle.timeout-per-shutdown-phase", "20s",
+				// Liveness only checks the process; readiness also drops at session capacity. Broker
+				// and Mongo are shared by every replica and only show up in the full health report
+				"management.endpoint.health.probes.enabled", "true",
+				"management.endpoint.health.group.readiness.include", "readinessState,sessionLoad"));
+		application.addListeners(new AsyncLoggingInitializer());
+		application.run(args);
 	}
 
 }
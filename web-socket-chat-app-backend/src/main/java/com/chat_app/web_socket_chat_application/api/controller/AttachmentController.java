@@ -0,0 +1,123 @@
+package com.chat_app.web_socket_chat_application.api.controller;
+
+import com.chat_app.web_socket_chat_application.api.response.ApiResponse;
+import com.chat_app.web_socket_chat_application.api.response.SuccessResponse;
+import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
+import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionCode;
+import com.chat_app.web_socket_chat_application.app.service.AttachmentService;
+import com.chat_app.web_socket_chat_application.domain.entity.Attachment;
+import com.chat_app.web_socket_chat_application.domain.projection.UserName;
+import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/attachments")
+@RequiredArgsConstructor
+@Slf4j
+public class AttachmentController {
+
+    // Tomcat serves these with sendfile(2) once the request completes
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Shown inline; anything else, notably HTML and SVG, is only offered as a download
+    private static final Set<String> INLINE_TYPES = Set.of(
+            MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_GIF_VALUE, "image/webp");
+
+    private final AttachmentService attachmentService;
+    private final UserRepository userRepository;
+
+    @PostMapping
+    public ApiResponse<Attachment> upload(@RequestParam("file") MultipartFile file) throws IOException {
+        log.info("Uploading attachment {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        return new SuccessResponse<>(attachmentService.upload(currentUserId(), file));
+    }
+
+    @GetMapping("/{id}")
+    public void download(@PathVariable String id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Attachment attachment = attachmentService.getAttachmentFor(id, currentUserId());
+        long length = attachment.getSize();
+        long start = 0;
+        long end = length - 1;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                // Multiple ranges are answered with the whole file, which RFC 9110 allows
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    if (start >= length || start > end) {
+                        throw new IllegalArgumentException("Range outside of " + length + " bytes");
+                    }
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(attachment.getContentType());
+        response.setContentLengthLong(count);
+        // The content type was chosen by the uploader, so browsers must neither sniff nor render it
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        ContentDisposition.Builder disposition = INLINE_TYPES.contains(attachment.getContentType())
+                ? ContentDisposition.inline()
+                : ContentDisposition.attachment();
+        if (attachment.getFileName() != null) {
+            disposition.filename(attachment.getFileName(), StandardCharsets.UTF_8);
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.build().toString());
+        if (count == 0) {
+            return;
+        }
+
+        Optional<Path> localPath = attachmentService.localPath(attachment);
+        if (localPath.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, localPath.get().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        attachmentService.transferTo(attachment, start, count, Channels.newChannel(response.getOutputStream()));
+    }
+
+    // The JWT subject is the phone number
+    private String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserName currentUser = authentication == null ? null
+                : userRepository.findProjectedByPhoneNumber(authentication.getName(), UserName.class);
+        if (currentUser == null) {
+            throw new AppException(ExceptionCode.UNAUTHORIZED);
+        }
+        return currentUser.id();
+    }
+}
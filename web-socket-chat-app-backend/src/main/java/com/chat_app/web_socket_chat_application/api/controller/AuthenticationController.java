@@ -1,6 +1,7 @@
 package com.chat_app.web_socket_chat_application.api.controller;
 
 import com.chat_app.web_socket_chat_application.api.dto.AuthenticationDTO;
+import com.chat_app.web_socket_chat_application.api.dto.RefreshTokenDTO;
 import com.chat_app.web_socket_chat_application.api.dto.ResetPasswordDTO;
 import com.chat_app.web_socket_chat_application.api.dto.UserDTO;
 import com.chat_app.web_socket_chat_application.api.response.ApiResponse;
@@ -33,6 +34,18 @@ public class AuthenticationController {
         return new SuccessResponse<>(authenticationResponse);
     }
 
+    @PostMapping("/refresh")
+    public ApiResponse<AuthenticationResponse> refresh(@RequestBody RefreshTokenDTO request) {
+        AuthenticationResponse authenticationResponse = authenticationService.refresh(request);
+        return new SuccessResponse<>(authenticationResponse);
+    }
+
+    @PostMapping("/logout")
+    public ApiResponse<?> logout(@RequestBody RefreshTokenDTO request) {
+        authenticationService.logout(request);
+        return new SuccessResponse<>(HttpStatus.OK);
+    }
+
     @PostMapping("/reset-password")
     public ApiResponse<?> directResetPassword(@RequestBody ResetPasswordDTO request) {
         log.info("Direct password reset request for phone number: {}", request.getPhoneNumber());
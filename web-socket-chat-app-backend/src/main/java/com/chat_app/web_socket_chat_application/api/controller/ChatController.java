@@ -2,16 +2,22 @@ package com.chat_app.web_socket_chat_application.api.controller;
 
 import com.chat_app.web_socket_chat_application.api.response.ApiResponse;
 import com.chat_app.web_socket_chat_application.api.response.SuccessResponse;
+import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
+import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionCode;
+import com.chat_app.web_socket_chat_application.app.logging.LogSampler;
+import com.chat_app.web_socket_chat_application.app.messaging.OutboxPublisher;
 import com.chat_app.web_socket_chat_application.app.service.ChatMessageService;
+import com.chat_app.web_socket_chat_application.app.service.ConversationService;
 import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
 import com.chat_app.web_socket_chat_application.util.TimestampUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -19,41 +25,56 @@ import java.util.List;
 @Slf4j
 public class ChatController {
     private final ChatMessageService chatMessageService;
-    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final OutboxPublisher outboxPublisher;
+    private final ConversationService conversationService;
+    private final LogSampler logSampler;
 
     @MessageMapping("/chat")
-    public void processMessage(@Payload ChatMessage chatMessage) {
-        log.info("Processing chat message: {}", chatMessage);
+    public void processMessage(@Payload ChatMessage chatMessage, Principal principal) {
+        // Ids only; the message with its content is formatted at TRACE alone
+        logSampler.atInfo(log, "chat.inbound")
+                .log("Processing chat message {} from {} to {}",
+                        chatMessage.getClientMessageId(), chatMessage.getSenderId(), chatMessage.getReceiverId());
+        log.trace("Chat message: {}", chatMessage);
+
+        // The session principal was verified at CONNECT, the payload's sender is not trusted
+        if (chatMessage.getSenderId() == null) {
+            chatMessage.setSenderId(principal.getName());
+        } else if (!chatMessage.getSenderId().equals(principal.getName())) {
+            throw new AppException(ExceptionCode.UNAUTHORIZED);
+        }
 
         // Set timestamp if not set using TimestampUtil
         chatMessage.setTimestamp(TimestampUtil.ensureTimestamp(chatMessage.getTimestamp()));
         
         ChatMessage savedMessage = chatMessageService.save(chatMessage);
 
-        // Send to the receiver's direct queue
-        String receiverQueue = "/queue/user." + chatMessage.getReceiverId() + ".messages";
-        log.info("Sending to receiver queue: {}", receiverQueue);
-        simpMessagingTemplate.convertAndSend(receiverQueue, savedMessage);
-
-        // Also send to the sender's direct queue for real-time updates across devices
-        String senderQueue = "/queue/user." + chatMessage.getSenderId() + ".messages";
-        log.info("Sending to sender queue: {}", senderQueue);
-        simpMessagingTemplate.convertAndSend(senderQueue, savedMessage);
+        // Delivered to the receiver's and sender's queues by the outbox, off the request thread
+        outboxPublisher.enqueue(savedMessage);
     }
 
     @GetMapping("/messages/{senderId}/{receiverId}")
     public ApiResponse<List<ChatMessage>> findChatMessages(
             @PathVariable String senderId,
-            @PathVariable String receiverId
+            @PathVariable String receiverId,
+            WebRequest request
     ) {
-        log.info("Finding chat messages between {} and {}", senderId, receiverId);
+        logSampler.atInfo(log, "chat.history").log("Finding chat messages between {} and {}", senderId, receiverId);
+        // Answered with 304 before the history is loaded when the client's copy is current
+        String etag = conversationService.getHistoryETag(senderId, receiverId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         List<ChatMessage> messages = chatMessageService.findChatMessagesBetweenUsers(senderId, receiverId);
         return new SuccessResponse<>(messages);
     }
 
     @PostMapping("/messages")
     public ApiResponse<ChatMessage> sendMessage(@RequestBody ChatMessage chatMessage) {
-        log.info("Sending message via REST: {}", chatMessage);
+        logSampler.atInfo(log, "chat.inbound")
+                .log("Sending message {} via REST from {} to {}",
+                        chatMessage.getClientMessageId(), chatMessage.getSenderId(), chatMessage.getReceiverId());
+        log.trace("Chat message: {}", chatMessage);
 
         // Set timestamp if not set using TimestampUtil
         chatMessage.setTimestamp(TimestampUtil.ensureTimestamp(chatMessage.getTimestamp()));
@@ -61,15 +82,8 @@ public class ChatController {
         // Save the message
         ChatMessage savedMessage = chatMessageService.save(chatMessage);
 
-        // Send to the receiver's direct queue
-        String receiverQueue = "/queue/user." + chatMessage.getReceiverId() + ".messages";
-        log.info("Sending to receiver queue via REST: {}", receiverQueue);
-        simpMessagingTemplate.convertAndSend(receiverQueue, savedMessage);
-
-        // Also send to the sender's direct queue for real-time updates across devices
-        String senderQueue = "/queue/user." + chatMessage.getSenderId() + ".messages";
-        log.info("Sending to sender queue via REST: {}", senderQueue);
-        simpMessagingTemplate.convertAndSend(senderQueue, savedMessage);
+        // Delivered to the receiver's and sender's queues by the outbox, off the request thread
+        outboxPublisher.enqueue(savedMessage);
 
         return new SuccessResponse<>(savedMessage);
     }
@@ -2,6 +2,7 @@ package com.chat_app.web_socket_chat_application.api.controller;
 
 import com.chat_app.web_socket_chat_application.api.dto.ConversationDTO;
 import com.chat_app.web_socket_chat_application.api.dto.CreateConversationDTO;
+import com.chat_app.web_socket_chat_application.api.dto.RetentionDTO;
 import com.chat_app.web_socket_chat_application.api.response.ApiResponse;
 import com.chat_app.web_socket_chat_application.api.response.SuccessResponse;
 import com.chat_app.web_socket_chat_application.app.service.ConversationService;
@@ -9,6 +10,7 @@ import com.chat_app.web_socket_chat_application.domain.entity.Conversation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -27,8 +29,13 @@ public class ConversationController {
     }
 
     @GetMapping(("/user/{userId}"))
-    public ApiResponse<List<ConversationDTO>> getUserConversations(@PathVariable String userId) {
+    public ApiResponse<List<ConversationDTO>> getUserConversations(@PathVariable String userId, WebRequest request) {
         log.info("Getting conversations for user with id: {}", userId);
+        // Answered with 304 before the inbox is read when the client's copy is current
+        String etag = conversationService.getInboxETag(userId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         return new SuccessResponse<>(conversationService.getUserConversations(userId));
     }
 
@@ -46,9 +53,15 @@ public class ConversationController {
     }
 
     @PostMapping("/{id}/read")
-    public ApiResponse<?> markAsRead(@PathVariable String id) {
-        log.info("Marking conversation {} as read", id);
-        conversationService.markAsRead(id);
+    public ApiResponse<?> markAsRead(@PathVariable String id, @RequestParam(required = false) String userId) {
+        log.info("Marking conversation {} as read for {}", id, userId != null ? userId : "all participants");
+        conversationService.markAsRead(id, userId);
         return new SuccessResponse<>();
     }
-}
+
+    @PutMapping("/{id}/retention")
+    public ApiResponse<Conversation> updateRetention(@PathVariable String id, @RequestBody RetentionDTO retentionDTO) {
+        log.info("Setting retention of conversation {} to {} days", id, retentionDTO.getRetentionDays());
+        return new SuccessResponse<>(conversationService.updateRetention(id, retentionDTO.getRetentionDays()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.chat_app.web_socket_chat_application.api.controller;
+
+import com.chat_app.web_socket_chat_application.api.dto.ConversationDTO;
+import com.chat_app.web_socket_chat_application.api.dto.UserResponseDTO;
+import com.chat_app.web_socket_chat_application.app.service.ReactiveReadService;
+import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import com.chat_app.web_socket_chat_application.mapper.UserMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive variants of the read-heavy endpoints, served next to the blocking ones under
+ * {@code /reactive}. With {@code Accept: application/x-ndjson} (the default) elements are streamed
+ * one per line as the database produces them, and the request thread is released while waiting;
+ * with {@code application/json} the elements are collected into a plain array. Responses are not
+ * wrapped in {@code ApiResponse}, since a stream has no single envelope.
+ */
+@RestController
+@RequestMapping(value = "/reactive", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveReadController {
+
+    private final ReactiveReadService reactiveReadService;
+    private final UserMapper userMapper;
+
+    @GetMapping("/messages/{senderId}/{receiverId}")
+    public Flux<ChatMessage> findChatMessages(@PathVariable String senderId, @PathVariable String receiverId) {
+        log.info("Streaming chat messages between {} and {}", senderId, receiverId);
+        return reactiveReadService.findChatMessagesBetweenUsers(senderId, receiverId);
+    }
+
+    @GetMapping("/conversations/user/{userId}")
+    public Flux<ConversationDTO> getUserConversations(@PathVariable String userId) {
+        log.info("Streaming conversations for user with id: {}", userId);
+        return reactiveReadService.getUserConversations(userId);
+    }
+
+    @GetMapping("/api/users/search")
+    public Flux<UserResponseDTO> searchUsers(@RequestParam String query) {
+        // Read on the request thread; the security context is not propagated to reactive callbacks
+        String currentPrincipalName = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("Streaming users matching query: {}", query);
+        return reactiveReadService.searchUsers(query, currentPrincipalName).map(userMapper::toUserResponseDTO);
+    }
+}
@@ -3,8 +3,10 @@ package com.chat_app.web_socket_chat_application.api.controller;
 import com.chat_app.web_socket_chat_application.api.dto.UserResponseDTO;
 import com.chat_app.web_socket_chat_application.api.response.ApiResponse;
 import com.chat_app.web_socket_chat_application.api.response.SuccessResponse;
+import com.chat_app.web_socket_chat_application.app.service.UnreadCounterService;
 import com.chat_app.web_socket_chat_application.app.service.UserService;
-import com.chat_app.web_socket_chat_application.domain.entity.User;
+import com.chat_app.web_socket_chat_application.domain.projection.UserName;
+import com.chat_app.web_socket_chat_application.domain.projection.UserProfile;
 import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
 import com.chat_app.web_socket_chat_application.mapper.UserMapper;
 import lombok.extern.slf4j.Slf4j;
@@ -26,13 +28,16 @@ public class UserController {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
     @Autowired
     private UserRepository userRepository; // Autowire UserRepository for current user lookup
 
     @GetMapping
     public ApiResponse<List<UserResponseDTO>> getAllUsers() {
         log.info("Fetching all users");
-        List<User> users = userService.findAllUsers();
+        List<UserProfile> users = userService.findAllUsers();
         return new SuccessResponse<>(userMapper.toUserResponseDTOList(users));
     }
 
@@ -41,21 +46,26 @@ public class UserController {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String currentPrincipalName = authentication.getName(); // This is the phone number from JWT subject
 
-        User currentUser = userRepository.findByPhoneNumber(currentPrincipalName);
+        UserName currentUser = userRepository.findProjectedByPhoneNumber(currentPrincipalName, UserName.class);
         if (currentUser == null) {
             return new ApiResponse<>("Error: Current user not found based on token.", 404, null);
         }
-        String currentUserId = currentUser.getId();
+        String currentUserId = currentUser.id();
 
         log.info("Searching for users with query: {} (excluding user ID: {})", query, currentUserId);
-        List<User> users = userService.searchUsers(query, currentUserId);
+        List<UserProfile> users = userService.searchUsers(query, currentUserId);
         return new SuccessResponse<>(userMapper.toUserResponseDTOList(users));
     }
 
     @GetMapping("/{userId}")
     public ApiResponse<UserResponseDTO> getUserById(@PathVariable String userId) {
         log.info("Fetching user by ID: {}", userId);
-        User user = userService.getUserById(userId);
+        UserProfile user = userService.getUserById(userId);
         return new SuccessResponse<>(userMapper.toUserResponseDTO(user));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{userId}/unread")
+    public ApiResponse<Long> getTotalUnread(@PathVariable String userId) {
+        return new SuccessResponse<>(unreadCounterService.getTotalUnread(userId));
+    }
+}
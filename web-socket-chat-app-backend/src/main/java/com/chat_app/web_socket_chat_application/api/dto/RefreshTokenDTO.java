@@ -0,0 +1,8 @@
+package com.chat_app.web_socket_chat_application.api.dto;
+
+import lombok.Data;
+
+@Data
+public class RefreshTokenDTO {
+    private String refreshToken;
+}
@@ -0,0 +1,9 @@
+package com.chat_app.web_socket_chat_application.api.dto;
+
+import lombok.*;
+
+@Data
+public class RetentionDTO {
+    // null removes the override and applies the global retention
+    private Integer retentionDays;
+}
@@ -10,4 +10,9 @@ public class AuthenticationResponse {
     private String id;
     private String name;
     private String status;
+    private String refreshToken;
+
+    public AuthenticationResponse(String token, String id, String name, String status) {
+        this(token, id, name, status, null);
+    }
 }
@@ -0,0 +1,221 @@
+package com.chat_app.web_socket_chat_application.app.archive;
+
+import com.chat_app.web_socket_chat_application.app.scheduling.JobLock;
+import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import com.chat_app.web_socket_chat_application.domain.entity.MessageBucket;
+import com.chat_app.web_socket_chat_application.domain.repository.ChatMessageRepository;
+import com.chat_app.web_socket_chat_application.domain.repository.MessageBucketRepository;
+import com.chat_app.web_socket_chat_application.util.TimestampUtil;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves messages older than {@code chat.archive.max-age-days} out of {@code chat_messages} into
+ * per-conversation buckets of gzipped JSON, so the hot collection and its indexes only hold
+ * recent history. Unread messages stay behind until they are read, since marking messages read
+ * only reaches the hot collection. Runs periodically on one replica at a time, renewing the job
+ * lock after every batch.
+ */
+@Component
+@Slf4j
+public class MessageArchiver {
+
+    private static final String JOB = "message-archiver";
+    private static final TypeReference<List<ChatMessage>> MESSAGE_LIST = new TypeReference<>() {
+    };
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final MessageBucketRepository messageBucketRepository;
+    private final JobLock jobLock;
+    private final ObjectMapper objectMapper;
+    private ScheduledExecutorService scheduler;
+
+    @Value("${chat.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chat.archive.max-age-days:30}")
+    private int maxAgeDays;
+
+    @Value("${chat.archive.bucket-size:500}")
+    private int bucketSize;
+
+    @Value("${chat.archive.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${chat.archive.interval-ms:3600000}")
+    private long intervalMs;
+
+    public MessageArchiver(ChatMessageRepository chatMessageRepository,
+                           MessageBucketRepository messageBucketRepository,
+                           JobLock jobLock,
+                           ObjectMapper objectMapper) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.messageBucketRepository = messageBucketRepository;
+        this.jobLock = jobLock;
+        // Sender info is transient and null fields are not worth storing
+        this.objectMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "message-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runScheduled, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Archive every message older than the configured age.
+     * @return Number of messages moved to buckets, 0 if another replica holds the job lock
+     */
+    public int archive() {
+        Duration lease = Duration.ofMillis(intervalMs);
+        if (!jobLock.tryAcquire(JOB, lease)) {
+            return 0;
+        }
+        try {
+            String cutoff = TimestampUtil.formatToTimestamp(
+                    new Date(System.currentTimeMillis() - Duration.ofDays(maxAgeDays).toMillis()));
+            int archived = 0;
+            List<ChatMessage> batch;
+            // Archived messages are deleted, so the first page is always the next batch
+            while (!(batch = chatMessageRepository.findByTimestampLessThanAndConversationIdNotNullAndReadTrueOrderByConversationIdAscTimestampAsc(
+                    cutoff, PageRequest.of(0, batchSize))).isEmpty()) {
+                Map<String, List<ChatMessage>> byConversation = batch.stream()
+                        .collect(Collectors.groupingBy(ChatMessage::getConversationId, LinkedHashMap::new, Collectors.toList()));
+                byConversation.forEach(this::archiveConversation);
+                archived += batch.size();
+                // A long backlog can outlast the lease; stop if another replica took the job over
+                if (!jobLock.tryAcquire(JOB, lease)) {
+                    log.warn("Lost the archiver lock after {} messages, stopping this run", archived);
+                    return archived;
+                }
+            }
+            if (archived > 0) {
+                log.info("Archived {} messages older than {}", archived, cutoff);
+            }
+            return archived;
+        } finally {
+            jobLock.release(JOB);
+        }
+    }
+
+    /**
+     * All archived messages of a conversation, oldest first.
+     */
+    public List<ChatMessage> findArchivedMessages(String conversationId) {
+        List<ChatMessage> messages = new ArrayList<>();
+        for (MessageBucket bucket : messageBucketRepository.findByConversationIdOrderByFirstTimestampAsc(conversationId)) {
+            messages.addAll(unpack(bucket));
+        }
+        return messages;
+    }
+
+    /**
+     * The messages stored in one bucket, oldest first.
+     */
+    public List<ChatMessage> unpack(MessageBucket bucket) {
+        return decode(bucket.getMessages());
+    }
+
+    private void runScheduled() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            log.warn("Message archiving failed: {}", e.getMessage());
+        }
+    }
+
+    private void archiveConversation(String conversationId, List<ChatMessage> messages) {
+        int next = 0;
+
+        // Top up the newest bucket first so a conversation does not collect many small buckets
+        Optional<MessageBucket> newest = messageBucketRepository.findFirstByConversationIdOrderByFirstTimestampDesc(conversationId);
+        if (newest.isPresent() && newest.get().getCount() < bucketSize
+                && newest.get().getLastTimestamp().compareTo(messages.get(0).getTimestamp()) <= 0) {
+            MessageBucket bucket = newest.get();
+            List<ChatMessage> contents = new ArrayList<>(decode(bucket.getMessages()));
+            next = Math.min(bucketSize - bucket.getCount(), messages.size());
+            contents.addAll(messages.subList(0, next));
+            messageBucketRepository.save(toBucket(bucket.getId(), conversationId, contents));
+        }
+
+        for (int from = next; from < messages.size(); from += bucketSize) {
+            List<ChatMessage> chunk = messages.subList(from, Math.min(from + bucketSize, messages.size()));
+            messageBucketRepository.save(toBucket(null, conversationId, chunk));
+        }
+
+        // Readers de-duplicate by id, so a crash between saving and deleting is harmless.
+        // One remove with $in; deleteAll(entities) would send a delete per message
+        chatMessageRepository.deleteAllById(messages.stream().map(ChatMessage::getId).toList());
+    }
+
+    private MessageBucket toBucket(String id, String conversationId, List<ChatMessage> messages) {
+        messages.forEach(message -> message.setSender(null));
+        return MessageBucket.builder()
+                .id(id)
+                .conversationId(conversationId)
+                .firstTimestamp(messages.get(0).getTimestamp())
+                .lastTimestamp(messages.get(messages.size() - 1).getTimestamp())
+                .count(messages.size())
+                .messages(encode(messages))
+                .build();
+    }
+
+    private byte[] encode(List<ChatMessage> messages) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, messages);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<ChatMessage> decode(byte[] compressed) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return objectMapper.readValue(in, MESSAGE_LIST);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
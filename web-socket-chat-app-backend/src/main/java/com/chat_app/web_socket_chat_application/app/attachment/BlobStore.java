@@ -0,0 +1,33 @@
+package com.chat_app.web_socket_chat_application.app.attachment;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Storage for attachment contents. Implementations stream through channels and must not hold
+ * a whole blob in memory.
+ */
+public interface BlobStore {
+
+    /**
+     * Store everything readable from the source under the given key.
+     * @return Number of bytes written
+     */
+    long write(String key, ReadableByteChannel source) throws IOException;
+
+    /**
+     * Copy {@code count} bytes starting at {@code position} to the target.
+     */
+    void transferTo(String key, long position, long count, WritableByteChannel target) throws IOException;
+
+    /**
+     * The blob as a file on this machine, for stores that keep one, so the container can send it
+     * without copying it through the JVM.
+     */
+    Optional<Path> localPath(String key);
+
+    void delete(String key) throws IOException;
+}
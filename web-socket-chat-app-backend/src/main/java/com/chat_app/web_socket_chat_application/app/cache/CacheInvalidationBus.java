@@ -0,0 +1,137 @@
+package com.chat_app.web_socket_chat_application.app.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes entity changes to every replica so they can evict their local caches.
+ * Local entries are evicted immediately; remote invalidations are collected for a short
+ * window and sent as one de-duplicated batch, so a burst of writes to the same conversation
+ * costs a single AMQP message. When caching is disabled this is a no-op.
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus {
+
+    public static final String EXCHANGE = "chat.cache.invalidation";
+
+    private final ObjectProvider<RabbitTemplate> rabbitTemplate;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // Guarded by itself
+    private final Set<EntityChangedEvent> pending = new LinkedHashSet<>();
+    private ScheduledExecutorService flusher;
+
+    @Value("${chat.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${chat.cache.invalidation.batch-window-ms:50}")
+    private long batchWindowMs;
+
+    @Value("${chat.cache.invalidation.max-batch-size:500}")
+    private int maxBatchSize;
+
+    public CacheInvalidationBus(ObjectProvider<RabbitTemplate> rabbitTemplate, ObjectProvider<CacheManager> cacheManager) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.cacheManager = cacheManager;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, batchWindowMs, batchWindowMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+            flush();
+        }
+    }
+
+    public void publish(EntityChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        evict(event);
+
+        boolean full;
+        synchronized (pending) {
+            pending.add(event);
+            full = pending.size() >= maxBatchSize;
+        }
+        if (full) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    /**
+     * Apply a batch received from the invalidation exchange.
+     */
+    public void onBatch(InvalidationBatch batch) {
+        if (nodeId.equals(batch.origin())) {
+            return;
+        }
+        batch.events().forEach(this::evict);
+        log.debug("Applied {} invalidations from replica {}", batch.events().size(), batch.origin());
+    }
+
+    void flush() {
+        List<EntityChangedEvent> events;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            events = new ArrayList<>(pending);
+            pending.clear();
+        }
+
+        RabbitTemplate template = rabbitTemplate.getIfAvailable();
+        if (template == null) {
+            return;
+        }
+        try {
+            template.convertAndSend(EXCHANGE, "", new InvalidationBatch(nodeId, events));
+        } catch (AmqpException e) {
+            // Other replicas keep stale entries until the same entity is invalidated again
+            log.warn("Failed to publish {} cache invalidations: {}", events.size(), e.getMessage());
+        }
+    }
+
+    private void evict(EntityChangedEvent event) {
+        CacheManager manager = cacheManager.getIfAvailable();
+        if (manager == null) {
+            return;
+        }
+        Cache cache = manager.getCache(event.type().getCacheName());
+        if (cache != null) {
+            cache.evict(event.id());
+        }
+    }
+}
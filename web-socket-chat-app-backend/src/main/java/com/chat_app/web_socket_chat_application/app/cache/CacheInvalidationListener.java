@@ -0,0 +1,19 @@
+package com.chat_app.web_socket_chat_application.app.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "chat.cache.enabled", havingValue = "true")
+public class CacheInvalidationListener {
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    @RabbitListener(queues = "#{cacheInvalidationQueue.name}")
+    public void onInvalidation(InvalidationBatch batch) {
+        cacheInvalidationBus.onBatch(batch);
+    }
+}
@@ -0,0 +1,12 @@
+package com.chat_app.web_socket_chat_application.app.cache;
+
+/**
+ * Names of the node-local caches kept coherent across replicas by the invalidation bus.
+ */
+public final class CacheNames {
+    public static final String USERS = "users";
+    public static final String CONVERSATIONS = "conversations";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,22 @@
+package com.chat_app.web_socket_chat_application.app.cache;
+
+/**
+ * A change to a cached entity that other replicas must evict from their local caches.
+ */
+public record EntityChangedEvent(EntityType type, String id, ChangeType change) {
+
+    public enum ChangeType {
+        RENAMED,
+        STATUS_CHANGED,
+        UPDATED,
+        DELETED
+    }
+
+    public static EntityChangedEvent user(String id, ChangeType change) {
+        return new EntityChangedEvent(EntityType.USER, id, change);
+    }
+
+    public static EntityChangedEvent conversation(String id, ChangeType change) {
+        return new EntityChangedEvent(EntityType.CONVERSATION, id, change);
+    }
+}
@@ -0,0 +1,14 @@
+package com.chat_app.web_socket_chat_application.app.cache;
+
+import lombok.Getter;
+
+@Getter
+public enum EntityType {
+    USER(CacheNames.USERS),
+    CONVERSATION(CacheNames.CONVERSATIONS),
+    ;
+    private final String cacheName;
+    EntityType(String cacheName) {
+        this.cacheName = cacheName;
+    }
+}
@@ -0,0 +1,10 @@
+package com.chat_app.web_socket_chat_application.app.cache;
+
+import java.util.List;
+
+/**
+ * One AMQP message on the invalidation exchange. {@code origin} identifies the publishing
+ * replica so it can skip its own batches.
+ */
+public record InvalidationBatch(String origin, List<EntityChangedEvent> events) {
+}
@@ -8,6 +8,11 @@ public enum ExceptionCode {
     INVALID_USERNAME(1003, "Invalid username"),
     INVALID_PASSWORD(1004, "Invalid password"),
     USER_NOT_EXISTED(1005, "User does not exist"),
+    INVALID_RETENTION(1006, "Retention must be a positive number of days"),
+    ATTACHMENT_NOT_EXISTED(1007, "Attachment does not exist"),
+    AUTHENTICATION_BUSY(1008, "Too many authentication requests, please retry shortly"),
+    INVALID_REFRESH_TOKEN(1009, "Refresh token is invalid or expired"),
+    ATTACHMENT_FORBIDDEN(1010, "Attachment is not shared with this user"),
     UNAUTHORIZED(401, "Unauthorized"),
 
     CHATROOM_NOT_EXISTED(402, "Chatroom does not exist"),
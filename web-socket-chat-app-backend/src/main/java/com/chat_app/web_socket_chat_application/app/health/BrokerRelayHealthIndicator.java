@@ -0,0 +1,36 @@
+package com.chat_app.web_socket_chat_application.app.health;
+
+import com.chat_app.web_socket_chat_application.app.messaging.BrokerRelayHealth;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Reports the STOMP broker connection as tracked by {@link BrokerRelayHealth}: the relay's
+ * system connection to RabbitMQ, the in-process broker, or the AMQP link in node-routing mode.
+ * Down until the first connection is established.
+ * <p>
+ * The broker is shared by every replica, so this is not part of the readiness group: while it
+ * is away the publishers buffer and the outbox catches up, and taking every pod out of the load
+ * balancer at once would only turn a broker blip into a full outage.
+ */
+@Component
+public class BrokerRelayHealthIndicator implements HealthIndicator {
+
+    private final BrokerRelayHealth brokerRelayHealth;
+
+    public BrokerRelayHealthIndicator(BrokerRelayHealth brokerRelayHealth) {
+        this.brokerRelayHealth = brokerRelayHealth;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = brokerRelayHealth.isAvailable() ? Health.up() : Health.down();
+        return builder
+                .withDetail("since", Instant.ofEpochMilli(brokerRelayHealth.getLastChangeMillis()).toString())
+                .withDetail("outages", brokerRelayHealth.getOutageCount())
+                .build();
+    }
+}
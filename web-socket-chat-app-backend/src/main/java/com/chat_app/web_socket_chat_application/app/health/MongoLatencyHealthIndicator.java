@@ -0,0 +1,117 @@
+package com.chat_app.web_socket_chat_application.app.health;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pings MongoDB every {@code chat.health.mongo.sample-interval-ms} and reports the latency of
+ * the last ping, so health checks never wait on the database themselves. A ping slower than
+ * {@code chat.health.mongo.max-latency-ms}, or one still pending for longer, counts as slow and
+ * a failed ping as failed; the indicator only reports OUT_OF_SERVICE or DOWN once
+ * {@code chat.health.mongo.failure-threshold} pings in a row were slow or failed, so a single
+ * blip does not show up. No ping completing for three intervals reports DOWN.
+ * <p>
+ * Mongo is shared by every replica, so this is not part of the readiness group: a slow database
+ * must not take the whole fleet out of the load balancer.
+ */
+@Component
+@Slf4j
+public class MongoLatencyHealthIndicator implements HealthIndicator {
+
+    private final MongoTemplate mongoTemplate;
+    private ScheduledExecutorService sampler;
+    private volatile Sample last;
+    // Start of the ping in flight, 0 when none; a hanging ping is as bad as a slow one
+    private volatile long pingStartedAt;
+    private volatile int consecutiveFailures;
+
+    @Value("${chat.health.mongo.sample-interval-ms:5000}")
+    private long sampleIntervalMs;
+
+    @Value("${chat.health.mongo.max-latency-ms:250}")
+    private long maxLatencyMs;
+
+    @Value("${chat.health.mongo.failure-threshold:3}")
+    private int failureThreshold;
+
+    public MongoLatencyHealthIndicator(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @PostConstruct
+    public void start() {
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mongo-ping-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleWithFixedDelay(this::sample, 0, sampleIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sampler.shutdownNow();
+    }
+
+    void sample() {
+        long start = System.nanoTime();
+        pingStartedAt = System.currentTimeMillis();
+        try {
+            mongoTemplate.getDb().runCommand(new Document("ping", 1));
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            consecutiveFailures = latencyMs > maxLatencyMs ? consecutiveFailures + 1 : 0;
+            last = new Sample(System.currentTimeMillis(), latencyMs, null);
+        } catch (RuntimeException e) {
+            log.debug("Mongo ping failed", e);
+            consecutiveFailures++;
+            last = new Sample(System.currentTimeMillis(), -1, e.getClass().getSimpleName() + ": " + e.getMessage());
+        } finally {
+            pingStartedAt = 0;
+        }
+    }
+
+    @Override
+    public Health health() {
+        long startedAt = pingStartedAt;
+        long pending = startedAt == 0 ? 0 : System.currentTimeMillis() - startedAt;
+        // The ping in flight counts once it is already slower than allowed
+        int failures = consecutiveFailures + (pending > maxLatencyMs ? 1 : 0);
+        boolean failing = failures >= failureThreshold;
+        if (failing && pending > maxLatencyMs) {
+            return Health.outOfService().withDetail("reason", "ping pending for " + pending + " ms")
+                    .withDetail("consecutiveFailures", failures).build();
+        }
+        Sample sample = last;
+        if (sample == null) {
+            return Health.unknown().withDetail("reason", "no ping completed yet").build();
+        }
+        long age = System.currentTimeMillis() - sample.takenAt();
+        if (age > 3 * sampleIntervalMs && pending <= maxLatencyMs) {
+            return Health.down().withDetail("reason", "no ping completed for " + age + " ms").build();
+        }
+        if (failing && sample.error() != null) {
+            return Health.down().withDetail("error", sample.error())
+                    .withDetail("consecutiveFailures", failures).build();
+        }
+        return Health.status(failing ? Status.OUT_OF_SERVICE : Status.UP)
+                .withDetail("latencyMs", sample.latencyMs())
+                .withDetail("maxLatencyMs", maxLatencyMs)
+                .withDetail("consecutiveFailures", failures)
+                .build();
+    }
+
+    private record Sample(long takenAt, long latencyMs, String error) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.chat_app.web_socket_chat_application.app.health;
+
+import com.chat_app.web_socket_chat_application.app.websocket.OutboundSessionRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compares the open WebSocket sessions with {@code chat.websocket.capacity}. At capacity the
+ * node reports OUT_OF_SERVICE, so it drops out of readiness and the load balancer sends new
+ * connections elsewhere while existing sessions stay. It only reports UP again once the count
+ * falls below {@code capacity-resume-ratio} of capacity and it has been out for at least
+ * {@code capacity-hold-ms}, so a node near the limit does not flap in and out of the endpoints.
+ */
+@Component
+@Slf4j
+public class SessionLoadHealthIndicator implements HealthIndicator {
+
+    private final OutboundSessionRegistry outboundSessionRegistry;
+    private volatile boolean overloaded;
+    private volatile long overloadedSince;
+
+    @Value("${chat.websocket.capacity:5000}")
+    private int capacity;
+
+    @Value("${chat.websocket.capacity-resume-ratio:0.9}")
+    private double resumeRatio;
+
+    @Value("${chat.websocket.capacity-hold-ms:60000}")
+    private long holdMs;
+
+    public SessionLoadHealthIndicator(OutboundSessionRegistry outboundSessionRegistry) {
+        this.outboundSessionRegistry = outboundSessionRegistry;
+    }
+
+    @Override
+    public Health health() {
+        int sessions = outboundSessionRegistry.getSessionCount();
+        boolean wasOverloaded = overloaded;
+        long now = System.currentTimeMillis();
+        if (sessions >= capacity) {
+            if (!wasOverloaded) {
+                overloadedSince = now;
+            }
+            overloaded = true;
+        } else if (sessions < capacity * resumeRatio && now - overloadedSince >= holdMs) {
+            overloaded = false;
+        }
+        if (overloaded && !wasOverloaded) {
+            log.warn("Session capacity reached, {} of {}; refusing new traffic", sessions, capacity);
+        } else if (!overloaded && wasOverloaded) {
+            log.info("Session load back to {} of {}; accepting traffic", sessions, capacity);
+        }
+        return Health.status(overloaded ? Status.OUT_OF_SERVICE : Status.UP)
+                .withDetail("sessions", sessions)
+                .withDetail("capacity", capacity)
+                .build();
+    }
+}
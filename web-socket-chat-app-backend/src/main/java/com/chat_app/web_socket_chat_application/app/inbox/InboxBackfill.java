@@ -0,0 +1,205 @@
+package com.chat_app.web_socket_chat_application.app.inbox;
+
+import com.chat_app.web_socket_chat_application.app.scheduling.JobLock;
+import com.chat_app.web_socket_chat_application.app.service.InboxService;
+import com.chat_app.web_socket_chat_application.domain.entity.Conversation;
+import com.chat_app.web_socket_chat_application.domain.entity.InboxEntry;
+import com.chat_app.web_socket_chat_application.domain.projection.UserName;
+import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates inbox entries for conversations that predate the materialized inbox, on one replica
+ * at a time. Progress is stored after every batch, so a run that fails or whose replica stops
+ * resumes where it left off; runs are retried every {@code chat.inbox.backfill.retry-interval-ms}
+ * until one reaches the end, which is then recorded for all replicas. Until then
+ * {@link #isComplete()} is false and conversation lists are read from the conversations
+ * themselves, since a user's inbox may hold only the conversations written since deploy.
+ * With {@code chat.inbox.backfill.enabled=false} this replica only watches for the marker.
+ */
+@Component
+@Slf4j
+public class InboxBackfill {
+
+    private static final String JOB = "inbox-backfill";
+    private static final String STATE = "inbox_backfill";
+    private static final String STATE_ID = "conversations";
+    // Renewed after every batch, so a crashed run is taken over quickly
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final InboxService inboxService;
+    private final JobLock jobLock;
+    private ScheduledExecutorService executor;
+    private volatile boolean complete;
+
+    @Value("${chat.inbox.backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chat.inbox.backfill.batch-size:500}")
+    private int batchSize;
+
+    @Value("${chat.inbox.backfill.retry-interval-ms:60000}")
+    private long retryIntervalMs;
+
+    public InboxBackfill(MongoTemplate mongoTemplate,
+                         UserRepository userRepository,
+                         InboxService inboxService,
+                         JobLock jobLock) {
+        this.mongoTemplate = mongoTemplate;
+        this.userRepository = userRepository;
+        this.inboxService = inboxService;
+        this.jobLock = jobLock;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inbox-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::runScheduled, 0, retryIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Whether every conversation is known to have its inbox entries.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    private void runScheduled() {
+        if (complete) {
+            executor.shutdown();
+            return;
+        }
+        try {
+            if (enabled) {
+                backfill();
+            } else {
+                readState();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Inbox backfill failed, retrying in {} ms: {}", retryIntervalMs, e.getMessage());
+        }
+    }
+
+    /**
+     * Continue the backfill from the last stored position.
+     * @return Number of conversations whose entries were created, 0 if another replica holds the job lock
+     */
+    public int backfill() {
+        if (readState() == null || !jobLock.tryAcquire(JOB, LEASE)) {
+            return 0;
+        }
+        try {
+            // Read again under the lock, the previous holder may have moved on
+            String lastId = readState();
+            if (lastId == null) {
+                return 0;
+            }
+            int created = 0;
+            List<Conversation> batch;
+            do {
+                Query page = new Query().with(Sort.by("_id")).limit(batchSize);
+                if (!lastId.isEmpty()) {
+                    page.addCriteria(Criteria.where("_id").gt(lastId));
+                }
+                batch = mongoTemplate.find(page, Conversation.class);
+                if (!batch.isEmpty()) {
+                    created += backfill(batch);
+                    lastId = batch.get(batch.size() - 1).getId();
+                    saveState(new Update().set("lastId", lastId));
+                    jobLock.tryAcquire(JOB, LEASE);
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    return created;
+                }
+            } while (batch.size() == batchSize);
+
+            saveState(new Update().set("complete", true).set("completedAt", new Date()));
+            complete = true;
+            log.info("Inbox backfill complete, created entries for {} conversations in this run", created);
+            return created;
+        } finally {
+            jobLock.release(JOB);
+        }
+    }
+
+    /**
+     * @return Id of the last conversation handled, empty to start from the beginning, or null
+     * (and {@link #isComplete()} set) if the backfill has finished
+     */
+    private String readState() {
+        Document state = mongoTemplate.findById(STATE_ID, Document.class, STATE);
+        if (state != null && Boolean.TRUE.equals(state.get("complete"))) {
+            complete = true;
+            return null;
+        }
+        return state == null || state.getString("lastId") == null ? "" : state.getString("lastId");
+    }
+
+    private void saveState(Update update) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(STATE_ID)), update, STATE);
+    }
+
+    private int backfill(List<Conversation> conversations) {
+        List<String> ids = conversations.stream().map(Conversation::getId).toList();
+        Set<String> materialized = new HashSet<>(mongoTemplate.findDistinct(
+                Query.query(Criteria.where("conversationId").in(ids)), "conversationId", InboxEntry.class, String.class));
+        List<Conversation> missing = conversations.stream()
+                .filter(conversation -> !materialized.contains(conversation.getId()))
+                .toList();
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> participantIds = new HashSet<>();
+        missing.forEach(conversation -> {
+            participantIds.add(conversation.getSenderId());
+            participantIds.add(conversation.getReceiverId());
+        });
+        Map<String, UserName> participants = userRepository.findProjectedByIdIn(participantIds, UserName.class).stream()
+                .collect(Collectors.toMap(UserName::id, Function.identity()));
+
+        int created = 0;
+        for (Conversation conversation : missing) {
+            UserName sender = participants.get(conversation.getSenderId());
+            UserName receiver = participants.get(conversation.getReceiverId());
+            if (sender != null && receiver != null) {
+                inboxService.rebuild(conversation, sender, receiver);
+                created++;
+            }
+        }
+        return created;
+    }
+}
@@ -0,0 +1,190 @@
+package com.chat_app.web_socket_chat_application.app.index;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Makes sure the indexes declared on the entities ({@code @Indexed}, {@code @CompoundIndex})
+ * exist, since Boot does not create them by default. With {@code chat.mongo.indexes.mode=create}
+ * missing indexes are built, with {@code verify} they are only reported, and {@code off} skips
+ * the check. Indexes are matched on their keys, so one created by hand under another name counts.
+ * An existing index whose {@code unique}, {@code sparse}, {@code partialFilterExpression} or
+ * {@code expireAfterSeconds} differ from the declaration is reported as mismatched and logged as
+ * an error; it is never dropped automatically, since rebuilding it is an operator decision.
+ * <p>
+ * With {@code chat.mongo.indexes.fail-fast=true} the check runs before the web server starts and
+ * a missing or mismatched index or a failed build aborts startup. Otherwise it runs in the background and
+ * only logs, so an unreachable database does not hold up startup.
+ */
+@Component
+@Slf4j
+public class IndexBootstrap implements SmartInitializingSingleton {
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private ExecutorService executor;
+
+    @Value("${chat.mongo.indexes.mode:create}")
+    private String mode;
+
+    @Value("${chat.mongo.indexes.fail-fast:false}")
+    private boolean failFast;
+
+    public IndexBootstrap(MongoTemplate mongoTemplate, MongoMappingContext mappingContext) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if ("off".equalsIgnoreCase(mode)) {
+            return;
+        }
+        if (failFast) {
+            bootstrap();
+            return;
+        }
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "index-bootstrap");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(() -> {
+            try {
+                bootstrap();
+            } catch (RuntimeException e) {
+                log.warn("Index bootstrap failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return Names of declared indexes that are still missing afterwards or exist with other
+     * options, as {@code collection.index}
+     * @throws IllegalStateException in fail-fast mode, if any are
+     */
+    public List<String> bootstrap() {
+        boolean create = "create".equalsIgnoreCase(mode);
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        List<String> missing = new ArrayList<>();
+        List<String> mismatched = new ArrayList<>();
+        int created = 0;
+
+        // Copied, resolving indexes can register further (embedded) entities
+        for (MongoPersistentEntity<?> entity : new ArrayList<>(mappingContext.getPersistentEntities())) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            IndexOperations indexOps = mongoTemplate.indexOps(entity.getCollection());
+            Map<Map<String, Object>, IndexInfo> existing = new LinkedHashMap<>();
+            indexOps.getIndexInfo().forEach(info -> existing.put(keysOf(info), info));
+            for (IndexDefinition definition : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                String name = entity.getCollection() + "." + definition.getIndexOptions().getString("name");
+                IndexInfo info = existing.get(keysOf(definition));
+                if (info != null) {
+                    Map<String, Object> declared = optionsOf(definition);
+                    Map<String, Object> found = optionsOf(info);
+                    if (!declared.equals(found)) {
+                        log.error("Index {} exists as {} with options {} but is declared with {}; drop it to have it rebuilt",
+                                name, info.getName(), found, declared);
+                        mismatched.add(name);
+                    }
+                    continue;
+                }
+                if (!create) {
+                    missing.add(name);
+                    continue;
+                }
+                try {
+                    indexOps.ensureIndex(definition);
+                    created++;
+                } catch (RuntimeException e) {
+                    log.warn("Creating index {} failed: {}", name, e.getMessage());
+                    missing.add(name);
+                }
+            }
+        }
+
+        if (created > 0) {
+            log.info("Created {} missing indexes", created);
+        }
+        if (failFast && !(missing.isEmpty() && mismatched.isEmpty())) {
+            throw new IllegalStateException("Missing indexes: " + missing + ", mismatched indexes: " + mismatched);
+        }
+        if (!missing.isEmpty()) {
+            log.warn("Missing indexes: {}", missing);
+        }
+        List<String> unresolved = new ArrayList<>(missing);
+        unresolved.addAll(mismatched);
+        return unresolved;
+    }
+
+    private static Map<String, Object> keysOf(IndexDefinition definition) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        definition.getIndexKeys().forEach((field, direction) ->
+                keys.put(field, direction instanceof Number number ? number.intValue() : direction));
+        return keys;
+    }
+
+    // Only the options that change what the index enforces or which documents it holds
+    private static Map<String, Object> optionsOf(IndexDefinition definition) {
+        org.bson.Document options = definition.getIndexOptions();
+        Object expireAfter = options.get("expireAfterSeconds");
+        return options(options.getBoolean("unique", false), options.getBoolean("sparse", false),
+                options.get("partialFilterExpression", org.bson.Document.class),
+                expireAfter instanceof Number seconds ? seconds.longValue() : null);
+    }
+
+    private static Map<String, Object> optionsOf(IndexInfo info) {
+        String partialFilter = info.getPartialFilterExpression();
+        return options(info.isUnique(), info.isSparse(),
+                partialFilter == null ? null : org.bson.Document.parse(partialFilter),
+                info.getExpireAfter().map(Duration::getSeconds).orElse(null));
+    }
+
+    private static Map<String, Object> options(boolean unique, boolean sparse, org.bson.Document partialFilter, Long expireAfterSeconds) {
+        Map<String, Object> options = new LinkedHashMap<>();
+        options.put("unique", unique);
+        options.put("sparse", sparse);
+        options.put("partialFilterExpression", partialFilter);
+        options.put("expireAfterSeconds", expireAfterSeconds);
+        return options;
+    }
+
+    private static Map<String, Object> keysOf(IndexInfo info) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (IndexField field : info.getIndexFields()) {
+            Sort.Direction direction = field.getDirection();
+            keys.put(field.getKey(), direction == null ? "special" : direction.isAscending() ? 1 : -1);
+        }
+        return keys;
+    }
+}
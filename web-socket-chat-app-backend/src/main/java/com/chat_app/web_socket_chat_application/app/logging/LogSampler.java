@@ -0,0 +1,104 @@
+package com.chat_app.web_socket_chat_application.app.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sampling and rate limiting for log events on per-message paths. Each category logs one event
+ * in {@code sample-rate} and at most {@code max-per-second} events a second; everything else is
+ * counted and reported as {@code suppressed} on the next event that gets through. Events are
+ * built with the SLF4J fluent API, so arguments are only formatted for events that are written,
+ * and the category and suppressed count travel as key/value pairs for structured output.
+ * <p>
+ * Defaults come from {@code chat.logging.sampling.sample-rate} and
+ * {@code chat.logging.sampling.max-per-second}, and can be set per category with
+ * {@code chat.logging.sampling.categories.<category>.sample-rate} and {@code .max-per-second}.
+ */
+@Component
+public class LogSampler {
+
+    private final Environment environment;
+    private final int defaultSampleRate;
+    private final int defaultMaxPerSecond;
+    private final Map<String, Category> categories = new ConcurrentHashMap<>();
+
+    public LogSampler(Environment environment) {
+        this.environment = environment;
+        this.defaultSampleRate = Math.max(1, environment.getProperty("chat.logging.sampling.sample-rate", Integer.class, 1));
+        this.defaultMaxPerSecond = environment.getProperty("chat.logging.sampling.max-per-second", Integer.class, 20);
+    }
+
+    public LoggingEventBuilder atInfo(Logger logger, String category) {
+        if (!logger.isInfoEnabled() || !category(category).admit()) {
+            return NOPLoggingEventBuilder.singleton();
+        }
+        return withCategory(logger.atInfo(), category);
+    }
+
+    public LoggingEventBuilder atDebug(Logger logger, String category) {
+        if (!logger.isDebugEnabled() || !category(category).admit()) {
+            return NOPLoggingEventBuilder.singleton();
+        }
+        return withCategory(logger.atDebug(), category);
+    }
+
+    private LoggingEventBuilder withCategory(LoggingEventBuilder builder, String category) {
+        long suppressed = category(category).suppressed.getAndSet(0);
+        builder.addKeyValue("category", category);
+        if (suppressed > 0) {
+            builder.addKeyValue("suppressed", suppressed);
+        }
+        return builder;
+    }
+
+    private Category category(String name) {
+        return categories.computeIfAbsent(name, key -> {
+            String prefix = "chat.logging.sampling.categories." + key;
+            return new Category(
+                    Math.max(1, environment.getProperty(prefix + ".sample-rate", Integer.class, defaultSampleRate)),
+                    environment.getProperty(prefix + ".max-per-second", Integer.class, defaultMaxPerSecond));
+        });
+    }
+
+    private static final class Category {
+        private final int sampleRate;
+        private final int maxPerSecond;
+        private final AtomicLong seen = new AtomicLong();
+        private final AtomicLong suppressed = new AtomicLong();
+        private final AtomicLong window = new AtomicLong();
+        private final AtomicInteger emittedInWindow = new AtomicInteger();
+
+        private Category(int sampleRate, int maxPerSecond) {
+            this.sampleRate = sampleRate;
+            this.maxPerSecond = maxPerSecond;
+        }
+
+        boolean admit() {
+            if (seen.incrementAndGet() % sampleRate != 0) {
+                suppressed.incrementAndGet();
+                return false;
+            }
+            if (maxPerSecond <= 0) {
+                return true;
+            }
+            long second = System.currentTimeMillis() / 1000;
+            long current = window.get();
+            if (current != second && window.compareAndSet(current, second)) {
+                emittedInWindow.set(0);
+            }
+            if (emittedInWindow.incrementAndGet() > maxPerSecond) {
+                suppressed.incrementAndGet();
+                return false;
+            }
+            return true;
+        }
+    }
+}
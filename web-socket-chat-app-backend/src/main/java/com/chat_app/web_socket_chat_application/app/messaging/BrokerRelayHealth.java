@@ -0,0 +1,62 @@
+package com.chat_app.web_socket_chat_application.app.messaging;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.messaging.simp.broker.BrokerAvailabilityEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks whether the STOMP broker relay currently holds its system connection to RabbitMQ.
+ * The relay publishes a {@link BrokerAvailabilityEvent} every time that connection is
+ * established or lost.
+ */
+@Component
+@Slf4j
+public class BrokerRelayHealth {
+
+    private volatile boolean available;
+    private volatile long lastChangeMillis = System.currentTimeMillis();
+    private final AtomicLong outageCount = new AtomicLong();
+
+    public BrokerRelayHealth(MeterRegistry meterRegistry) {
+        Gauge.builder("chat.broker.relay.available", this, health -> health.available ? 1 : 0)
+                .description("1 when the STOMP broker relay system connection is up")
+                .register(meterRegistry);
+        meterRegistry.gauge("chat.broker.relay.outages", outageCount);
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onBrokerAvailability(BrokerAvailabilityEvent event) {
+        boolean nowAvailable = event.isBrokerAvailable();
+        if (nowAvailable == available) {
+            return;
+        }
+        if (!nowAvailable) {
+            outageCount.incrementAndGet();
+            log.warn("STOMP broker relay lost its connection to the broker");
+        } else {
+            log.info("STOMP broker relay connected to the broker");
+        }
+        available = nowAvailable;
+        lastChangeMillis = System.currentTimeMillis();
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public long getLastChangeMillis() {
+        return lastChangeMillis;
+    }
+
+    public long getOutageCount() {
+        return outageCount.get();
+    }
+}
@@ -0,0 +1,67 @@
+package com.chat_app.web_socket_chat_application.app.messaging;
+
+import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers recently stored messages by sender and client message id so a retried send can be
+ * answered from memory. Entries expire after {@code chat.dedup.window-ms} and the set never holds
+ * more than {@code chat.dedup.max-entries}; anything older is caught by the unique index on
+ * {@code chat_messages}.
+ */
+@Component
+public class MessageDeduplicator {
+
+    @Value("${chat.dedup.window-ms:300000}")
+    private long windowMs;
+
+    @Value("${chat.dedup.max-entries:100000}")
+    private int maxEntries;
+
+    // Guarded by itself; insertion order is also expiry order
+    private final LinkedHashMap<String, Entry> recent = new LinkedHashMap<>();
+
+    private record Entry(ChatMessage message, long storedAt) {
+    }
+
+    public ChatMessage find(String senderId, String clientMessageId) {
+        long now = System.currentTimeMillis();
+        synchronized (recent) {
+            expire(now);
+            Entry entry = recent.get(key(senderId, clientMessageId));
+            return entry != null ? entry.message() : null;
+        }
+    }
+
+    public void remember(ChatMessage message) {
+        if (message.getClientMessageId() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (recent) {
+            expire(now);
+            recent.put(key(message.getSenderId(), message.getClientMessageId()), new Entry(message, now));
+            if (recent.size() > maxEntries) {
+                Iterator<String> oldest = recent.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+            }
+        }
+    }
+
+    private void expire(long now) {
+        Iterator<Map.Entry<String, Entry>> entries = recent.entrySet().iterator();
+        while (entries.hasNext() && now - entries.next().getValue().storedAt() > windowMs) {
+            entries.remove();
+        }
+    }
+
+    private static String key(String senderId, String clientMessageId) {
+        return senderId + ':' + clientMessageId;
+    }
+}
@@ -0,0 +1,310 @@
+package com.chat_app.web_socket_chat_application.app.messaging;
+
+import com.chat_app.web_socket_chat_application.app.websocket.LocalSubscriptionRegistry;
+import com.chat_app.web_socket_chat_application.app.websocket.LocalSubscriptionRegistry.LocalSubscription;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.BrokerAvailabilityEvent;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends outbound chat events to the message broker and keeps them safe while the broker
+ * relay is reconnecting. Frames published during an outage are held in a bounded buffer and
+ * replayed in order once the relay is back; in the meantime they are also delivered straight
+ * to subscribers connected to this node. Clients may therefore see a frame twice and should
+ * de-duplicate by message id.
+ * <p>
+ * A send can also fail while the relay still reports itself available. The frame is then
+ * buffered and a replay is scheduled with a backoff from {@code chat.broker.relay.replay-backoff-ms}
+ * up to {@code replay-max-backoff-ms}; a frame that fails {@code replay-max-attempts} times is
+ * dropped so it cannot hold up everything queued behind it.
+ */
+@Component
+@Slf4j
+public class MessagePublisher {
+
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final MessageChannel clientOutboundChannel;
+    private final LocalSubscriptionRegistry localSubscriptions;
+    private final BrokerRelayHealth relayHealth;
+    private final ObjectProvider<NodeRouter> nodeRouter;
+    private final Counter droppedFrames;
+    private final Counter replayDropped;
+    private final Counter localDeliveries;
+
+    private final ScheduledExecutorService replayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "broker-relay-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by buffer: the frames, failed sends of the head frame, and whether a retry is queued
+    private final Deque<PendingFrame> buffer = new ArrayDeque<>();
+    private int headAttempts;
+    private boolean retryScheduled;
+
+    @Value("${chat.broker.relay.buffer-capacity:10000}")
+    private int bufferCapacity;
+
+    @Value("${chat.broker.relay.replay-max-attempts:5}")
+    private int replayMaxAttempts;
+
+    @Value("${chat.broker.relay.replay-backoff-ms:500}")
+    private long replayBackoffMs;
+
+    @Value("${chat.broker.relay.replay-max-backoff-ms:30000}")
+    private long replayMaxBackoffMs;
+
+    public MessagePublisher(SimpMessagingTemplate simpMessagingTemplate,
+                            @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                            LocalSubscriptionRegistry localSubscriptions,
+                            BrokerRelayHealth relayHealth,
+                            ObjectProvider<NodeRouter> nodeRouter,
+                            MeterRegistry meterRegistry) {
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.localSubscriptions = localSubscriptions;
+        this.relayHealth = relayHealth;
+        this.nodeRouter = nodeRouter;
+        this.droppedFrames = meterRegistry.counter("chat.broker.relay.buffer.dropped");
+        this.replayDropped = meterRegistry.counter("chat.broker.relay.replay.dropped");
+        this.localDeliveries = meterRegistry.counter("chat.broker.relay.local_deliveries");
+        // Read through getBufferedCount, the deque is only safe to touch under its lock
+        Gauge.builder("chat.broker.relay.buffer.size", this, MessagePublisher::getBufferedCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code true} if the frame was handed to the broker, {@code false} if it was only
+     * buffered in memory, where it is lost on a crash or when the buffer overflows
+     */
+    public boolean publish(String destination, Object payload) {
+        return publish(destination, payload, null);
+    }
+
+    public boolean publish(String destination, Object payload, Map<String, Object> headers) {
+        PendingFrame frame = new PendingFrame(destination, payload, headers);
+
+        boolean buffered = false;
+        synchronized (buffer) {
+            // Keep ordering: once anything is buffered, later frames queue up behind it
+            if (!relayHealth.isAvailable() || !buffer.isEmpty()) {
+                enqueue(frame);
+                buffered = true;
+            }
+        }
+        if (buffered) {
+            if (relayHealth.isAvailable()) {
+                // Queued behind a frame that failed to send; the scheduled replay takes both
+                scheduleRetry();
+            } else {
+                deliverLocally(frame);
+            }
+            return false;
+        }
+
+        try {
+            send(frame);
+            return true;
+        } catch (MessagingException e) {
+            log.warn("Broker send to {} failed, buffering frame: {}", destination, e.getMessage());
+            synchronized (buffer) {
+                enqueue(frame);
+            }
+            deliverLocally(frame);
+            // No availability event may follow, since the relay still looks connected
+            scheduleRetry();
+            return false;
+        }
+    }
+
+    /**
+     * Send a frame without buffering it. If the broker is away or refuses the frame, it is only
+     * delivered to subscribers on this node and the caller is responsible for sending it again.
+     * @return {@code true} if the frame was handed to the broker
+     */
+    public boolean trySend(String destination, Object payload) {
+        PendingFrame frame = new PendingFrame(destination, payload, null);
+        if (relayHealth.isAvailable()) {
+            try {
+                send(frame);
+                return true;
+            } catch (MessagingException e) {
+                log.warn("Broker send to {} failed: {}", destination, e.getMessage());
+            }
+        }
+        deliverLocally(frame);
+        return false;
+    }
+
+    @EventListener
+    public void onBrokerAvailability(BrokerAvailabilityEvent event) {
+        if (event.isBrokerAvailable()) {
+            replayExecutor.execute(this::replayBuffered);
+        }
+    }
+
+    public boolean isBrokerAvailable() {
+        return relayHealth.isAvailable();
+    }
+
+    public int getBufferedCount() {
+        synchronized (buffer) {
+            return buffer.size();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        replayExecutor.shutdownNow();
+    }
+
+    private void replayBuffered() {
+        int replayed = 0;
+        while (relayHealth.isAvailable()) {
+            PendingFrame frame;
+            synchronized (buffer) {
+                frame = buffer.peekFirst();
+                if (frame == null) {
+                    break;
+                }
+            }
+            try {
+                send(frame);
+            } catch (MessagingException e) {
+                if (!giveUpOn(frame, e)) {
+                    break;
+                }
+                continue;
+            }
+            synchronized (buffer) {
+                // Only if still at the head; an overflow may have dropped it meanwhile
+                if (buffer.peekFirst() == frame) {
+                    buffer.pollFirst();
+                }
+                headAttempts = 0;
+            }
+            replayed++;
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} buffered frames to the broker", replayed);
+        }
+    }
+
+    /**
+     * Count a failed replay of the head frame and drop it once it has used up its attempts.
+     * @return {@code true} if it was dropped and the replay can go on with the next frame
+     */
+    private boolean giveUpOn(PendingFrame frame, MessagingException e) {
+        int attempts;
+        synchronized (buffer) {
+            attempts = ++headAttempts;
+            if (attempts >= replayMaxAttempts) {
+                if (buffer.peekFirst() == frame) {
+                    buffer.pollFirst();
+                }
+                headAttempts = 0;
+            }
+        }
+        if (attempts >= replayMaxAttempts) {
+            replayDropped.increment();
+            log.error("Dropping frame to {} after {} failed sends: {}", frame.destination(), attempts, e.getMessage());
+            return true;
+        }
+        log.warn("Replay to {} failed ({} of {}), retrying: {}", frame.destination(), attempts, replayMaxAttempts, e.getMessage());
+        scheduleRetry();
+        return false;
+    }
+
+    private void scheduleRetry() {
+        long delay;
+        synchronized (buffer) {
+            if (retryScheduled) {
+                return;
+            }
+            retryScheduled = true;
+            delay = Math.min(replayBackoffMs << Math.min(headAttempts, 20), replayMaxBackoffMs);
+        }
+        try {
+            replayExecutor.schedule(() -> {
+                synchronized (buffer) {
+                    retryScheduled = false;
+                }
+                replayBuffered();
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private void send(PendingFrame frame) {
+        NodeRouter router = nodeRouter.getIfAvailable();
+        if (router != null) {
+            router.route(frame.destination(), frame.payload(), frame.headers());
+        } else if (frame.headers() == null) {
+            simpMessagingTemplate.convertAndSend(frame.destination(), frame.payload());
+        } else {
+            simpMessagingTemplate.convertAndSend(frame.destination(), frame.payload(), frame.headers());
+        }
+    }
+
+    private void enqueue(PendingFrame frame) {
+        if (buffer.size() >= bufferCapacity) {
+            buffer.pollFirst();
+            droppedFrames.increment();
+        }
+        buffer.addLast(frame);
+    }
+
+    private void deliverLocally(PendingFrame frame) {
+        List<LocalSubscription> subscriptions = localSubscriptions.getSubscriptions(frame.destination());
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+
+        SimpMessageHeaderAccessor template = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        template.setDestination(frame.destination());
+        template.setLeaveMutable(true);
+        Message<?> converted = simpMessagingTemplate.getMessageConverter().toMessage(frame.payload(), template.getMessageHeaders());
+        if (converted == null) {
+            log.warn("No converter for local delivery of {}", frame.payload().getClass().getSimpleName());
+            return;
+        }
+
+        for (LocalSubscription subscription : subscriptions) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.copyHeadersIfAbsent(converted.getHeaders());
+            accessor.setSessionId(subscription.sessionId());
+            accessor.setSubscriptionId(subscription.subscriptionId());
+            accessor.setDestination(frame.destination());
+            clientOutboundChannel.send(MessageBuilder.createMessage(converted.getPayload(), accessor.getMessageHeaders()));
+            localDeliveries.increment();
+        }
+    }
+
+    private record PendingFrame(String destination, Object payload, Map<String, Object> headers) {
+    }
+}
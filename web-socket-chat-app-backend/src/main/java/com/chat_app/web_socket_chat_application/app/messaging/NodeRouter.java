@@ -0,0 +1,207 @@
+package com.chat_app.web_socket_chat_application.app.messaging;
+
+import com.chat_app.web_socket_chat_application.app.websocket.LocalSubscriptionRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.BrokerAvailabilityEvent;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Delivers STOMP frames between replicas over AMQP when {@code chat.broker.mode=node-routing}.
+ * Each replica consumes a single queue and binds it to the topic exchange only for the
+ * destinations its own sessions subscribe to, so a message for {@code /queue/user.{id}.messages}
+ * reaches exactly the replicas where that user is connected and nothing is queued for users who
+ * are offline. Received frames are handed to the in-process broker, which fans them out to the
+ * local subscribers.
+ */
+@Component
+@ConditionalOnProperty(name = "chat.broker.mode", havingValue = "node-routing")
+@Slf4j
+public class NodeRouter implements LocalSubscriptionRegistry.DestinationListener, ConnectionListener {
+
+    public static final String EXCHANGE = "chat.delivery";
+    private static final String DESTINATION_HEADER = "stomp-destination";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final Queue nodeDeliveryQueue;
+    private final TopicExchange nodeRoutingExchange;
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final LocalSubscriptionRegistry localSubscriptions;
+    private final ConnectionFactory connectionFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Binding changes are applied in order, off the WebSocket threads
+    private final ExecutorService bindingExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "node-routing-bindings");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public NodeRouter(RabbitTemplate rabbitTemplate,
+                      AmqpAdmin amqpAdmin,
+                      Queue nodeDeliveryQueue,
+                      TopicExchange nodeRoutingExchange,
+                      SimpMessagingTemplate simpMessagingTemplate,
+                      LocalSubscriptionRegistry localSubscriptions,
+                      ConnectionFactory connectionFactory,
+                      ApplicationEventPublisher eventPublisher) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.amqpAdmin = amqpAdmin;
+        this.nodeDeliveryQueue = nodeDeliveryQueue;
+        this.nodeRoutingExchange = nodeRoutingExchange;
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.localSubscriptions = localSubscriptions;
+        this.connectionFactory = connectionFactory;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void init() {
+        localSubscriptions.addListener(this);
+        connectionFactory.addConnectionListener(this);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bindingExecutor.shutdownNow();
+    }
+
+    /**
+     * Send a frame to every replica with a local subscriber for the destination.
+     */
+    public void route(String destination, Object payload, Map<String, Object> headers) {
+        Message<?> converted = simpMessagingTemplate.getMessageConverter().toMessage(payload, null);
+        if (converted == null || !(converted.getPayload() instanceof byte[] body)) {
+            throw new MessageDeliveryException("Cannot convert payload for " + destination);
+        }
+
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setHeader(DESTINATION_HEADER, destination);
+        if (headers != null) {
+            headers.forEach((name, value) -> properties.setHeader(name, String.valueOf(value)));
+        }
+
+        try {
+            rabbitTemplate.send(EXCHANGE, routingKey(destination), new org.springframework.amqp.core.Message(body, properties));
+        } catch (AmqpException e) {
+            throw new MessageDeliveryException("AMQP routing to " + destination + " failed: " + e.getMessage());
+        }
+    }
+
+    @RabbitListener(queues = "#{nodeDeliveryQueue.name}")
+    public void onFrame(org.springframework.amqp.core.Message amqpMessage) {
+        Map<String, Object> amqpHeaders = amqpMessage.getMessageProperties().getHeaders();
+        Object destination = amqpHeaders.get(DESTINATION_HEADER);
+        if (destination == null) {
+            return;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination.toString());
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        amqpHeaders.forEach((name, value) -> {
+            if (!DESTINATION_HEADER.equals(name) && value != null) {
+                accessor.setNativeHeader(name, value.toString());
+            }
+        });
+        accessor.setLeaveMutable(true);
+        simpMessagingTemplate.send(destination.toString(), MessageBuilder.createMessage(amqpMessage.getBody(), accessor.getMessageHeaders()));
+    }
+
+    @Override
+    public void onDestinationActive(String destination) {
+        if (isRoutable(destination)) {
+            bindingExecutor.execute(() -> syncBinding(destination));
+        }
+    }
+
+    @Override
+    public void onDestinationInactive(String destination) {
+        if (isRoutable(destination)) {
+            bindingExecutor.execute(() -> syncBinding(destination));
+        }
+    }
+
+    @Override
+    public void onCreate(Connection connection) {
+        // The replica queue is auto-deleted with its connection, so restore every binding
+        bindingExecutor.execute(() -> {
+            localSubscriptions.getActiveDestinations().stream()
+                    .filter(this::isRoutable)
+                    .forEach(this::bind);
+            eventPublisher.publishEvent(new BrokerAvailabilityEvent(true, this));
+        });
+    }
+
+    @Override
+    public void onClose(Connection connection) {
+        eventPublisher.publishEvent(new BrokerAvailabilityEvent(false, this));
+    }
+
+    // Listener callbacks can arrive out of order when a session disconnects and reconnects, so
+    // bindings follow the registry state at the time they are applied rather than the callback
+    private void syncBinding(String destination) {
+        if (localSubscriptions.hasSubscribers(destination)) {
+            bind(destination);
+        } else {
+            unbind(destination);
+        }
+    }
+
+    private void bind(String destination) {
+        try {
+            amqpAdmin.declareBinding(binding(destination));
+        } catch (AmqpException e) {
+            log.warn("Failed to bind {} to replica queue, will retry on reconnect: {}", destination, e.getMessage());
+        }
+    }
+
+    private void unbind(String destination) {
+        try {
+            amqpAdmin.removeBinding(binding(destination));
+        } catch (AmqpException e) {
+            log.debug("Failed to unbind {} from replica queue: {}", destination, e.getMessage());
+        }
+    }
+
+    private Binding binding(String destination) {
+        return BindingBuilder.bind(nodeDeliveryQueue).to(nodeRoutingExchange).with(routingKey(destination));
+    }
+
+    // Pattern subscriptions cannot be expressed as a single routing key
+    private boolean isRoutable(String destination) {
+        return destination.indexOf('*') < 0 && destination.indexOf('{') < 0;
+    }
+
+    private static String routingKey(String destination) {
+        return destination.substring(1).replace('/', '.');
+    }
+}
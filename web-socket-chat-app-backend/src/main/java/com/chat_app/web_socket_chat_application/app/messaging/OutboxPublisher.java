@@ -0,0 +1,242 @@
+package com.chat_app.web_socket_chat_application.app.messaging;
+
+import com.chat_app.web_socket_chat_application.app.scheduling.JobLock;
+import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import com.chat_app.web_socket_chat_application.domain.projection.UserName;
+import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.messaging.simp.broker.BrokerAvailabilityEvent;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers stored messages to the sender's and receiver's queues, outbox style. Every message is
+ * inserted with {@code deliveryPending} set, in the same document write, and the flag is cleared
+ * only after the broker has accepted the message for both queues.
+ * <p>
+ * Freshly saved messages are queued in memory and published in batches by a background thread.
+ * They bypass the publisher's outage buffer: a message the broker does not take is only delivered
+ * to subscribers on this node and stays pending, so the outbox alone retries it. A recovery pass
+ * (one replica at a time) republishes those messages as soon as the broker is back, along with
+ * any pending message older than {@code chat.outbox.recovery-grace-ms}, which covers a replica
+ * dying between the insert and the publish. Delivery is at-least-once.
+ */
+@Component
+@Slf4j
+public class OutboxPublisher {
+
+    private static final String RECOVERY_JOB = "outbox-recovery";
+
+    private final MongoTemplate mongoTemplate;
+    private final MessagePublisher messagePublisher;
+    private final UserRepository userRepository;
+    private final JobLock jobLock;
+
+    private BlockingQueue<ChatMessage> queue;
+    private Thread dispatcher;
+    private ScheduledExecutorService recovery;
+
+    // Pending messages this replica failed to publish, retried without waiting out the grace period
+    private final Set<String> failedIds = ConcurrentHashMap.newKeySet();
+
+    @Value("${chat.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${chat.outbox.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${chat.outbox.recovery-interval-ms:10000}")
+    private long recoveryIntervalMs;
+
+    @Value("${chat.outbox.recovery-grace-ms:30000}")
+    private long recoveryGraceMs;
+
+    public OutboxPublisher(MongoTemplate mongoTemplate,
+                           MessagePublisher messagePublisher,
+                           UserRepository userRepository,
+                           JobLock jobLock) {
+        this.mongoTemplate = mongoTemplate;
+        this.messagePublisher = messagePublisher;
+        this.userRepository = userRepository;
+        this.jobLock = jobLock;
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        dispatcher = new Thread(this::dispatch, "outbox-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+
+        recovery = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-recovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        recovery.scheduleWithFixedDelay(this::runRecovery, recoveryIntervalMs, recoveryIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Whatever is still queued stays pending in the database and is picked up by recovery
+        dispatcher.interrupt();
+        recovery.shutdownNow();
+    }
+
+    /**
+     * Schedule delivery of a message that has just been stored.
+     */
+    public void enqueue(ChatMessage message) {
+        if (!queue.offer(message)) {
+            log.warn("Outbox queue full, message {} left for recovery", message.getId());
+        }
+    }
+
+    @EventListener
+    public void onBrokerAvailability(BrokerAvailabilityEvent event) {
+        if (event.isBrokerAvailable() && !failedIds.isEmpty()) {
+            try {
+                recovery.execute(this::runRecovery);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+            }
+        }
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public static String userQueue(String userId) {
+        return "/queue/user." + userId + ".messages";
+    }
+
+    private void dispatch() {
+        List<ChatMessage> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            try {
+                deliver(batch);
+            } catch (RuntimeException e) {
+                log.warn("Outbox delivery of {} messages failed, left for recovery: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    private void runRecovery() {
+        try {
+            recover();
+        } catch (RuntimeException e) {
+            log.warn("Outbox recovery failed: {}", e.getMessage());
+        }
+    }
+
+    private void recover() {
+        // Republishing now would only hand local subscribers another copy of what they already have
+        if (!messagePublisher.isBrokerAvailable()) {
+            return;
+        }
+        if (!jobLock.tryAcquire(RECOVERY_JOB, Duration.ofMillis(recoveryIntervalMs))) {
+            return;
+        }
+        try {
+            // Ids embed their creation time, so this skips messages the fast path is still handling
+            ObjectId cutoff = new ObjectId(new Date(System.currentTimeMillis() - recoveryGraceMs));
+            List<String> failed = List.copyOf(failedIds);
+            Criteria due = failed.isEmpty()
+                    ? Criteria.where("_id").lt(cutoff)
+                    : new Criteria().orOperator(Criteria.where("_id").lt(cutoff),
+                            Criteria.where("_id").in(failed.stream().map(ObjectId::new).toList()));
+            Query pending = Query.query(Criteria.where("deliveryPending").is(true).andOperator(due))
+                    .with(Sort.by("_id"))
+                    .limit(batchSize);
+            int recovered = 0;
+            List<ChatMessage> batch;
+            int delivered;
+            do {
+                batch = mongoTemplate.find(pending, ChatMessage.class);
+                attachSenders(batch);
+                delivered = deliver(batch);
+                recovered += delivered;
+                // A partly delivered batch means the broker went away; the rest waits for the next run
+            } while (batch.size() == batchSize && delivered == batch.size());
+            if (delivered == batch.size()) {
+                // Nothing due is left, so any remaining ids were delivered by another replica
+                failedIds.removeAll(failed);
+            }
+            if (recovered > 0) {
+                log.info("Outbox recovered {} undelivered messages", recovered);
+            }
+        } finally {
+            jobLock.release(RECOVERY_JOB);
+        }
+    }
+
+    /**
+     * @return Number of messages the broker accepted for both queues, which are no longer pending
+     */
+    private int deliver(List<ChatMessage> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<String> sent = new ArrayList<>(batch.size());
+        for (ChatMessage message : batch) {
+            boolean toReceiver = messagePublisher.trySend(userQueue(message.getReceiverId()), message);
+            boolean toSender = messagePublisher.trySend(userQueue(message.getSenderId()), message);
+            if (toReceiver && toSender) {
+                sent.add(message.getId());
+            } else if (failedIds.size() < queueCapacity) {
+                failedIds.add(message.getId());
+            }
+        }
+        if (!sent.isEmpty()) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(sent)), new Update().unset("deliveryPending"), ChatMessage.class);
+            sent.forEach(failedIds::remove);
+        }
+        return sent.size();
+    }
+
+    // Sender info is not stored with the message, so restore it for messages read back from the database
+    private void attachSenders(List<ChatMessage> batch) {
+        List<String> senderIds = batch.stream().map(ChatMessage::getSenderId).distinct().toList();
+        Map<String, UserName> senders = userRepository.findProjectedByIdIn(senderIds, UserName.class).stream()
+                .collect(Collectors.toMap(UserName::id, Function.identity()));
+        batch.forEach(message -> {
+            UserName sender = senders.get(message.getSenderId());
+            if (sender != null) {
+                message.setSender(new ChatMessage.SenderInfo(sender.id(), sender.name()));
+            }
+        });
+    }
+}
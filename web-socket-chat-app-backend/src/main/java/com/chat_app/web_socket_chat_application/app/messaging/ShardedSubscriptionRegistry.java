@@ -0,0 +1,82 @@
+package com.chat_app.web_socket_chat_application.app.messaging;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.messaging.simp.broker.SubscriptionRegistry;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.PathMatcher;
+
+/**
+ * Subscription registry for the in-process broker that spreads destinations over several
+ * independent {@link DefaultSubscriptionRegistry} shards. Each exact destination lives in
+ * exactly one shard chosen by its hash, so lookups and cache updates for unrelated
+ * destinations never contend. Pattern subscriptions (e.g. {@code /topic/**}) are copied to
+ * every shard so that each shard can still match them.
+ */
+public class ShardedSubscriptionRegistry implements SubscriptionRegistry {
+
+    private final DefaultSubscriptionRegistry[] shards;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public ShardedSubscriptionRegistry(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be at least 1");
+        }
+        this.shards = new DefaultSubscriptionRegistry[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            DefaultSubscriptionRegistry shard = new DefaultSubscriptionRegistry();
+            shard.setPathMatcher(pathMatcher);
+            shards[i] = shard;
+        }
+    }
+
+    @Override
+    public void registerSubscription(Message<?> message) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null) {
+            return;
+        }
+        if (pathMatcher.isPattern(destination)) {
+            for (DefaultSubscriptionRegistry shard : shards) {
+                shard.registerSubscription(message);
+            }
+        } else {
+            shardFor(destination).registerSubscription(message);
+        }
+    }
+
+    @Override
+    public void unregisterSubscription(Message<?> message) {
+        // UNSUBSCRIBE frames carry only the subscription id, so every shard has to be asked
+        for (DefaultSubscriptionRegistry shard : shards) {
+            shard.unregisterSubscription(message);
+        }
+    }
+
+    @Override
+    public void unregisterAllSubscriptions(String sessionId) {
+        for (DefaultSubscriptionRegistry shard : shards) {
+            shard.unregisterAllSubscriptions(sessionId);
+        }
+    }
+
+    @Override
+    public MultiValueMap<String, String> findSubscriptions(Message<?> message) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null) {
+            return new LinkedMultiValueMap<>();
+        }
+        return shardFor(destination).findSubscriptions(message);
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    private DefaultSubscriptionRegistry shardFor(String destination) {
+        return shards[Math.floorMod(destination.hashCode(), shards.length)];
+    }
+}
@@ -0,0 +1,178 @@
+package com.chat_app.web_socket_chat_application.app.monitoring;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command listener on both Mongo clients. Every query and write command is timed into
+ * {@code chat.mongo.command} and the number of documents it returned or touched is recorded in
+ * {@code chat.mongo.command.documents}, both tagged with the command, the collection and the
+ * repository method that issued it (see {@link RepositoryMethodTagger}). Commands slower than
+ * {@code chat.mongo.slow-query-ms} are logged with the shape of their filter: field names and
+ * operators are kept, values are replaced by {@code ?}.
+ */
+@Component
+@Slf4j
+public class MongoCommandMetrics implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+    private static final Set<String> MEASURED = Set.of(
+            "find", "getMore", "count", "distinct", "aggregate", "insert", "update", "delete", "findAndModify");
+    private static final BsonString REDACTED = new BsonString("?");
+
+    private final MeterRegistry meterRegistry;
+
+    // requestId -> command in flight; started and finished can run on different threads
+    private final Map<Integer, StartedCommand> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${chat.mongo.slow-query-ms:100}")
+    private long slowQueryMs;
+
+    public MongoCommandMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void customize(MongoClientSettings.Builder settings) {
+        settings.addCommandListener(this);
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!MEASURED.contains(event.getCommandName())) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        inFlight.put(event.getRequestId(), new StartedCommand(
+                collectionOf(event.getCommandName(), command),
+                RepositoryMethodTagger.current(),
+                filterOf(event.getCommandName(), command)));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        StartedCommand started = inFlight.remove(event.getRequestId());
+        if (started != null) {
+            finish(event.getCommandName(), started, event.getElapsedTime(TimeUnit.NANOSECONDS), "success");
+            DistributionSummary.builder("chat.mongo.command.documents")
+                    .tag("command", event.getCommandName())
+                    .tag("collection", started.collection())
+                    .tag("method", started.method())
+                    .register(meterRegistry)
+                    .record(documentCount(event.getResponse()));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        StartedCommand started = inFlight.remove(event.getRequestId());
+        if (started != null) {
+            finish(event.getCommandName(), started, event.getElapsedTime(TimeUnit.NANOSECONDS), "failure");
+        }
+    }
+
+    private void finish(String commandName, StartedCommand started, long elapsedNanos, String status) {
+        Timer.builder("chat.mongo.command")
+                .tag("command", commandName)
+                .tag("collection", started.collection())
+                .tag("method", started.method())
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (elapsedMs >= slowQueryMs) {
+            log.warn("Slow Mongo {} on {} from {} took {} ms, filter {}",
+                    commandName, started.collection(), started.method(), elapsedMs, started.filterShape());
+        }
+    }
+
+    // getMore carries the cursor id under its name and the collection in a field of its own
+    static String collectionOf(String commandName, BsonDocument command) {
+        BsonValue collection = command.get("getMore".equals(commandName) ? "collection" : commandName);
+        return collection != null && collection.isString() ? collection.asString().getValue() : "unknown";
+    }
+
+    // Kept as the redacted JSON only; the values themselves never leave the listener
+    static String filterOf(String commandName, BsonDocument command) {
+        BsonValue filter = switch (commandName) {
+            case "find" -> command.get("filter");
+            case "count", "distinct", "findAndModify" -> command.get("query");
+            case "delete" -> firstStatement(command, "deletes", "q");
+            case "update" -> firstStatement(command, "updates", "q");
+            case "aggregate" -> firstStatement(command, "pipeline", "$match");
+            default -> null;
+        };
+        return filter == null ? "{}" : redact(filter).toString();
+    }
+
+    private static BsonValue firstStatement(BsonDocument command, String array, String field) {
+        BsonValue statements = command.get(array);
+        if (statements == null || !statements.isArray() || statements.asArray().isEmpty()) {
+            return null;
+        }
+        BsonValue first = statements.asArray().get(0);
+        return first.isDocument() ? first.asDocument().get(field) : null;
+    }
+
+    static BsonValue redact(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument redacted = new BsonDocument();
+            value.asDocument().forEach((key, nested) -> redacted.put(key, redact(nested)));
+            return redacted;
+        }
+        if (value.isArray()) {
+            // Operator arguments like $and/$or clauses keep their structure, value lists collapse
+            BsonArray array = value.asArray();
+            if (!array.isEmpty() && array.get(0).isDocument()) {
+                BsonArray redacted = new BsonArray();
+                array.forEach(element -> redacted.add(redact(element)));
+                return redacted;
+            }
+        }
+        return REDACTED;
+    }
+
+    private static int documentCount(BsonDocument response) {
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonValue batch = cursor.asDocument().containsKey("firstBatch")
+                    ? cursor.asDocument().get("firstBatch")
+                    : cursor.asDocument().get("nextBatch");
+            return batch != null && batch.isArray() ? batch.asArray().size() : 0;
+        }
+        BsonValue n = response.get("n");
+        if (n != null && n.isNumber()) {
+            return n.asNumber().intValue();
+        }
+        BsonValue values = response.get("values");
+        if (values != null && values.isArray()) {
+            return values.asArray().size();
+        }
+        // findAndModify returns the document, if any, under "value"
+        BsonValue document = response.get("value");
+        return document != null && document.isDocument() ? 1 : 0;
+    }
+
+    private record StartedCommand(String collection, String method, String filterShape) {
+    }
+}
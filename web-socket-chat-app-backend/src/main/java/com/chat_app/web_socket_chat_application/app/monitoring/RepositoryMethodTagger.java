@@ -0,0 +1,50 @@
+package com.chat_app.web_socket_chat_application.app.monitoring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records which repository method is running on the current thread, so
+ * {@link MongoCommandMetrics} can attribute the commands it sees to e.g.
+ * {@code UserRepository.findByPhoneNumber}. Commands of reactive repositories are issued after
+ * the call returns, on driver threads, and are attributed to no method.
+ */
+@Component
+public class RepositoryMethodTagger implements BeanPostProcessor {
+
+    public static final String NONE = "none";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    public static String current() {
+        String method = CURRENT.get();
+        return method == null ? NONE : method;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, information) -> {
+                        String repository = information.getRepositoryInterface().getSimpleName();
+                        proxyFactory.addAdvice(0, (MethodInterceptor) invocation -> {
+                            String outer = CURRENT.get();
+                            // The outermost call wins, default methods calling others keep their own name
+                            if (outer == null) {
+                                CURRENT.set(repository + "." + invocation.getMethod().getName());
+                            }
+                            try {
+                                return invocation.proceed();
+                            } finally {
+                                if (outer == null) {
+                                    CURRENT.remove();
+                                }
+                            }
+                        });
+                    }));
+        }
+        return bean;
+    }
+}
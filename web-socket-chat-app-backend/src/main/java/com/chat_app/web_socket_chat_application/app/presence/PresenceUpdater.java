@@ -0,0 +1,75 @@
+package com.chat_app.web_socket_chat_application.app.presence;
+
+import com.chat_app.web_socket_chat_application.app.cache.CacheInvalidationBus;
+import com.chat_app.web_socket_chat_application.app.cache.EntityChangedEvent;
+import com.chat_app.web_socket_chat_application.app.cache.EntityChangedEvent.ChangeType;
+import com.chat_app.web_socket_chat_application.app.service.InboxService;
+import com.chat_app.web_socket_chat_application.domain.entity.User;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Writes user presence off the request thread. Only the latest status per user is kept while a
+ * write is pending, so a burst of logins for the same account results in a single update, and
+ * the update touches the {@code status} field alone rather than rewriting the user document.
+ */
+@Component
+@Slf4j
+public class PresenceUpdater {
+
+    private final MongoTemplate mongoTemplate;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final InboxService inboxService;
+
+    // userId -> latest status not yet written
+    private final Map<String, String> pending = new ConcurrentHashMap<>();
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "presence-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PresenceUpdater(MongoTemplate mongoTemplate, CacheInvalidationBus cacheInvalidationBus, InboxService inboxService) {
+        this.mongoTemplate = mongoTemplate;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.inboxService = inboxService;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+    }
+
+    public void updateStatus(String userId, String status) {
+        if (pending.put(userId, status) == null) {
+            writer.execute(() -> flush(userId));
+        }
+    }
+
+    private void flush(String userId) {
+        String status = pending.remove(userId);
+        if (status == null) {
+            return;
+        }
+        try {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)),
+                    Update.update("status", status), User.class);
+            inboxService.onPresenceChanged(userId, "online".equals(status));
+            cacheInvalidationBus.publish(EntityChangedEvent.user(userId, ChangeType.STATUS_CHANGED));
+        } catch (DataAccessException e) {
+            log.warn("Failed to set status of user {} to {}: {}", userId, status, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.chat_app.web_socket_chat_application.app.retention;
+
+import com.chat_app.web_socket_chat_application.app.scheduling.JobLock;
+import com.chat_app.web_socket_chat_application.app.service.UnreadCounterService;
+import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import com.chat_app.web_socket_chat_application.domain.entity.Conversation;
+import com.chat_app.web_socket_chat_application.domain.entity.MessageBucket;
+import com.chat_app.web_socket_chat_application.domain.repository.ConversationRepository;
+import com.chat_app.web_socket_chat_application.util.TimestampUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Enforces message retention. A periodic job (one replica at a time) deletes messages and
+ * archive buckets older than the conversation's {@code retentionDays}, or the global
+ * {@code chat.retention.max-age-days} when the conversation has none. It also sweeps messages
+ * and buckets whose conversation no longer exists and that are older than
+ * {@code chat.retention.orphan-grace-ms}. Deleted conversations are purged right away on the
+ * same worker.
+ * <p>
+ * Deleting an unread message takes it off the receiver's counter on the conversation and off
+ * their unread total, in the same batch. All deletes select by indexed range and run in batches
+ * with a pause in between, so retention never competes with live traffic for long.
+ */
+@Component
+@Slf4j
+public class RetentionEngine {
+
+    private static final String JOB = "retention";
+
+    private final MongoTemplate mongoTemplate;
+    private final ConversationRepository conversationRepository;
+    private final JobLock jobLock;
+    private final UnreadCounterService unreadCounterService;
+    private ScheduledExecutorService worker;
+
+    @Value("${chat.retention.enabled:true}")
+    private boolean enabled;
+
+    // 0 keeps messages forever unless a conversation sets its own retention
+    @Value("${chat.retention.max-age-days:0}")
+    private int maxAgeDays;
+
+    @Value("${chat.retention.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${chat.retention.batch-delay-ms:200}")
+    private long batchDelayMs;
+
+    @Value("${chat.retention.interval-ms:3600000}")
+    private long intervalMs;
+
+    // Messages newer than this are never swept as orphans, their conversation may still be being created
+    @Value("${chat.retention.orphan-grace-ms:3600000}")
+    private long orphanGraceMs;
+
+    public RetentionEngine(MongoTemplate mongoTemplate,
+                           ConversationRepository conversationRepository,
+                           JobLock jobLock,
+                           UnreadCounterService unreadCounterService) {
+        this.mongoTemplate = mongoTemplate;
+        this.conversationRepository = conversationRepository;
+        this.jobLock = jobLock;
+        this.unreadCounterService = unreadCounterService;
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "retention-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            worker.scheduleWithFixedDelay(this::runScheduled, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Delete all messages and archive buckets of a conversation in the background.
+     */
+    public void purgeConversation(String conversationId) {
+        worker.execute(() -> {
+            Criteria scope = Criteria.where("conversationId").is(conversationId);
+            try {
+                // Buckets go first and on their own, a fully archived conversation has no messages left
+                deleteInBatches(scope, MessageBucket.class);
+                long deleted = deleteInBatches(scope, ChatMessage.class);
+                log.info("Purged {} messages of deleted conversation {}", deleted, conversationId);
+            } catch (RuntimeException e) {
+                // The orphan sweep picks up whatever is left
+                log.warn("Purging conversation {} failed: {}", conversationId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Apply the retention rules once.
+     * @return Number of messages deleted, 0 if another replica holds the job lock
+     */
+    public long enforce() {
+        if (!jobLock.tryAcquire(JOB, Duration.ofMillis(intervalMs))) {
+            return 0;
+        }
+        try {
+            long deleted = 0;
+            List<String> overridden = new ArrayList<>();
+
+            Query overrides = Query.query(Criteria.where("retentionDays").gt(0));
+            overrides.fields().include("retentionDays");
+            for (Conversation conversation : mongoTemplate.find(overrides, Conversation.class)) {
+                overridden.add(conversation.getId());
+                deleted += purge(Criteria.where("conversationId").is(conversation.getId()), cutoff(conversation.getRetentionDays()));
+            }
+
+            if (maxAgeDays > 0) {
+                deleted += purge(Criteria.where("conversationId").nin(overridden), cutoff(maxAgeDays));
+            }
+
+            deleted += sweepOrphans();
+            if (deleted > 0) {
+                log.info("Retention deleted {} messages", deleted);
+            }
+            return deleted;
+        } finally {
+            jobLock.release(JOB);
+        }
+    }
+
+    private void runScheduled() {
+        try {
+            enforce();
+        } catch (RuntimeException e) {
+            log.warn("Retention run failed: {}", e.getMessage());
+        }
+    }
+
+    long sweepOrphans() {
+        // Grouped through a cursor, a plain distinct fails once the id list passes 16MB
+        Aggregation conversationIds = Aggregation.newAggregation(Aggregation.group("conversationId"))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).cursorBatchSize(batchSize).build());
+        String cutoff = TimestampUtil.formatToTimestamp(new Date(System.currentTimeMillis() - orphanGraceMs));
+        long deleted = 0;
+        // Buckets are grouped too, archiving may have left a conversation with no messages at all
+        for (Class<?> type : List.of(ChatMessage.class, MessageBucket.class)) {
+            try (Stream<Document> groups = mongoTemplate.aggregateStream(conversationIds, type, Document.class)) {
+                for (Document group : (Iterable<Document>) groups::iterator) {
+                    // Checked right before the purge, a conversation created since the sweep began is not an orphan
+                    if (group.get("_id") instanceof String conversationId && !conversationRepository.existsById(conversationId)) {
+                        deleted += purge(Criteria.where("conversationId").is(conversationId), cutoff);
+                    }
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete messages matching the scope, and buckets that lie entirely before the cutoff.
+     * A null cutoff deletes everything in scope.
+     */
+    private long purge(Criteria scope, String cutoff) {
+        Criteria messages = cutoff == null ? scope : new Criteria().andOperator(scope, Criteria.where("timestamp").lt(cutoff));
+        Criteria buckets = cutoff == null ? scope : new Criteria().andOperator(scope, Criteria.where("lastTimestamp").lt(cutoff));
+        long deleted = deleteInBatches(messages, ChatMessage.class);
+        deleteInBatches(buckets, MessageBucket.class);
+        return deleted;
+    }
+
+    private long deleteInBatches(Criteria criteria, Class<?> type) {
+        String collection = mongoTemplate.getCollectionName(type);
+        long deleted = 0;
+        while (true) {
+            Query page = Query.query(criteria).limit(batchSize);
+            page.fields().include("_id").include("conversationId").include("receiverId").include("read");
+            List<Document> documents = mongoTemplate.find(page, Document.class, collection);
+            if (documents.isEmpty()) {
+                return deleted;
+            }
+            if (type == ChatMessage.class) {
+                deleted += deleteUnread(documents, collection);
+            }
+            List<Object> ids = documents.stream().map(document -> document.get("_id")).toList();
+            deleted += mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), collection).getDeletedCount();
+            // Histories of these conversations changed, so their HTTP validators must too
+            Set<Object> conversationIds = documents.stream()
+                    .map(document -> document.get("conversationId"))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(conversationIds)),
+                    new Update().inc("revision", 1), Conversation.class);
+            if (ids.size() < batchSize || !pause()) {
+                return deleted;
+            }
+        }
+    }
+
+    /**
+     * Delete the unread messages of a batch per conversation and receiver, and take exactly the
+     * deleted amount off their counters. Messages read meanwhile are left for the plain delete.
+     */
+    private long deleteUnread(List<Document> documents, String collection) {
+        Map<List<String>, List<Object>> unread = documents.stream()
+                .filter(document -> Boolean.FALSE.equals(document.get("read"))
+                        && document.get("conversationId") instanceof String
+                        && document.get("receiverId") instanceof String)
+                .collect(Collectors.groupingBy(
+                        document -> List.of(document.getString("conversationId"), document.getString("receiverId")),
+                        Collectors.mapping(document -> document.get("_id"), Collectors.toList())));
+        long deleted = 0;
+        for (Map.Entry<List<String>, List<Object>> group : unread.entrySet()) {
+            String conversationId = group.getKey().get(0);
+            String receiverId = group.getKey().get(1);
+            long removed = mongoTemplate.remove(Query.query(Criteria.where("_id").in(group.getValue()).and("read").is(false)),
+                    collection).getDeletedCount();
+            if (removed == 0) {
+                continue;
+            }
+            deleted += removed;
+            // Conversation first, like every other unread change; a deleted one was already taken off the total
+            long matched = mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(conversationId)),
+                    new Update().inc("unreadCounts." + receiverId, -removed), Conversation.class).getMatchedCount();
+            if (matched > 0) {
+                unreadCounterService.decrement(receiverId, removed);
+            }
+        }
+        return deleted;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchDelayMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String cutoff(int days) {
+        return TimestampUtil.formatToTimestamp(new Date(System.currentTimeMillis() - Duration.ofDays(days).toMillis()));
+    }
+}
@@ -0,0 +1,50 @@
+package com.chat_app.web_socket_chat_application.app.scheduling;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Lease-based lock in MongoDB so that a background job runs on one replica at a time.
+ * A lease that is not released (e.g. the holder crashed) expires on its own.
+ */
+@Component
+public class JobLock {
+
+    private static final String COLLECTION = "job_locks";
+
+    private final MongoTemplate mongoTemplate;
+    private final String owner = UUID.randomUUID().toString();
+
+    public JobLock(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public boolean tryAcquire(String job, Duration lease) {
+        Date now = new Date();
+        Query query = Query.query(Criteria.where("_id").is(job)
+                .orOperator(Criteria.where("lockedUntil").lt(now), Criteria.where("owner").is(owner)));
+        Update update = new Update()
+                .set("owner", owner)
+                .set("lockedUntil", new Date(now.getTime() + lease.toMillis()));
+        try {
+            mongoTemplate.upsert(query, update, COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // The lock document exists and another replica holds an unexpired lease
+            return false;
+        }
+    }
+
+    public void release(String job) {
+        Query query = Query.query(Criteria.where("_id").is(job).and("owner").is(owner));
+        mongoTemplate.updateFirst(query, new Update().set("lockedUntil", new Date(0)), COLLECTION);
+    }
+}
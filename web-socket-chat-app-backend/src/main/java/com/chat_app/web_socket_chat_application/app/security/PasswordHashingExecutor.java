@@ -0,0 +1,126 @@
+package com.chat_app.web_socket_chat_application.app.security;
+
+import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
+import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt work on a small fixed pool so that password hashing can use at most
+ * {@code chat.auth.hashing.threads} cores, however many login requests arrive at once. Requests
+ * beyond the pool wait in a bounded queue; when that is full they are rejected straight away with
+ * {@link ExceptionCode#AUTHENTICATION_BUSY} instead of piling up on the request threads.
+ */
+@Component
+@Slf4j
+public class PasswordHashingExecutor {
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    private ThreadPoolExecutor executor;
+    // Hash of a random password, compared against for logins of unknown users
+    private String unmatchableHash;
+
+    // 0 means a quarter of the available processors
+    @Value("${chat.auth.hashing.threads:0}")
+    private int threads;
+
+    @Value("${chat.auth.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${chat.auth.hashing.timeout-ms:5000}")
+    private long timeoutMs;
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.meterRegistry = meterRegistry;
+        this.rejected = meterRegistry.counter("chat.auth.hashing.rejected");
+    }
+
+    @PostConstruct
+    public void start() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("chat.auth.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashing requests waiting for a worker")
+                .register(meterRegistry);
+        unmatchableHash = passwordEncoder.encode(UUID.randomUUID().toString());
+        log.info("Password hashing limited to {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Does the work of {@link #matches} for a user that does not exist, so the response time of a
+     * login does not tell registered phone numbers apart from unknown ones.
+     */
+    public void matchNothing(CharSequence rawPassword) {
+        run(() -> passwordEncoder.matches(rawPassword, unmatchableHash));
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new AppException(ExceptionCode.AUTHENTICATION_BUSY);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new AppException(ExceptionCode.AUTHENTICATION_BUSY);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AppException(ExceptionCode.AUTHENTICATION_BUSY);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
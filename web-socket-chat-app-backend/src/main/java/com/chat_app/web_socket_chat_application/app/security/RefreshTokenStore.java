@@ -0,0 +1,134 @@
+package com.chat_app.web_socket_chat_application.app.security;
+
+import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
+import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionCode;
+import com.chat_app.web_socket_chat_application.domain.entity.RefreshToken;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Issues and rotates opaque refresh tokens of the form {@code <id>.<secret>}. A token can be
+ * exchanged once; the exchange hands out its successor in the same family. Presenting a token
+ * that was already exchanged means it has leaked, so the whole family is revoked. Checking a
+ * token costs a SHA-256 digest and two small document writes, against a full BCrypt
+ * verification for a fresh login. Expired tokens are removed by a TTL index.
+ */
+@Component
+@Slf4j
+public class RefreshTokenStore {
+
+    private static final int SECRET_BYTES = 32;
+
+    private final MongoTemplate mongoTemplate;
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${jwt.refresh-expiration:2592000000}")
+    private long refreshExpirationMs;
+
+    public RefreshTokenStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public record Rotation(String userId, String refreshToken) {
+    }
+
+    /**
+     * Start a new token family for a fresh login.
+     */
+    public String issue(String userId) {
+        return issue(userId, new ObjectId().toHexString());
+    }
+
+    /**
+     * Exchange a refresh token for its successor.
+     */
+    public Rotation rotate(String presented) {
+        RefreshToken current = find(presented);
+        if (current == null || current.getExpiresAt().before(new Date())) {
+            throw new AppException(ExceptionCode.INVALID_REFRESH_TOKEN);
+        }
+
+        Date now = new Date();
+        Query unused = Query.query(Criteria.where("_id").is(current.getId()).and("rotatedAt").exists(false));
+        RefreshToken claimed = mongoTemplate.findAndModify(unused, Update.update("rotatedAt", now), RefreshToken.class);
+        if (claimed == null) {
+            // Someone already exchanged this token: the legitimate client or whoever copied it
+            log.warn("Refresh token reuse for user {}, revoking family {}", current.getUserId(), current.getFamilyId());
+            revokeFamily(current.getFamilyId());
+            throw new AppException(ExceptionCode.INVALID_REFRESH_TOKEN);
+        }
+
+        return new Rotation(current.getUserId(), issue(current.getUserId(), current.getFamilyId()));
+    }
+
+    /**
+     * Revoke the session the token belongs to. Unknown tokens are ignored.
+     */
+    public void revoke(String presented) {
+        RefreshToken current = find(presented);
+        if (current != null) {
+            revokeFamily(current.getFamilyId());
+        }
+    }
+
+    public void revokeAll(String userId) {
+        mongoTemplate.remove(Query.query(Criteria.where("userId").is(userId)), RefreshToken.class);
+    }
+
+    private String issue(String userId, String familyId) {
+        byte[] secret = new byte[SECRET_BYTES];
+        random.nextBytes(secret);
+        String encodedSecret = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+
+        RefreshToken token = RefreshToken.builder()
+                .id(new ObjectId().toHexString())
+                .userId(userId)
+                .familyId(familyId)
+                .secretHash(digest(encodedSecret))
+                .expiresAt(new Date(System.currentTimeMillis() + refreshExpirationMs))
+                .build();
+        mongoTemplate.insert(token);
+        return token.getId() + "." + encodedSecret;
+    }
+
+    private RefreshToken find(String presented) {
+        if (presented == null) {
+            return null;
+        }
+        int separator = presented.indexOf('.');
+        if (separator <= 0 || !ObjectId.isValid(presented.substring(0, separator))) {
+            return null;
+        }
+
+        RefreshToken token = mongoTemplate.findById(presented.substring(0, separator), RefreshToken.class);
+        if (token == null || !MessageDigest.isEqual(token.getSecretHash(), digest(presented.substring(separator + 1)))) {
+            return null;
+        }
+        return token;
+    }
+
+    private void revokeFamily(String familyId) {
+        mongoTemplate.remove(Query.query(Criteria.where("familyId").is(familyId)), RefreshToken.class);
+    }
+
+    private static byte[] digest(String secret) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
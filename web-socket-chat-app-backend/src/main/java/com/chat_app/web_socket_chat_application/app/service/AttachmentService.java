@@ -0,0 +1,113 @@
+package com.chat_app.web_socket_chat_application.app.service;
+
+import com.chat_app.web_socket_chat_application.app.attachment.BlobStore;
+import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
+import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionCode;
+import com.chat_app.web_socket_chat_application.domain.entity.Attachment;
+import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import com.chat_app.web_socket_chat_application.domain.repository.AttachmentRepository;
+import com.chat_app.web_socket_chat_application.util.TimestampUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttachmentService {
+    @Autowired
+    private final AttachmentRepository attachmentRepository;
+    @Autowired
+    private final BlobStore blobStore;
+    @Autowired
+    private final MongoTemplate mongoTemplate;
+
+    public Attachment upload(String uploaderId, MultipartFile file) throws IOException {
+        String storageKey = UUID.randomUUID().toString();
+        long size;
+        // Stream the part straight into the store; the container spools large parts to disk, not the heap
+        try (ReadableByteChannel source = Channels.newChannel(file.getInputStream())) {
+            size = blobStore.write(storageKey, source);
+        }
+
+        Attachment attachment = Attachment.builder()
+                .uploaderId(uploaderId)
+                .fileName(file.getOriginalFilename())
+                .contentType(file.getContentType() != null ? file.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                .size(size)
+                .storageKey(storageKey)
+                .createdAt(TimestampUtil.getCurrentTimestamp())
+                .build();
+        try {
+            Attachment saved = attachmentRepository.save(attachment);
+            log.info("Attachment {} stored ({} bytes)", saved.getId(), size);
+            return saved;
+        } catch (RuntimeException e) {
+            blobStore.delete(storageKey);
+            throw e;
+        }
+    }
+
+    public Attachment getAttachment(String id) {
+        if (id == null) {
+            throw new AppException(ExceptionCode.ATTACHMENT_NOT_EXISTED);
+        }
+        return attachmentRepository.findById(id)
+                .orElseThrow(() -> new AppException(ExceptionCode.ATTACHMENT_NOT_EXISTED));
+    }
+
+    /**
+     * Load an attachment for download by a user. Only the uploader and the participants of a
+     * conversation the attachment was sent in may read it.
+     */
+    public Attachment getAttachmentFor(String id, String userId) {
+        Attachment attachment = getAttachment(id);
+        if (userId == null) {
+            throw new AppException(ExceptionCode.ATTACHMENT_FORBIDDEN);
+        }
+        if (userId.equals(attachment.getUploaderId())) {
+            return attachment;
+        }
+        Query sharedWithUser = Query.query(Criteria.where("attachment.id").is(id)
+                .orOperator(Criteria.where("senderId").is(userId), Criteria.where("receiverId").is(userId)));
+        if (!mongoTemplate.exists(sharedWithUser, ChatMessage.class)) {
+            throw new AppException(ExceptionCode.ATTACHMENT_FORBIDDEN);
+        }
+        return attachment;
+    }
+
+    /**
+     * Metadata to embed in a message. Only the uploader can send an attachment, otherwise a
+     * message to oneself would unlock anyone's upload.
+     */
+    public ChatMessage.AttachmentInfo getAttachmentInfo(String id, String senderId) {
+        Attachment attachment = getAttachment(id);
+        if (senderId == null || !senderId.equals(attachment.getUploaderId())) {
+            throw new AppException(ExceptionCode.ATTACHMENT_FORBIDDEN);
+        }
+        return new ChatMessage.AttachmentInfo(
+                attachment.getId(), attachment.getFileName(), attachment.getContentType(), attachment.getSize());
+    }
+
+    public Optional<Path> localPath(Attachment attachment) {
+        return blobStore.localPath(attachment.getStorageKey());
+    }
+
+    public void transferTo(Attachment attachment, long position, long count, WritableByteChannel target) throws IOException {
+        blobStore.transferTo(attachment.getStorageKey(), position, count, target);
+    }
+}
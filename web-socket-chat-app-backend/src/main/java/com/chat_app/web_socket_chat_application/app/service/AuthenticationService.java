@@ -1,23 +1,25 @@
 package com.chat_app.web_socket_chat_application.app.service;
 
 import com.chat_app.web_socket_chat_application.api.dto.AuthenticationDTO;
+import com.chat_app.web_socket_chat_application.api.dto.RefreshTokenDTO;
 import com.chat_app.web_socket_chat_application.api.dto.ResetPasswordDTO;
 import com.chat_app.web_socket_chat_application.api.dto.UserDTO;
 import com.chat_app.web_socket_chat_application.api.response.AuthenticationResponse;
+import com.chat_app.web_socket_chat_application.app.cache.CacheInvalidationBus;
+import com.chat_app.web_socket_chat_application.app.cache.EntityChangedEvent;
+import com.chat_app.web_socket_chat_application.app.cache.EntityChangedEvent.ChangeType;
 import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
 import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionCode;
+import com.chat_app.web_socket_chat_application.app.presence.PresenceUpdater;
+import com.chat_app.web_socket_chat_application.app.security.PasswordHashingExecutor;
+import com.chat_app.web_socket_chat_application.app.security.RefreshTokenStore;
 import com.chat_app.web_socket_chat_application.config.JwtUtil;
-import com.chat_app.web_socket_chat_application.domain.entity.Conversation;
 import com.chat_app.web_socket_chat_application.domain.entity.User;
-import com.chat_app.web_socket_chat_application.domain.repository.ConversationRepository;
 import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Slf4j
 @Service
 public class AuthenticationService {
@@ -25,28 +27,58 @@ public class AuthenticationService {
     private UserRepository userRepository;
 
     @Autowired
-    private ConversationRepository conversationRepository;
+    private JwtUtil jwtUtil;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private PasswordHashingExecutor passwordHashing;
+
+    @Autowired
+    private PresenceUpdater presenceUpdater;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
 
     public AuthenticationResponse login(AuthenticationDTO authenticationDTO) {
         User user = userRepository.findByPhoneNumber(authenticationDTO.getPhoneNumber());
-        List<Conversation> conversations = conversationRepository.findBySenderIdOrReceiverId(user.getId(), user.getId());
+        if (user == null) {
+            // Hash anyway, otherwise unknown numbers answer measurably faster
+            passwordHashing.matchNothing(authenticationDTO.getPassword());
+            throw new AppException(ExceptionCode.USER_NOT_EXISTED);
+        }
 
-        if (!passwordEncoder.matches(authenticationDTO.getPassword(), user.getPassword())) {
+        if (!passwordHashing.matches(authenticationDTO.getPassword(), user.getPassword())) {
             throw new AppException(ExceptionCode.INVALID_PASSWORD);
         }
 
-        user.setStatus("online");
-        userRepository.save(user);
+        // Presence is written in the background, the response does not wait for it
+        presenceUpdater.updateStatus(user.getId(), "online");
 
         String token = jwtUtil.generateToken(user.getPhoneNumber());
+        String refreshToken = refreshTokenStore.issue(user.getId());
 
-        return new AuthenticationResponse(token, user.getId(), user.getName(), user.getStatus());
+        return new AuthenticationResponse(token, user.getId(), user.getName(), "online", refreshToken);
+    }
+
+    /**
+     * Resume a session with a refresh token instead of the password. The presented token is
+     * used up and its replacement is returned with the new access token.
+     */
+    public AuthenticationResponse refresh(RefreshTokenDTO request) {
+        RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(request.getRefreshToken());
+        User user = userRepository.findById(rotation.userId())
+                .orElseThrow(() -> new AppException(ExceptionCode.USER_NOT_EXISTED));
+
+        presenceUpdater.updateStatus(user.getId(), "online");
+
+        String token = jwtUtil.generateToken(user.getPhoneNumber());
+        return new AuthenticationResponse(token, user.getId(), user.getName(), "online", rotation.refreshToken());
+    }
+
+    public void logout(RefreshTokenDTO request) {
+        refreshTokenStore.revoke(request.getRefreshToken());
     }
 
     public AuthenticationResponse resetPassword(ResetPasswordDTO request) {
@@ -55,11 +87,16 @@ public class AuthenticationService {
             throw new AppException(ExceptionCode.USER_NOT_EXISTED);
         }
 
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        user.setPassword(passwordHashing.encode(request.getNewPassword()));
         userRepository.save(user);
+        cacheInvalidationBus.publish(EntityChangedEvent.user(user.getId(), ChangeType.UPDATED));
+
+        // A new password ends every session that was opened with the old one
+        refreshTokenStore.revokeAll(user.getId());
 
         String token = jwtUtil.generateToken(user.getPhoneNumber());
-        return new AuthenticationResponse(token, user.getId(), user.getName(), user.getStatus());
+        String refreshToken = refreshTokenStore.issue(user.getId());
+        return new AuthenticationResponse(token, user.getId(), user.getName(), user.getStatus(), refreshToken);
     }
 
     public void register(UserDTO userDTO) {
@@ -69,7 +106,7 @@ public class AuthenticationService {
 
         User user = new User();
 
-        user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+        user.setPassword(passwordHashing.encode(userDTO.getPassword()));
         user.setPhoneNumber(userDTO.getPhoneNumber());
         user.setName(userDTO.getName());
 //        user.setStatus("online");
@@ -1,17 +1,27 @@
 package com.chat_app.web_socket_chat_application.app.service;
 
+import com.chat_app.web_socket_chat_application.app.archive.MessageArchiver;
+import com.chat_app.web_socket_chat_application.app.logging.LogSampler;
+import com.chat_app.web_socket_chat_application.app.messaging.MessageDeduplicator;
 import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
 import com.chat_app.web_socket_chat_application.domain.entity.Conversation;
-import com.chat_app.web_socket_chat_application.domain.entity.User;
+import com.chat_app.web_socket_chat_application.domain.projection.UserName;
 import com.chat_app.web_socket_chat_application.domain.repository.ChatMessageRepository;
 import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
 import com.chat_app.web_socket_chat_application.util.TimestampUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,8 +34,25 @@ public class ChatMessageService {
     private final ConversationService conversationService;
     @Autowired
     private final UserRepository userRepository;
+    @Autowired
+    private final MessageArchiver messageArchiver;
+    @Autowired
+    private final AttachmentService attachmentService;
+    @Autowired
+    private final MessageDeduplicator messageDeduplicator;
+    @Autowired
+    private final LogSampler logSampler;
 
     public ChatMessage save(ChatMessage chatMessage) {
+        // A retry of a recent send is answered from memory without touching the database
+        if (chatMessage.getClientMessageId() != null) {
+            ChatMessage existing = messageDeduplicator.find(chatMessage.getSenderId(), chatMessage.getClientMessageId());
+            if (existing != null) {
+                logSampler.atInfo(log, "chat.duplicate").log("Duplicate send of client message {} ignored", chatMessage.getClientMessageId());
+                return existing;
+            }
+        }
+
         // Ensure timestamp is set using TimestampUtil
         chatMessage.setTimestamp(TimestampUtil.ensureTimestamp(chatMessage.getTimestamp()));
 
@@ -34,20 +61,42 @@ public class ChatMessageService {
 
         chatMessage.setConversationId(conversation.getId());
         chatMessage.setRead(false);
+        chatMessage.setDeliveryPending(true);
 
         // Set sender information
-        User sender = userRepository.findById(chatMessage.getSenderId())
+        UserName sender = userRepository.findProjectedById(chatMessage.getSenderId(), UserName.class)
                 .orElseThrow(() -> new IllegalArgumentException("Sender not found"));
-        chatMessage.setSender(new ChatMessage.SenderInfo(sender.getId(), sender.getName()));
-
-        ChatMessage savedMessage = chatMessageRepository.save(chatMessage);
+        chatMessage.setSender(new ChatMessage.SenderInfo(sender.id(), sender.name()));
+
+        // Clients send only the attachment id; fill in the metadata from the stored upload
+        if (chatMessage.getAttachment() != null) {
+            chatMessage.setAttachment(attachmentService.getAttachmentInfo(chatMessage.getAttachment().getId(), chatMessage.getSenderId()));
+        }
+
+        ChatMessage savedMessage;
+        try {
+            savedMessage = chatMessageRepository.save(chatMessage);
+        } catch (DuplicateKeyException e) {
+            // Retried on another replica or after the window; the unique index kept it to one copy
+            ChatMessage existing = chatMessageRepository
+                    .findBySenderIdAndClientMessageId(chatMessage.getSenderId(), chatMessage.getClientMessageId())
+                    .orElseThrow(() -> e);
+            existing.setSender(chatMessage.getSender());
+            messageDeduplicator.remember(existing);
+            logSampler.atInfo(log, "chat.duplicate").log("Duplicate send of client message {} ignored", chatMessage.getClientMessageId());
+            return existing;
+        }
+        messageDeduplicator.remember(savedMessage);
 
         conversationService.updateLastMessage(
                 conversation.getId(),
+                chatMessage.getSenderId(),
+                chatMessage.getReceiverId(),
                 chatMessage.getContent(),
                 chatMessage.getTimestamp());
 
-        log.info("Chat message saved: {}", savedMessage);
+        logSampler.atInfo(log, "chat.saved")
+                .log("Chat message {} saved in conversation {}", savedMessage.getId(), savedMessage.getConversationId());
         return savedMessage;
     }
 
@@ -63,15 +112,24 @@ public class ChatMessageService {
     }
 
     private List<ChatMessage> findMessagesByConversationId(String conversationId) {
+        // Read the archive tier first, then recent messages; ids may appear in both mid-archiving
+        List<ChatMessage> archived = messageArchiver.findArchivedMessages(conversationId);
         List<ChatMessage> messages = chatMessageRepository.findByConversationId(conversationId);
-
+        if (!archived.isEmpty()) {
+            Map<String, ChatMessage> byId = new LinkedHashMap<>();
+            archived.forEach(message -> byId.put(message.getId(), message));
+            messages.forEach(message -> byId.putIfAbsent(message.getId(), message));
+            messages = new ArrayList<>(byId.values());
+            messages.sort(Comparator.comparing(ChatMessage::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder())));
+        }
+
+        // A history has two senders at most, so each is looked up once
+        Map<String, Optional<UserName>> senders = new HashMap<>();
         return messages.stream().map(message -> {
             // Ensure sender info is included
             if (message.getSender() == null) {
-                User sender = userRepository.findById(message.getSenderId()).orElse(null);
-                if (sender != null) {
-                    message.setSender(new ChatMessage.SenderInfo(sender.getId(), sender.getName()));
-                }
+                senders.computeIfAbsent(message.getSenderId(), id -> userRepository.findProjectedById(id, UserName.class))
+                        .ifPresent(sender -> message.setSender(new ChatMessage.SenderInfo(sender.id(), sender.name())));
             }
             return message;
         }).collect(Collectors.toList());
@@ -85,8 +143,12 @@ public class ChatMessageService {
             message.setRead(true);
             chatMessageRepository.save(message);
         });
+        if (!unreadMessages.isEmpty()) {
+            // Read flags are part of the history, so cached copies of it are stale now
+            conversationService.touch(conversationId);
+        }
 
-        // Update conversation unread count
-        conversationService.markAsRead(conversationId);
+        // Update the receiver's unread count
+        conversationService.markAsRead(conversationId, receiverId);
     }
 }
\ No newline at end of file
@@ -1,21 +1,37 @@
 package com.chat_app.web_socket_chat_application.app.service;
 
 import com.chat_app.web_socket_chat_application.api.dto.ConversationDTO;
+import com.chat_app.web_socket_chat_application.app.cache.CacheInvalidationBus;
+import com.chat_app.web_socket_chat_application.app.cache.CacheNames;
+import com.chat_app.web_socket_chat_application.app.cache.EntityChangedEvent;
+import com.chat_app.web_socket_chat_application.app.cache.EntityChangedEvent.ChangeType;
 import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
 import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionCode;
+import com.chat_app.web_socket_chat_application.app.inbox.InboxBackfill;
+import com.chat_app.web_socket_chat_application.app.retention.RetentionEngine;
 import com.chat_app.web_socket_chat_application.domain.entity.Conversation;
-import com.chat_app.web_socket_chat_application.domain.entity.User;
+import com.chat_app.web_socket_chat_application.domain.projection.UserName;
 import com.chat_app.web_socket_chat_application.domain.repository.ConversationRepository;
 import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
@@ -27,79 +43,195 @@ public class ConversationService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private RetentionEngine retentionEngine;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private InboxService inboxService;
+
+    @Autowired
+    private InboxBackfill inboxBackfill;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     public Conversation createOrGetConversation(String senderId, String receiverId) {
-        User sender = userRepository.findById(senderId)
+        UserName sender = userRepository.findProjectedById(senderId, UserName.class)
                 .orElseThrow(() -> new AppException(ExceptionCode.USER_NOT_EXISTED));
-        User receiver = userRepository.findById(receiverId)
+        UserName receiver = userRepository.findProjectedById(receiverId, UserName.class)
                 .orElseThrow(() -> new AppException(ExceptionCode.USER_NOT_EXISTED));
 
-        // Try to find the conversation where current user is sender
-        Optional<Conversation> conversation = conversationRepository.findBySenderIdAndReceiverId(sender.getId(), receiver.getId());
-
-        // Also check if conversation exists where current user is receiver
-        if (conversation.isEmpty()) {
-            conversation = conversationRepository.findBySenderIdAndReceiverId(receiver.getId(), sender.getId());
-        }
-
-        return conversation.orElseGet(() -> {
+        return findConversationBetween(sender.id(), receiver.id()).orElseGet(() -> {
             Conversation newConversation = new Conversation();
             newConversation.setSenderId(senderId);
             newConversation.setReceiverId(receiverId);
-            newConversation.setName(receiver.getName()); // Keep this for backward compatibility
+            newConversation.setName(receiver.name()); // Keep this for backward compatibility
             newConversation.setLastMessage(""); // Empty last message
             newConversation.setLastMessageTime(null);
-            newConversation.setUnreadCount(0);
             newConversation.setOnline(false); // Default to offline
             newConversation.setCategory("all"); // Default category
-            return conversationRepository.save(newConversation);
+            Conversation saved = conversationRepository.save(newConversation);
+            inboxService.rebuild(saved, sender, receiver);
+            return saved;
         });
     }
 
+    public Optional<Conversation> findConversationBetween(String userId1, String userId2) {
+        // Try to find the conversation where the first user is sender
+        Optional<Conversation> conversation = conversationRepository.findBySenderIdAndReceiverId(userId1, userId2);
+
+        // Also check if conversation exists where the first user is receiver
+        if (conversation.isEmpty()) {
+            conversation = conversationRepository.findBySenderIdAndReceiverId(userId2, userId1);
+        }
+        return conversation;
+    }
+
+    /**
+     * Validator for the message history of two users, or null if they have no conversation yet.
+     * Weak, since the body may be sent compressed.
+     */
+    public String getHistoryETag(String userId1, String userId2) {
+        return findConversationBetween(userId1, userId2)
+                .map(conversation -> "W/\"" + conversation.getId() + "-" + conversation.getRevision() + "\"")
+                .orElse(null);
+    }
+
+    /**
+     * Validator for a user's inbox, or null if the inbox has not been materialized yet.
+     */
+    public String getInboxETag(String userId) {
+        Long version = inboxService.getVersion(userId);
+        return version == null ? null : "W/\"inbox-" + version + "\"";
+    }
+
+    /**
+     * Record a change to the message history that does not go through this service.
+     */
+    public void touch(String conversationId) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(conversationId)),
+                new Update().inc("revision", 1), Conversation.class);
+    }
+
     public List<Conversation> getAllConversations() {
         return conversationRepository.findAll();
     }
 
+    @Cacheable(CacheNames.CONVERSATIONS)
     public Conversation getConversation(String id) {
         return conversationRepository.findById(id)
                 .orElseThrow(() -> new AppException(ExceptionCode.CHATROOM_NOT_EXISTED));
     }
 
-    public void markAsRead(String id) {
+    /**
+     * Reset the unread counter of one participant, or of both when no user is given.
+     */
+    public void markAsRead(String id, String userId) {
         Conversation conversation = conversationRepository.findById(id)
                 .orElseThrow(() -> new AppException(ExceptionCode.CHATROOM_NOT_EXISTED));
-        conversation.setUnreadCount(0);
-        conversationRepository.save(conversation);
+        if (userId != null) {
+            resetUnread(id, userId);
+        } else {
+            resetUnread(id, conversation.getSenderId());
+            resetUnread(id, conversation.getReceiverId());
+        }
+        cacheInvalidationBus.publish(EntityChangedEvent.conversation(id, ChangeType.UPDATED));
+    }
+
+    // Swaps the counter for zero and takes exactly the swapped-out amount off the user's total
+    private void resetUnread(String conversationId, String userId) {
+        String field = "unreadCounts." + userId;
+        Query query = Query.query(Criteria.where("_id").is(conversationId).and(field).gt(0));
+        Conversation previous = mongoTemplate.findAndModify(query, Update.update(field, 0).inc("revision", 1),
+                FindAndModifyOptions.options().returnNew(false), Conversation.class);
+        if (previous != null) {
+            unreadCounterService.decrement(userId, previous.getUnreadCount(userId));
+            inboxService.onRead(conversationId, userId);
+        }
     }
 
     public void deleteConversation(String id) {
-        if (!conversationRepository.existsById(id)) {
+        // Removed and read in one step, so sends that land before the delete are in the counts
+        // taken off the totals, and sends after it find no conversation to count against
+        Conversation conversation = mongoTemplate.findAndRemove(Query.query(Criteria.where("_id").is(id)), Conversation.class);
+        if (conversation == null) {
             throw new AppException(ExceptionCode.CHATROOM_NOT_EXISTED);
         }
-        conversationRepository.deleteById(id);
+        conversation.getUnreadCounts().forEach(unreadCounterService::decrement);
+        inboxService.onDeleted(conversation);
+        cacheInvalidationBus.publish(EntityChangedEvent.conversation(id, ChangeType.DELETED));
+        // Messages are removed in the background so large conversations do not block the caller
+        retentionEngine.purgeConversation(id);
     }
 
-    public void updateLastMessage(String conversationId, String message, String timestamp) {
-        Conversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new AppException(ExceptionCode.CHATROOM_NOT_EXISTED));
-        conversation.setLastMessage(message);
-        conversation.setLastMessageTime(timestamp);
-        conversation.setUnreadCount(conversation.getUnreadCount() + 1);
-        conversationRepository.save(conversation);
+    public Conversation updateRetention(String id, Integer retentionDays) {
+        if (retentionDays != null && retentionDays <= 0) {
+            throw new AppException(ExceptionCode.INVALID_RETENTION);
+        }
+        // A field update, so concurrent $inc of the counters and revision is not overwritten
+        Update update = retentionDays == null ? new Update().unset("retentionDays") : Update.update("retentionDays", retentionDays);
+        Conversation saved = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(id)), update.inc("revision", 1),
+                FindAndModifyOptions.options().returnNew(true), Conversation.class);
+        if (saved == null) {
+            throw new AppException(ExceptionCode.CHATROOM_NOT_EXISTED);
+        }
+        cacheInvalidationBus.publish(EntityChangedEvent.conversation(id, ChangeType.UPDATED));
+        return saved;
+    }
+
+    public void updateLastMessage(String conversationId, String senderId, String recipientId, String message, String timestamp) {
+        Update update = new Update()
+                .set("lastMessage", message)
+                .set("lastMessageTime", timestamp)
+                .inc("unreadCounts." + recipientId, 1)
+                .inc("revision", 1);
+        if (mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(conversationId)), update, Conversation.class)
+                .getMatchedCount() == 0) {
+            throw new AppException(ExceptionCode.CHATROOM_NOT_EXISTED);
+        }
+        unreadCounterService.increment(recipientId);
+        if (!inboxService.onMessage(conversationId, senderId, recipientId, message, timestamp)) {
+            conversationRepository.findById(conversationId).ifPresent(inboxService::rebuild);
+        }
+        cacheInvalidationBus.publish(EntityChangedEvent.conversation(conversationId, ChangeType.UPDATED));
     }
 
     public List<Conversation> getConversationsBySenderId(String senderId) {
-        userRepository.findById(senderId)
-                .orElseThrow(() -> new AppException(ExceptionCode.USER_NOT_EXISTED));
+        if (!userRepository.existsById(senderId)) {
+            throw new AppException(ExceptionCode.USER_NOT_EXISTED);
+        }
 
         return conversationRepository.findBySenderId(senderId);
     }
 
     public List<ConversationDTO> getUserConversations(String userId) {
-        User currentUser = userRepository.findById(userId)
-                .orElseThrow(() -> new AppException(ExceptionCode.USER_NOT_EXISTED));
+        List<ConversationDTO> inbox = inboxService.getInbox(userId);
+        // Before the backfill has finished, an inbox may hold only the conversations written since
+        // deploy, unless this user's list has been built once already
+        if (inboxBackfill.isComplete() || inboxService.isMaterialized(userId)) {
+            return inbox;
+        }
 
+        // Build the list from the conversations and materialize the entries still missing
+        Set<String> materialized = inbox.stream().map(ConversationDTO::getId).collect(Collectors.toSet());
         List<Conversation> conversations = conversationRepository.findBySenderIdOrReceiverId(userId, userId);
 
+        // The user and every counterpart in one query
+        Set<String> userIds = conversations.stream()
+                .flatMap(conversation -> Stream.of(conversation.getSenderId(), conversation.getReceiverId()))
+                .collect(Collectors.toSet());
+        userIds.add(userId);
+        Map<String, UserName> users = userRepository.findProjectedByIdIn(userIds, UserName.class).stream()
+                .collect(Collectors.toMap(UserName::id, Function.identity()));
+        UserName currentUser = Optional.ofNullable(users.get(userId))
+                .orElseThrow(() -> new AppException(ExceptionCode.USER_NOT_EXISTED));
+
         Collections.sort(conversations, (c1, c2) -> {
             // If no last message, put at the end
             if (c1.getLastMessageTime() == null) return 1;
@@ -109,7 +241,7 @@ public class ConversationService {
             return c2.getLastMessageTime().compareTo(c1.getLastMessageTime());
         });
 
-        return conversations.stream().map(conversation -> {
+        List<ConversationDTO> result = conversations.stream().map(conversation -> {
             String displayName;
             String otherUserId;
 
@@ -119,23 +251,37 @@ public class ConversationService {
                 otherUserId = conversation.getSenderId();
             }
 
-            User otherUser = userRepository.findById(otherUserId)
+            UserName otherUser = Optional.ofNullable(users.get(otherUserId))
                     .orElseThrow(() -> new AppException(ExceptionCode.USER_NOT_EXISTED));
-            displayName = otherUser.getName();
-
-            return ConversationDTO.builder()
-                    .id(conversation.getId())
-                    .displayName(displayName)
-                    .lastMessage(conversation.getLastMessage())
-                    .lastMessageTime(conversation.getLastMessageTime())
-                    .unreadCount(conversation.getUnreadCount())
-                    .online(conversation.isOnline())
-                    .avatarColor(conversation.getAvatarColor())
-                    .category(conversation.getCategory())
-                    .senderId(conversation.getSenderId())
-                    .receiverId(conversation.getReceiverId())
-                    .chatId(conversation.getChatId())
-                    .build();
+            displayName = otherUser.name();
+            // Rebuilding changes the inbox version, so only where entries are missing
+            if (!materialized.contains(conversation.getId())) {
+                inboxService.rebuild(conversation, currentUser, otherUser);
+            }
+
+            return toConversationDTO(conversation, displayName, userId);
         }).collect(Collectors.toList());
+        // Later conversations get their entries when created, so from now on the inbox is complete
+        inboxService.markMaterialized(userId);
+        return result;
+    }
+
+    /**
+     * @param viewerId the user the list is for; the unread count is that user's
+     */
+    public static ConversationDTO toConversationDTO(Conversation conversation, String displayName, String viewerId) {
+        return ConversationDTO.builder()
+                .id(conversation.getId())
+                .displayName(displayName)
+                .lastMessage(conversation.getLastMessage())
+                .lastMessageTime(conversation.getLastMessageTime())
+                .unreadCount(conversation.getUnreadCount(viewerId))
+                .online(conversation.isOnline())
+                .avatarColor(conversation.getAvatarColor())
+                .category(conversation.getCategory())
+                .senderId(conversation.getSenderId())
+                .receiverId(conversation.getReceiverId())
+                .chatId(conversation.getChatId())
+                .build();
     }
 }
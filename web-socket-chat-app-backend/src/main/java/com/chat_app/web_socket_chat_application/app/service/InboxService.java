@@ -0,0 +1,191 @@
+package com.chat_app.web_socket_chat_application.app.service;
+
+import com.chat_app.web_socket_chat_application.api.dto.ConversationDTO;
+import com.chat_app.web_socket_chat_application.domain.entity.Conversation;
+import com.chat_app.web_socket_chat_application.domain.entity.InboxEntry;
+import com.chat_app.web_socket_chat_application.domain.projection.UserName;
+import com.chat_app.web_socket_chat_application.domain.repository.InboxEntryRepository;
+import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the materialized inbox: an {@link InboxEntry} per participant of every conversation,
+ * holding what the conversation list shows. {@link ConversationService} calls in here on each
+ * write, so reading an inbox needs neither the {@code $or} query on conversations nor user
+ * lookups. Conversations created before the inbox existed get their entries the first time
+ * they are written to or listed, or from the backfill. Renames and presence changes are copied
+ * to every entry that shows the user as the counterpart.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InboxService {
+
+    private final InboxEntryRepository inboxEntryRepository;
+    private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
+
+    private static final String VERSIONS = "inbox_versions";
+
+    /**
+     * Counter that changes whenever anything in the user's inbox changes; null until the user
+     * has an inbox.
+     */
+    public Long getVersion(String userId) {
+        Document version = mongoTemplate.findById(userId, Document.class, VERSIONS);
+        return version == null ? null : ((Number) version.get("version")).longValue();
+    }
+
+    /**
+     * Whether every conversation of the user is known to have its entry, so the inbox can be
+     * served before the backfill has reached the user.
+     */
+    public boolean isMaterialized(String userId) {
+        Document version = mongoTemplate.findById(userId, Document.class, VERSIONS);
+        return version != null && Boolean.TRUE.equals(version.get("materialized"));
+    }
+
+    public void markMaterialized(String userId) {
+        // The counter is read as a number, so an inbox without any writes yet starts it at zero
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)),
+                Update.update("materialized", true).setOnInsert("version", 0L), VERSIONS);
+    }
+
+    public List<ConversationDTO> getInbox(String userId) {
+        return inboxEntryRepository.findByUserIdOrderByLastMessageTimeDesc(userId).stream()
+                .map(InboxService::toConversationDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Write both entries of a conversation from its current state.
+     */
+    public void rebuild(Conversation conversation, UserName first, UserName second) {
+        Map<String, UserName> participants = List.of(first, second).stream()
+                .collect(Collectors.toMap(UserName::id, Function.identity(), (a, b) -> a));
+        inboxEntryRepository.saveAll(List.of(
+                entryFor(conversation, conversation.getSenderId(), participants.get(conversation.getReceiverId())),
+                entryFor(conversation, conversation.getReceiverId(), participants.get(conversation.getSenderId()))));
+        bumpVersion(conversation.getSenderId(), conversation.getReceiverId());
+    }
+
+    public void rebuild(Conversation conversation) {
+        UserName sender = userRepository.findProjectedById(conversation.getSenderId(), UserName.class).orElse(null);
+        UserName receiver = userRepository.findProjectedById(conversation.getReceiverId(), UserName.class).orElse(null);
+        if (sender == null || receiver == null) {
+            log.warn("Cannot build inbox entries for conversation {}, a participant no longer exists", conversation.getId());
+            return;
+        }
+        rebuild(conversation, sender, receiver);
+    }
+
+    /**
+     * Apply a new message to both entries.
+     *
+     * @return false if the entries do not exist yet and the conversation has to be rebuilt
+     */
+    public boolean onMessage(String conversationId, String senderId, String recipientId, String message, String timestamp) {
+        long matched = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("conversationId").is(conversationId)),
+                new Update().set("lastMessage", message).set("lastMessageTime", timestamp),
+                InboxEntry.class).getMatchedCount();
+        // Both entry ids coincide when users message themselves
+        if (matched < (senderId.equals(recipientId) ? 1 : 2)) {
+            return false;
+        }
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(InboxEntry.idOf(conversationId, recipientId))),
+                new Update().inc("unreadCount", 1),
+                InboxEntry.class);
+        bumpVersion(senderId, recipientId);
+        return true;
+    }
+
+    public void onRead(String conversationId, String userId) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(InboxEntry.idOf(conversationId, userId))),
+                Update.update("unreadCount", 0),
+                InboxEntry.class);
+        bumpVersion(userId);
+    }
+
+    public void onDeleted(Conversation conversation) {
+        inboxEntryRepository.deleteByConversationId(conversation.getId());
+        bumpVersion(conversation.getSenderId(), conversation.getReceiverId());
+    }
+
+    public void onRenamed(String userId, String name) {
+        updateCounterpart(userId, Update.update("counterpartName", name));
+    }
+
+    public void onPresenceChanged(String userId, boolean online) {
+        updateCounterpart(userId, Update.update("online", online));
+    }
+
+    private void updateCounterpart(String userId, Update update) {
+        Query shown = Query.query(Criteria.where("counterpartId").is(userId));
+        if (mongoTemplate.updateMulti(shown, update, InboxEntry.class).getModifiedCount() == 0) {
+            return;
+        }
+        shown.fields().include("userId");
+        bumpVersion(mongoTemplate.find(shown, InboxEntry.class).stream()
+                .map(InboxEntry::getUserId)
+                .toArray(String[]::new));
+    }
+
+    private void bumpVersion(String... userIds) {
+        for (String userId : new LinkedHashSet<>(Arrays.asList(userIds))) {
+            if (userId != null) {
+                mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)), new Update().inc("version", 1), VERSIONS);
+            }
+        }
+    }
+
+    public static ConversationDTO toConversationDTO(InboxEntry entry) {
+        return ConversationDTO.builder()
+                .id(entry.getConversationId())
+                .displayName(entry.getCounterpartName())
+                .lastMessage(entry.getLastMessage())
+                .lastMessageTime(entry.getLastMessageTime())
+                .unreadCount(entry.getUnreadCount())
+                .online(entry.isOnline())
+                .avatarColor(entry.getAvatarColor())
+                .category(entry.getCategory())
+                .senderId(entry.getSenderId())
+                .receiverId(entry.getReceiverId())
+                .chatId(entry.getSenderId() + "_" + entry.getReceiverId())
+                .build();
+    }
+
+    private static InboxEntry entryFor(Conversation conversation, String userId, UserName counterpart) {
+        return InboxEntry.builder()
+                .id(InboxEntry.idOf(conversation.getId(), userId))
+                .userId(userId)
+                .conversationId(conversation.getId())
+                .counterpartId(counterpart.id())
+                .counterpartName(counterpart.name())
+                .lastMessage(conversation.getLastMessage())
+                .lastMessageTime(conversation.getLastMessageTime())
+                .unreadCount(conversation.getUnreadCount(userId))
+                .online(conversation.isOnline())
+                .avatarColor(conversation.getAvatarColor())
+                .category(conversation.getCategory())
+                .senderId(conversation.getSenderId())
+                .receiverId(conversation.getReceiverId())
+                .build();
+    }
+}
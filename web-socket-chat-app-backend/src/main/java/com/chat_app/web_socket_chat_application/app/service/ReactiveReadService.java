@@ -0,0 +1,119 @@
+package com.chat_app.web_socket_chat_application.app.service;
+
+import com.chat_app.web_socket_chat_application.api.dto.ConversationDTO;
+import com.chat_app.web_socket_chat_application.app.archive.MessageArchiver;
+import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
+import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionCode;
+import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import com.chat_app.web_socket_chat_application.domain.entity.Conversation;
+import com.chat_app.web_socket_chat_application.domain.projection.UserName;
+import com.chat_app.web_socket_chat_application.domain.projection.UserProfile;
+import com.chat_app.web_socket_chat_application.domain.repository.ReactiveChatMessageRepository;
+import com.chat_app.web_socket_chat_application.domain.repository.ReactiveConversationRepository;
+import com.chat_app.web_socket_chat_application.domain.repository.ReactiveInboxEntryRepository;
+import com.chat_app.web_socket_chat_application.domain.repository.ReactiveMessageBucketRepository;
+import com.chat_app.web_socket_chat_application.domain.repository.ReactiveUserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking counterparts of the read-heavy queries in {@link ChatMessageService},
+ * {@link ConversationService} and {@link UserService}, built on the reactive repositories.
+ * Results are streamed from the database cursor as the client consumes them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveReadService {
+    // Concurrent user lookups while resolving conversation display names
+    private static final int LOOKUP_CONCURRENCY = 16;
+
+    @Autowired
+    private final ReactiveChatMessageRepository chatMessageRepository;
+    @Autowired
+    private final ReactiveConversationRepository conversationRepository;
+    @Autowired
+    private final ReactiveUserRepository userRepository;
+    @Autowired
+    private final ReactiveInboxEntryRepository inboxEntryRepository;
+    @Autowired
+    private final ReactiveMessageBucketRepository messageBucketRepository;
+    @Autowired
+    private final MessageArchiver messageArchiver;
+
+    /**
+     * Full history between two users, archived messages first. Unlike the blocking variant this
+     * does not create the conversation, so an unknown pair yields no messages.
+     */
+    public Flux<ChatMessage> findChatMessagesBetweenUsers(String userId1, String userId2) {
+        return findConversation(userId1, userId2)
+                .zipWith(userRepository.findProjectedByIdIn(List.of(userId1, userId2), UserName.class).collectMap(UserName::id))
+                .flatMapMany(found -> {
+                    String conversationId = found.getT1().getId();
+                    Map<String, UserName> participants = found.getT2();
+                    return messageBucketRepository.findByConversationIdOrderByFirstTimestampAsc(conversationId)
+                            .concatMapIterable(messageArchiver::unpack)
+                            .concatWith(chatMessageRepository.findByConversationIdOrderByTimestampAsc(conversationId))
+                            // A message can sit in both tiers while it is being archived
+                            .distinct(ChatMessage::getId)
+                            .map(message -> withSender(message, participants));
+                });
+    }
+
+    public Flux<ConversationDTO> getUserConversations(String userId) {
+        return inboxEntryRepository.findByUserIdOrderByLastMessageTimeDesc(userId)
+                .map(InboxService::toConversationDTO)
+                // Not materialized yet; the blocking variant fills the inbox on its next read
+                .switchIfEmpty(Flux.defer(() -> joinConversations(userId)));
+    }
+
+    private Flux<ConversationDTO> joinConversations(String userId) {
+        return userRepository.existsById(userId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new AppException(ExceptionCode.USER_NOT_EXISTED)))
+                // Missing lastMessageTime sorts last in descending order, as in the blocking variant
+                .flatMapMany(exists -> conversationRepository.findBySenderIdOrReceiverIdOrderByLastMessageTimeDesc(userId, userId))
+                .flatMapSequential(conversation -> {
+                    String otherUserId = userId.equals(conversation.getSenderId())
+                            ? conversation.getReceiverId()
+                            : conversation.getSenderId();
+                    return userRepository.findProjectedById(otherUserId, UserName.class)
+                            .switchIfEmpty(Mono.error(() -> new AppException(ExceptionCode.USER_NOT_EXISTED)))
+                            .map(otherUser -> ConversationService.toConversationDTO(conversation, otherUser.name(), userId));
+                }, LOOKUP_CONCURRENCY);
+    }
+
+    /**
+     * Users matching the query by exact phone number or by name, excluding the caller.
+     */
+    public Flux<UserProfile> searchUsers(String query, String currentPhoneNumber) {
+        return userRepository.findProjectedByPhoneNumber(currentPhoneNumber, UserName.class)
+                .switchIfEmpty(Mono.error(() -> new AppException(ExceptionCode.USER_NOT_EXISTED)))
+                .flatMapMany(currentUser -> userRepository.findProjectedByPhoneNumber(query, UserProfile.class).flux()
+                        .concatWith(userRepository.findProjectedByNameContainingIgnoreCase(query, UserProfile.class))
+                        .filter(user -> !user.id().equals(currentUser.id()))
+                        .distinct(UserProfile::id));
+    }
+
+    private Mono<Conversation> findConversation(String userId1, String userId2) {
+        return conversationRepository.findBySenderIdAndReceiverId(userId1, userId2)
+                .switchIfEmpty(Mono.defer(() -> conversationRepository.findBySenderIdAndReceiverId(userId2, userId1)));
+    }
+
+    private static ChatMessage withSender(ChatMessage message, Map<String, UserName> participants) {
+        if (message.getSender() == null) {
+            UserName sender = participants.get(message.getSenderId());
+            if (sender != null) {
+                message.setSender(new ChatMessage.SenderInfo(sender.id(), sender.name()));
+            }
+        }
+        return message;
+    }
+}
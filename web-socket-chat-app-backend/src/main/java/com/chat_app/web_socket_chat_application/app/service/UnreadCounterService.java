@@ -0,0 +1,80 @@
+package com.chat_app.web_socket_chat_application.app.service;
+
+import com.chat_app.web_socket_chat_application.domain.entity.Conversation;
+import com.chat_app.web_socket_chat_application.domain.entity.UnreadCounter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Per-user total of unread messages. It moves together with the per-participant counters on
+ * {@code Conversation.unreadCounts}: up by one for every message a user receives and down by
+ * exactly the amount a read or a delete took off a conversation, as returned by the atomic
+ * update that did it. All changes are {@code $inc} updates, so concurrent sends, reads and
+ * deletes never overwrite each other.
+ * <p>
+ * The conversation is always written first, so a failure between the two writes can only leave
+ * the total too low. A total that is missing or has gone negative is derived again from the
+ * conversations instead of being clamped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadCounterService {
+
+    private final MongoTemplate mongoTemplate;
+
+    public long getTotalUnread(String userId) {
+        UnreadCounter counter = mongoTemplate.findById(userId, UnreadCounter.class);
+        if (counter == null) {
+            // Never counted; a concurrent increment that creates the document first wins
+            mongoTemplate.upsert(byId(userId), new Update().setOnInsert("total", recount(userId)), UnreadCounter.class);
+            counter = mongoTemplate.findById(userId, UnreadCounter.class);
+            return counter == null ? 0 : counter.getTotal();
+        }
+        if (counter.getTotal() < 0) {
+            long total = recount(userId);
+            log.warn("Unread total of user {} drifted to {}, recounted {}", userId, counter.getTotal(), total);
+            mongoTemplate.updateFirst(byId(userId), Update.update("total", total), UnreadCounter.class);
+            return total;
+        }
+        return counter.getTotal();
+    }
+
+    public void increment(String userId) {
+        add(userId, 1);
+    }
+
+    public void decrement(String userId, long count) {
+        if (count > 0) {
+            add(userId, -count);
+        }
+    }
+
+    /**
+     * Sum of the user's per-conversation counters.
+     */
+    long recount(String userId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(new Criteria().orOperator(
+                        Criteria.where("senderId").is(userId), Criteria.where("receiverId").is(userId))),
+                Aggregation.group().sum("unreadCounts." + userId).as("total"));
+        Document result = mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Conversation.class), Document.class)
+                .getUniqueMappedResult();
+        return result == null ? 0 : ((Number) result.get("total")).longValue();
+    }
+
+    private void add(String userId, long delta) {
+        mongoTemplate.upsert(byId(userId), new Update().inc("total", delta), UnreadCounter.class);
+    }
+
+    private static Query byId(String userId) {
+        return Query.query(Criteria.where("_id").is(userId));
+    }
+}
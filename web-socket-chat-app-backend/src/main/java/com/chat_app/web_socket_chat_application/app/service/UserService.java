@@ -1,10 +1,21 @@
 package com.chat_app.web_socket_chat_application.app.service;
 
+import com.chat_app.web_socket_chat_application.app.cache.CacheInvalidationBus;
+import com.chat_app.web_socket_chat_application.app.cache.CacheNames;
+import com.chat_app.web_socket_chat_application.app.cache.EntityChangedEvent;
+import com.chat_app.web_socket_chat_application.app.cache.EntityChangedEvent.ChangeType;
 import com.chat_app.web_socket_chat_application.domain.entity.User;
+import com.chat_app.web_socket_chat_application.domain.projection.UserProfile;
+import com.chat_app.web_socket_chat_application.domain.projection.UserSummary;
 import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
 import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
 import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionCode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -17,52 +28,77 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
-    public List<User> findAllUsers() {
-        return userRepository.findAll();
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private InboxService inboxService;
+
+    public List<UserProfile> findAllUsers() {
+        return userRepository.findAllProjectedBy(UserProfile.class);
     }
 
-    public List<User> searchUsers(String query, String currentUserId) {
-        Set<User> distinctUsers = new HashSet<>();
+    public List<UserProfile> searchUsers(String query, String currentUserId) {
+        Set<UserProfile> distinctUsers = new HashSet<>();
 
         // Try searching by phone number
-        User userByPhone = userRepository.findByPhoneNumber(query);
-        if (userByPhone != null && !userByPhone.getId().equals(currentUserId)) {
+        UserProfile userByPhone = userRepository.findProjectedByPhoneNumber(query, UserProfile.class);
+        if (userByPhone != null && !userByPhone.id().equals(currentUserId)) {
             distinctUsers.add(userByPhone);
         }
 
         // Search by name (containing query), case-insensitive
-        List<User> usersByName = userRepository.findByNameContainingIgnoreCase(query);
+        List<UserProfile> usersByName = userRepository.findProjectedByNameContainingIgnoreCase(query, UserProfile.class);
         usersByName.stream()
-                .filter(user -> !user.getId().equals(currentUserId))
+                .filter(user -> !user.id().equals(currentUserId))
                 .forEach(distinctUsers::add);
 
         return new ArrayList<>(distinctUsers);
     }
 
-    public User getUserById(String userId) {
-        return userRepository.findById(userId)
+    @Cacheable(CacheNames.USERS)
+    public UserProfile getUserById(String userId) {
+        return userRepository.findProjectedById(userId, UserProfile.class)
                 .orElseThrow(() -> new AppException(ExceptionCode.USER_NOT_EXISTED));
     }
 
-    public User findByPhoneNumber(String phoneNumber) {
-        User user = userRepository.findByPhoneNumber(phoneNumber);
+    public UserProfile findByPhoneNumber(String phoneNumber) {
+        UserProfile user = userRepository.findProjectedByPhoneNumber(phoneNumber, UserProfile.class);
         if (user == null) {
             throw new AppException(ExceptionCode.USER_NOT_EXISTED);
         }
         return user;
     }
 
-    public User updateUserStatus(String userId, String status) {
-        User user = userRepository.findById(userId)
+    public UserSummary updateUserStatus(String userId, String status) {
+        setStatus(userId, status);
+        return userRepository.findProjectedById(userId, UserSummary.class)
                 .orElseThrow(() -> new AppException(ExceptionCode.USER_NOT_EXISTED));
-        user.setStatus(status);
-        return userRepository.save(user);
     }
 
     public void disconnectUser(String userId) {
-        User storedUser = userRepository.findById(userId)
-                .orElseThrow(() -> new AppException(ExceptionCode.USER_NOT_EXISTED));
-        storedUser.setStatus("offline");
-        userRepository.save(storedUser);
+        setStatus(userId, "offline");
+    }
+
+    public void renameUser(String userId, String name) {
+        if (mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)), Update.update("name", name), User.class)
+                .getMatchedCount() == 0) {
+            throw new AppException(ExceptionCode.USER_NOT_EXISTED);
+        }
+        inboxService.onRenamed(userId, name);
+        cacheInvalidationBus.publish(EntityChangedEvent.user(userId, ChangeType.RENAMED));
+    }
+
+    // Writes the status field alone, the rest of the document is neither read nor rewritten
+    private void setStatus(String userId, String status) {
+        if (mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)), Update.update("status", status), User.class)
+                .getMatchedCount() == 0) {
+            throw new AppException(ExceptionCode.USER_NOT_EXISTED);
+        }
+        inboxService.onPresenceChanged(userId, "online".equals(status));
+        cacheInvalidationBus.publish(EntityChangedEvent.user(userId, ChangeType.STATUS_CHANGED));
     }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.chat_app.web_socket_chat_application.app.websocket;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+
+/**
+ * Wraps every new WebSocket session so that completed socket writes are reported to the
+ * {@link OutboundSessionRegistry}. The STOMP sub-protocol handler puts its own buffering
+ * decorator around this one, so a write here means the frame has really left the buffer.
+ */
+public class BackpressureWebSocketHandlerDecorator extends WebSocketHandlerDecorator {
+
+    private final OutboundSessionRegistry registry;
+
+    public BackpressureWebSocketHandlerDecorator(WebSocketHandler delegate, OutboundSessionRegistry registry) {
+        super(delegate);
+        this.registry = registry;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        registry.register(session);
+        super.afterConnectionEstablished(new WriteTrackingSession(session, registry));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        try {
+            super.afterConnectionClosed(session, closeStatus);
+        } finally {
+            registry.unregister(session.getId());
+        }
+    }
+
+    private static class WriteTrackingSession extends WebSocketSessionDecorator {
+
+        private final OutboundSessionRegistry registry;
+
+        private WriteTrackingSession(WebSocketSession delegate, OutboundSessionRegistry registry) {
+            super(delegate);
+            this.registry = registry;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            try {
+                super.sendMessage(message);
+            } finally {
+                registry.onWritten(getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.chat_app.web_socket_chat_application.app.websocket;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Mirrors the STOMP subscriptions made by sessions connected to this node. The broker relay
+ * keeps the authoritative subscription state in RabbitMQ; this copy lets the node reach its
+ * own sessions directly when the broker cannot.
+ */
+@Component
+public class LocalSubscriptionRegistry implements ChannelInterceptor {
+
+    // destination -> sessionId -> subscriptionId
+    private final Map<String, Map<String, String>> subscriptionsByDestination = new ConcurrentHashMap<>();
+    // sessionId -> subscriptionId -> destination
+    private final Map<String, Map<String, String>> subscriptionsBySession = new ConcurrentHashMap<>();
+    private final List<DestinationListener> listeners = new CopyOnWriteArrayList<>();
+
+    public record LocalSubscription(String sessionId, String subscriptionId) {
+    }
+
+    /**
+     * Notified when a destination gains its first local subscriber or loses its last one.
+     */
+    public interface DestinationListener {
+        void onDestinationActive(String destination);
+
+        void onDestinationInactive(String destination);
+    }
+
+    public void addListener(DestinationListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (type == null || sessionId == null) {
+            return message;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        switch (type) {
+            case SUBSCRIBE -> subscribe(sessionId, accessor.getSubscriptionId(), accessor.getDestination());
+            case UNSUBSCRIBE -> unsubscribe(sessionId, accessor.getSubscriptionId());
+            case DISCONNECT -> removeSession(sessionId);
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    public List<LocalSubscription> getSubscriptions(String destination) {
+        Map<String, String> subscribers = subscriptionsByDestination.get(destination);
+        if (subscribers == null) {
+            return List.of();
+        }
+        return subscribers.entrySet().stream()
+                .map(entry -> new LocalSubscription(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    public Set<String> getActiveDestinations() {
+        return Set.copyOf(subscriptionsByDestination.keySet());
+    }
+
+    public boolean hasSubscribers(String destination) {
+        Map<String, String> subscribers = subscriptionsByDestination.get(destination);
+        return subscribers != null && !subscribers.isEmpty();
+    }
+
+    private void subscribe(String sessionId, String subscriptionId, String destination) {
+        if (subscriptionId == null || destination == null) {
+            return;
+        }
+        subscriptionsBySession.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(subscriptionId, destination);
+        boolean[] activated = new boolean[1];
+        subscriptionsByDestination.compute(destination, (d, subscribers) -> {
+            if (subscribers == null) {
+                subscribers = new ConcurrentHashMap<>();
+                activated[0] = true;
+            }
+            subscribers.put(sessionId, subscriptionId);
+            return subscribers;
+        });
+        if (activated[0]) {
+            listeners.forEach(listener -> listener.onDestinationActive(destination));
+        }
+    }
+
+    private void unsubscribe(String sessionId, String subscriptionId) {
+        Map<String, String> sessionSubscriptions = subscriptionsBySession.get(sessionId);
+        if (sessionSubscriptions == null || subscriptionId == null) {
+            return;
+        }
+        String destination = sessionSubscriptions.remove(subscriptionId);
+        if (destination != null) {
+            removeFromDestination(destination, sessionId);
+        }
+    }
+
+    private void removeSession(String sessionId) {
+        Map<String, String> sessionSubscriptions = subscriptionsBySession.remove(sessionId);
+        if (sessionSubscriptions != null) {
+            sessionSubscriptions.values().forEach(destination -> removeFromDestination(destination, sessionId));
+        }
+    }
+
+    private void removeFromDestination(String destination, String sessionId) {
+        boolean[] deactivated = new boolean[1];
+        subscriptionsByDestination.computeIfPresent(destination, (d, subscribers) -> {
+            subscribers.remove(sessionId);
+            deactivated[0] = subscribers.isEmpty();
+            return deactivated[0] ? null : subscribers;
+        });
+        if (deactivated[0]) {
+            listeners.forEach(listener -> listener.onDestinationInactive(destination));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.chat_app.web_socket_chat_application.app.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of how many outbound frames each WebSocket session still has to write.
+ * A frame is counted when it enters the client outbound channel and released once it has
+ * actually been written to the socket, so the depth covers both the channel executor queue
+ * and the per-session send buffer.
+ */
+@Component
+@Slf4j
+public class OutboundSessionRegistry {
+
+    /** Application-defined close code telling clients they were dropped for being too slow. */
+    public static final int SLOW_CONSUMER_CLOSE_CODE = 4429;
+
+    /** Standard "service restart" close code, sent to sessions closed while this node drains. */
+    public static final int DRAIN_CLOSE_CODE = CloseStatus.SERVICE_RESTARTED.getCode();
+
+    private final Map<String, TrackedSession> sessions = new ConcurrentHashMap<>();
+    private final Counter droppedEphemeral;
+    private final Counter downgraded;
+    private final Counter disconnected;
+
+    @Value("${chat.websocket.slow-consumer.drop-ephemeral-depth:64}")
+    private int dropEphemeralDepth;
+
+    @Value("${chat.websocket.slow-consumer.notification-only-depth:256}")
+    private int notificationOnlyDepth;
+
+    @Value("${chat.websocket.slow-consumer.disconnect-depth:1024}")
+    private int disconnectDepth;
+
+    @Value("${chat.websocket.slow-consumer.resume-after-ms:5000}")
+    private long resumeAfterMs;
+
+    public OutboundSessionRegistry(MeterRegistry meterRegistry) {
+        this.droppedEphemeral = meterRegistry.counter("chat.websocket.slow_consumer.dropped", "reason", "ephemeral");
+        this.downgraded = meterRegistry.counter("chat.websocket.slow_consumer.dropped", "reason", "notification_only");
+        this.disconnected = meterRegistry.counter("chat.websocket.slow_consumer.disconnected");
+        // Aggregated over the sessions when scraped; a series per session would grow without bound
+        Gauge.builder("chat.websocket.outbound.queue.depth.max", this, OutboundSessionRegistry::getMaxDepth)
+                .description("Largest number of outbound STOMP frames a session has accepted but not yet written")
+                .register(meterRegistry);
+        Gauge.builder("chat.websocket.outbound.queue.depth.total", this, OutboundSessionRegistry::getTotalDepth)
+                .description("Outbound STOMP frames accepted but not yet written, over all sessions")
+                .register(meterRegistry);
+    }
+
+    public void register(WebSocketSession session) {
+        sessions.put(session.getId(), new TrackedSession(session));
+    }
+
+    public void unregister(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public void onEnqueued(String sessionId) {
+        TrackedSession tracked = sessions.get(sessionId);
+        if (tracked != null) {
+            tracked.depth.incrementAndGet();
+        }
+    }
+
+    public void onWritten(String sessionId) {
+        TrackedSession tracked = sessions.get(sessionId);
+        if (tracked != null) {
+            // Frames written outside the outbound channel (e.g. STOMP ERROR) were never counted
+            tracked.depth.updateAndGet(depth -> depth > 0 ? depth - 1 : 0);
+        }
+    }
+
+    public int getDepth(String sessionId) {
+        TrackedSession tracked = sessions.get(sessionId);
+        return tracked == null ? 0 : tracked.depth.get();
+    }
+
+    int getMaxDepth() {
+        return sessions.values().stream().mapToInt(tracked -> tracked.depth.get()).max().orElse(0);
+    }
+
+    long getTotalDepth() {
+        return sessions.values().stream().mapToLong(tracked -> tracked.depth.get()).sum();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public List<String> getSessionIds() {
+        return List.copyOf(sessions.keySet());
+    }
+
+    public SlowConsumerLevel levelFor(String sessionId) {
+        int depth = getDepth(sessionId);
+        if (depth >= disconnectDepth) {
+            return SlowConsumerLevel.DISCONNECT;
+        }
+        if (depth >= notificationOnlyDepth) {
+            return SlowConsumerLevel.NOTIFICATION_ONLY;
+        }
+        if (depth >= dropEphemeralDepth) {
+            return SlowConsumerLevel.DROP_EPHEMERAL;
+        }
+        return SlowConsumerLevel.NORMAL;
+    }
+
+    public void recordDroppedEphemeral() {
+        droppedEphemeral.increment();
+    }
+
+    public void recordDowngraded() {
+        downgraded.increment();
+    }
+
+    /**
+     * Close a session that fell too far behind. The close reason carries a resume hint so the
+     * client waits before reconnecting and then reloads history over REST.
+     */
+    public void disconnectSlowConsumer(String sessionId) {
+        TrackedSession tracked = sessions.get(sessionId);
+        if (tracked == null || !tracked.closing.compareAndSet(false, true)) {
+            return;
+        }
+        disconnected.increment();
+        log.warn("Disconnecting slow consumer session {} with {} pending frames", sessionId, tracked.depth.get());
+        try {
+            tracked.session.close(new CloseStatus(SLOW_CONSUMER_CLOSE_CODE, "slow-consumer;resume-after=" + resumeAfterMs));
+        } catch (IOException e) {
+            log.debug("Failed to close slow consumer session {}", sessionId, e);
+        }
+    }
+
+    /**
+     * Close a session because this node is shutting down. The close reason tells the client how
+     * long to wait before reconnecting, by which time the load balancer routes it elsewhere.
+     */
+    public void closeForDrain(String sessionId, long reconnectAfterMs) {
+        TrackedSession tracked = sessions.get(sessionId);
+        if (tracked == null || !tracked.closing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            tracked.session.close(new CloseStatus(DRAIN_CLOSE_CODE, "draining;reconnect-after=" + reconnectAfterMs));
+        } catch (IOException e) {
+            log.debug("Failed to close draining session {}", sessionId, e);
+        }
+    }
+
+    private static class TrackedSession {
+        private final WebSocketSession session;
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean closing = new AtomicBoolean();
+
+        private TrackedSession(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+}
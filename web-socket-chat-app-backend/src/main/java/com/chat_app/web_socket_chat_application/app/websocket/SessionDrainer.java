@@ -0,0 +1,167 @@
+package com.chat_app.web_socket_chat_application.app.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drains WebSocket sessions when the application shuts down, so a rolling deploy does not drop
+ * every client of a replica at the same instant. On context close, before the broker and the
+ * web server stop, new handshakes are refused with 503 and the open sessions are closed one by
+ * one at random points within {@code chat.websocket.drain.spread-ms}. Each session first gets up
+ * to {@code flush-timeout-ms} to write the frames still queued for it, and is then closed with
+ * {@link OutboundSessionRegistry#DRAIN_CLOSE_CODE} and a random reconnect-after hint of up to
+ * {@code reconnect-jitter-ms}. Whatever is still open after {@code timeout-ms} is closed at once.
+ */
+@Component
+@Slf4j
+public class SessionDrainer implements HandshakeInterceptor, ApplicationListener<ContextClosedEvent> {
+
+    private static final long POLL_MS = 50;
+
+    private final OutboundSessionRegistry outboundSessionRegistry;
+    private volatile boolean draining;
+    private Ticker ticker = Ticker.SYSTEM;
+
+    @Value("${chat.websocket.drain.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chat.websocket.drain.spread-ms:20000}")
+    private long spreadMs;
+
+    @Value("${chat.websocket.drain.flush-timeout-ms:2000}")
+    private long flushTimeoutMs;
+
+    @Value("${chat.websocket.drain.reconnect-jitter-ms:10000}")
+    private long reconnectJitterMs;
+
+    @Value("${chat.websocket.drain.timeout-ms:30000}")
+    private long timeoutMs;
+
+    public SessionDrainer(OutboundSessionRegistry outboundSessionRegistry) {
+        this.outboundSessionRegistry = outboundSessionRegistry;
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        if (!draining) {
+            return true;
+        }
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        return false;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    @Override
+    public void onApplicationEvent(ContextClosedEvent event) {
+        if (enabled && !draining) {
+            drain();
+        }
+    }
+
+    /**
+     * Runs on the shutdown thread and blocks it for at most {@code timeout-ms}.
+     */
+    void drain() {
+        draining = true;
+        long start = ticker.currentTimeMillis();
+        long deadline = start + timeoutMs;
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<ScheduledClose> schedule = new ArrayList<>();
+        for (String sessionId : outboundSessionRegistry.getSessionIds()) {
+            schedule.add(new ScheduledClose(sessionId, start + random.nextLong(spreadMs + 1)));
+        }
+        if (schedule.isEmpty()) {
+            return;
+        }
+        schedule.sort(Comparator.comparingLong(ScheduledClose::at));
+        log.info("Draining {} WebSocket sessions over {} ms", schedule.size(), spreadMs);
+
+        int flushed = 0;
+        for (ScheduledClose close : schedule) {
+            if (!sleepUntil(Math.min(close.at(), deadline))) {
+                break;
+            }
+            if (waitForFlush(close.sessionId(), Math.min(ticker.currentTimeMillis() + flushTimeoutMs, deadline))) {
+                flushed++;
+            }
+            outboundSessionRegistry.closeForDrain(close.sessionId(), random.nextLong(reconnectJitterMs + 1));
+        }
+
+        // Interrupted or out of time: close the rest without waiting
+        List<String> remaining = outboundSessionRegistry.getSessionIds();
+        remaining.forEach(sessionId -> outboundSessionRegistry.closeForDrain(sessionId, random.nextLong(reconnectJitterMs + 1)));
+        log.info("Drained {} WebSocket sessions in {} ms, {} with unwritten frames",
+                schedule.size(), ticker.currentTimeMillis() - start, schedule.size() - flushed);
+    }
+
+    private boolean waitForFlush(String sessionId, long until) {
+        while (outboundSessionRegistry.getDepth(sessionId) > 0) {
+            if (ticker.currentTimeMillis() >= until || !sleepUntil(Math.min(ticker.currentTimeMillis() + POLL_MS, until))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sleepUntil(long time) {
+        long delay = time - ticker.currentTimeMillis();
+        if (delay <= 0) {
+            return true;
+        }
+        try {
+            ticker.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record ScheduledClose(String sessionId, long at) {
+    }
+
+    // Time source of the drain, replaced in tests so they do not wait out the spread
+    interface Ticker {
+        Ticker SYSTEM = new Ticker() {
+            @Override
+            public long currentTimeMillis() {
+                return System.currentTimeMillis();
+            }
+
+            @Override
+            public void sleep(long millis) throws InterruptedException {
+                Thread.sleep(millis);
+            }
+        };
+
+        long currentTimeMillis();
+
+        void sleep(long millis) throws InterruptedException;
+    }
+}
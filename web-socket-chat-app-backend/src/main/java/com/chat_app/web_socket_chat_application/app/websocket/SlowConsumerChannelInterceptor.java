@@ -0,0 +1,128 @@
+package com.chat_app.web_socket_chat_application.app.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the slow-consumer policy on the client outbound channel. As a session's pending
+ * frame count grows it first loses ephemeral events, then receives only a small notification
+ * in place of each message body, and finally gets disconnected with a resume hint.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlowConsumerChannelInterceptor implements ChannelInterceptor {
+
+    /** Native STOMP header publishers can set on events that are safe to drop. */
+    public static final String EPHEMERAL_HEADER = "ephemeral";
+    public static final String NOTIFICATION_ONLY_HEADER = "notification-only";
+
+    private final OutboundSessionRegistry registry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${chat.websocket.slow-consumer.ephemeral-destinations:/topic/typing,/topic/presence}")
+    private List<String> ephemeralDestinations;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null) {
+            return message;
+        }
+
+        boolean isMessageFrame = SimpMessageType.MESSAGE.equals(
+                SimpMessageHeaderAccessor.getMessageType(message.getHeaders()));
+
+        Message<?> outbound = message;
+        switch (registry.levelFor(sessionId)) {
+            case DISCONNECT -> {
+                registry.disconnectSlowConsumer(sessionId);
+                return null;
+            }
+            case NOTIFICATION_ONLY -> {
+                if (isMessageFrame && isEphemeral(message)) {
+                    registry.recordDroppedEphemeral();
+                    return null;
+                }
+                if (isMessageFrame) {
+                    registry.recordDowngraded();
+                    outbound = toNotification(message);
+                }
+            }
+            case DROP_EPHEMERAL -> {
+                if (isMessageFrame && isEphemeral(message)) {
+                    registry.recordDroppedEphemeral();
+                    return null;
+                }
+            }
+            default -> {
+            }
+        }
+
+        registry.onEnqueued(sessionId);
+        return outbound;
+    }
+
+    private boolean isEphemeral(Message<?> message) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        if ("true".equals(accessor.getFirstNativeHeader(EPHEMERAL_HEADER))) {
+            return true;
+        }
+        String destination = accessor.getDestination();
+        return destination != null && ephemeralDestinations.stream().anyMatch(destination::startsWith);
+    }
+
+    /**
+     * Replace the message body with a compact notification carrying the message and conversation
+     * ids. The client is expected to fetch the full message over REST once it has caught up.
+     */
+    private Message<byte[]> toNotification(Message<?> message) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        accessor.setNativeHeader(NOTIFICATION_ONLY_HEADER, "true");
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+
+        JsonNode original = readPayload(message.getPayload());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("type", "NOTIFICATION");
+        body.put("destination", accessor.getDestination());
+        body.put("messageId", original.path("id").textValue());
+        body.put("conversationId", original.path("conversationId").textValue());
+        try {
+            return MessageBuilder.createMessage(objectMapper.writeValueAsBytes(body), accessor.getMessageHeaders());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write slow-consumer notification", e);
+        }
+    }
+
+    // Bodies that are not JSON objects yield a notification without ids
+    private JsonNode readPayload(Object payload) {
+        try {
+            if (payload instanceof byte[] bytes) {
+                return objectMapper.readTree(bytes);
+            }
+            if (payload instanceof String text) {
+                return objectMapper.readTree(text);
+            }
+        } catch (IOException e) {
+            // Fall through
+        }
+        return MissingNode.getInstance();
+    }
+}
@@ -0,0 +1,12 @@
+package com.chat_app.web_socket_chat_application.app.websocket;
+
+/**
+ * Escalation steps applied to a WebSocket session whose outbound queue keeps growing.
+ * Each level includes the restrictions of the levels before it.
+ */
+public enum SlowConsumerLevel {
+    NORMAL,
+    DROP_EPHEMERAL,
+    NOTIFICATION_ONLY,
+    DISCONNECT
+}
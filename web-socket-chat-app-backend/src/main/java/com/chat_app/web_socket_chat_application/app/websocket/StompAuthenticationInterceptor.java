@@ -0,0 +1,103 @@
+package com.chat_app.web_socket_chat_application.app.websocket;
+
+import com.chat_app.web_socket_chat_application.domain.projection.UserName;
+import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * Authenticates STOMP sessions. The bearer token in the CONNECT frame's {@code Authorization}
+ * header is verified once and the resulting {@link StompPrincipal} is bound to the session; the
+ * WebSocket handler then attaches it to every later frame. SEND and SUBSCRIBE frames only need
+ * that principal, so there is no signature check per message. A session may only subscribe to
+ * its own {@code /queue/user.{id}.*} queues under {@code /queue/}, and never with a wildcard:
+ * the simple broker matches destinations as Ant patterns, so {@code /queue/**} would receive
+ * every user's private queue.
+ */
+@Component
+@Slf4j
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String QUEUE_PREFIX = "/queue/";
+    private static final String USER_QUEUE_PREFIX = "/queue/user.";
+    // Ant pattern characters for the simple broker, plus the AMQP topic wildcards for the relay
+    private static final String WILDCARDS = "*?{}#";
+
+    private final JwtDecoder jwtDecoder;
+    private final UserRepository userRepository;
+
+    public StompAuthenticationInterceptor(JwtDecoder jwtDecoder, UserRepository userRepository) {
+        this.jwtDecoder = jwtDecoder;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        switch (accessor.getCommand()) {
+            case CONNECT, STOMP -> accessor.setUser(authenticate(accessor));
+            case SEND -> requirePrincipal(accessor.getUser());
+            case SUBSCRIBE -> checkSubscription(requirePrincipal(accessor.getUser()), accessor.getDestination());
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    private StompPrincipal authenticate(StompHeaderAccessor accessor) {
+        String header = accessor.getFirstNativeHeader(AUTHORIZATION_HEADER);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            throw new AccessDeniedException("Missing bearer token on STOMP CONNECT");
+        }
+
+        Jwt jwt;
+        try {
+            jwt = jwtDecoder.decode(header.substring(BEARER_PREFIX.length()).trim());
+        } catch (JwtException e) {
+            log.debug("Rejected STOMP CONNECT for session {}: {}", accessor.getSessionId(), e.getMessage());
+            throw new AccessDeniedException("Invalid bearer token on STOMP CONNECT");
+        }
+
+        UserName user = userRepository.findProjectedByPhoneNumber(jwt.getSubject(), UserName.class);
+        if (user == null) {
+            throw new AccessDeniedException("Unknown user on STOMP CONNECT");
+        }
+        return new StompPrincipal(user.id(), jwt.getSubject(), jwt.getExpiresAt());
+    }
+
+    private StompPrincipal requirePrincipal(Principal user) {
+        if (!(user instanceof StompPrincipal principal)) {
+            throw new AccessDeniedException("STOMP session is not authenticated");
+        }
+        if (principal.isExpired()) {
+            throw new AccessDeniedException("STOMP session token has expired");
+        }
+        return principal;
+    }
+
+    private void checkSubscription(StompPrincipal principal, String destination) {
+        if (destination == null || destination.chars().anyMatch(c -> WILDCARDS.indexOf(c) >= 0)) {
+            throw new AccessDeniedException("Cannot subscribe to " + destination);
+        }
+        if (destination.startsWith(QUEUE_PREFIX) && !destination.startsWith(USER_QUEUE_PREFIX + principal.userId() + ".")) {
+            throw new AccessDeniedException("Cannot subscribe to " + destination);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.chat_app.web_socket_chat_application.app.websocket;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Identity bound to a STOMP session at CONNECT. The name is the user id, which is what message
+ * payloads and the per-user queues refer to.
+ */
+public record StompPrincipal(String userId, String phoneNumber, Instant expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return userId;
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && Instant.now().isAfter(expiresAt);
+    }
+}
@@ -0,0 +1,64 @@
+package com.chat_app.web_socket_chat_application.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.logging.LoggingApplicationListener;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves the appenders Boot configured on the root logger behind logback {@link AsyncAppender}s,
+ * so request and message threads only enqueue events and never wait on console or file I/O.
+ * When the queue runs low, INFO and lower events are dropped, and once it is full every event
+ * is dropped rather than blocking the caller. Registered in {@code main}, it runs right after
+ * Boot's own logging initialization, so {@code logging.*} settings keep working unchanged.
+ * Turned off with {@code chat.logging.async.enabled=false}.
+ */
+public class AsyncLoggingInitializer implements ApplicationListener<ApplicationEnvironmentPreparedEvent>, Ordered {
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        Environment environment = event.getEnvironment();
+        if (!environment.getProperty("chat.logging.async.enabled", Boolean.class, true)
+                || !(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        int queueSize = environment.getProperty("chat.logging.async.queue-size", Integer.class, 8192);
+        // Remaining capacity below which INFO, DEBUG and TRACE events are discarded
+        int discardingThreshold = environment.getProperty("chat.logging.async.discarding-threshold", Integer.class, queueSize / 5);
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        root.iteratorForAppenders().forEachRemaining(appenders::add);
+        for (Appender<ILoggingEvent> appender : appenders) {
+            if (appender instanceof AsyncAppender) {
+                continue;
+            }
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC_" + appender.getName());
+            async.setQueueSize(queueSize);
+            async.setDiscardingThreshold(discardingThreshold);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(appender);
+            async.start();
+            root.detachAppender(appender);
+            root.addAppender(async);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return LoggingApplicationListener.DEFAULT_ORDER + 1;
+    }
+}
@@ -0,0 +1,28 @@
+package com.chat_app.web_socket_chat_application.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Multipart limits for attachment uploads. Parts are always spooled to disk (threshold 0) so an
+ * upload never sits on the heap while it is copied to the blob store.
+ */
+@Configuration
+public class AttachmentConfig {
+
+    @Value("${chat.attachments.max-size:100MB}")
+    private DataSize maxSize;
+
+    @Bean
+    public MultipartConfigElement multipartConfigElement() {
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setMaxFileSize(maxSize);
+        factory.setMaxRequestSize(maxSize);
+        factory.setFileSizeThreshold(DataSize.ofBytes(0));
+        return factory.createMultipartConfig();
+    }
+}
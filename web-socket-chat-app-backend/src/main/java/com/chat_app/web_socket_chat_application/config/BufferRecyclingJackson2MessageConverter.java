@@ -0,0 +1,36 @@
+package com.chat_app.web_socket_chat_application.config;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+
+import java.io.IOException;
+
+/**
+ * Writes STOMP payloads with {@link ObjectMapper#writeValueAsBytes}, which fills buffers taken
+ * from Jackson's per-thread recycler pool, instead of a fresh growing
+ * {@code ByteArrayOutputStream} per frame. JSON views and non UTF-8 content types are left to
+ * the default implementation.
+ */
+public class BufferRecyclingJackson2MessageConverter extends MappingJackson2MessageConverter {
+
+    public BufferRecyclingJackson2MessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        if (byte[].class != getSerializedPayloadClass()
+                || getSerializationView(conversionHint) != null
+                || getJsonEncoding(getMimeType(headers)) != JsonEncoding.UTF8) {
+            return super.convertToInternal(payload, headers, conversionHint);
+        }
+        try {
+            return getObjectMapper().writeValueAsBytes(payload);
+        } catch (IOException e) {
+            throw new MessageConversionException("Could not write JSON: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.chat_app.web_socket_chat_application.config;
+
+import com.chat_app.web_socket_chat_application.app.cache.CacheInvalidationBus;
+import com.chat_app.web_socket_chat_application.app.cache.CacheNames;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Node-local caching of users and conversations, turned on with {@code chat.cache.enabled=true}.
+ * Every replica binds its own auto-deleted queue to a fanout exchange, so an invalidation
+ * published by one replica reaches all the others. Each cache holds at most
+ * {@code chat.cache.max-size} entries and drops them {@code chat.cache.ttl-ms} after they were
+ * written, which also bounds how long an entry can outlive a lost invalidation.
+ */
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(name = "chat.cache.enabled", havingValue = "true")
+public class CacheConfig {
+
+    @Value("${chat.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${chat.cache.ttl-ms:600000}")
+    private long ttlMs;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheNames.USERS, CacheNames.CONVERSATIONS);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats());
+        return cacheManager;
+    }
+
+    @Bean
+    public FanoutExchange cacheInvalidationExchange() {
+        return new FanoutExchange(CacheInvalidationBus.EXCHANGE, true, false);
+    }
+
+    @Bean
+    public Queue cacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding cacheInvalidationBinding(Queue cacheInvalidationQueue, FanoutExchange cacheInvalidationExchange) {
+        return BindingBuilder.bind(cacheInvalidationQueue).to(cacheInvalidationExchange);
+    }
+
+    @Bean
+    public MessageConverter amqpMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+}
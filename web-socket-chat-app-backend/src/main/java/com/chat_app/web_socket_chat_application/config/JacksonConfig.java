@@ -0,0 +1,21 @@
+package com.chat_app.web_socket_chat_application.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tuning for the application's single {@code ObjectMapper}, the one Spring Boot builds for MVC
+ * and which {@link WebSocketConfig} also hands to the STOMP converter. Blackbird replaces the
+ * reflective property accessors with generated lambdas.
+ */
+@Configuration
+public class JacksonConfig {
+
+    // Static so that registering the module does not depend on this configuration instance
+    @Bean
+    public static Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,54 @@
+package com.chat_app.web_socket_chat_application.config;
+
+import com.chat_app.web_socket_chat_application.api.dto.ConversationDTO;
+import com.chat_app.web_socket_chat_application.api.response.ApiResponse;
+import com.chat_app.web_socket_chat_application.api.response.SuccessResponse;
+import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Builds the serializers and deserializers of the hottest payloads while the context starts,
+ * so the first requests and STOMP frames do not pay for introspection and code generation.
+ */
+@Component
+@Slf4j
+public class JsonWarmup {
+
+    private final ObjectMapper objectMapper;
+
+    public JsonWarmup(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        ChatMessage message = ChatMessage.builder()
+                .id("warmup")
+                .conversationId("warmup")
+                .senderId("warmup")
+                .receiverId("warmup")
+                .content("warmup")
+                .timestamp("1970-01-01T00:00:00.000Z")
+                .sender(new ChatMessage.SenderInfo("warmup", "warmup"))
+                .attachment(new ChatMessage.AttachmentInfo("warmup", "warmup", "text/plain", 0))
+                .build();
+        ConversationDTO conversation = ConversationDTO.builder().id("warmup").displayName("warmup").build();
+
+        try {
+            byte[] encodedMessage = objectMapper.writeValueAsBytes(message);
+            objectMapper.readValue(encodedMessage, ChatMessage.class);
+            objectMapper.writeValueAsBytes(conversation);
+            objectMapper.writeValueAsBytes(new SuccessResponse<>(List.of(message)));
+            objectMapper.writeValueAsBytes(new SuccessResponse<>(List.of(conversation)));
+            objectMapper.writeValueAsBytes(new ApiResponse<>(conversation));
+        } catch (IOException e) {
+            log.warn("JSON warm-up failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.chat_app.web_socket_chat_application.config;
+
+import com.chat_app.web_socket_chat_application.app.messaging.NodeRouter;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * AMQP topology for {@code chat.broker.mode=node-routing}: one durable topic exchange shared
+ * by all replicas and one exclusive, auto-deleted queue per replica. Bindings are added at
+ * runtime for destinations that have subscribers on the replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "chat.broker.mode", havingValue = "node-routing")
+public class NodeRoutingConfig {
+
+    @Bean
+    public TopicExchange nodeRoutingExchange() {
+        return new TopicExchange(NodeRouter.EXCHANGE, true, false);
+    }
+
+    @Bean
+    public Queue nodeDeliveryQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("chat.delivery.node."));
+    }
+}
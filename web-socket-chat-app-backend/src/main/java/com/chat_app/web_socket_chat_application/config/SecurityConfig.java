@@ -32,12 +32,12 @@ public class SecurityConfig {
     private NimbusJwtDecoder nimbusJwtDecoder = null;
 
     private final String[] PUBLIC_ENDPOINTS = {
-            "/auth/register", "/auth/login", "/auth/reset-password", "/chat/**", "/ws/**", "/app/**", "/user/**", "/actuator/health",
+            "/auth/register", "/auth/login", "/auth/reset-password", "/auth/refresh", "/auth/logout", "/chat/**", "/ws/**", "/app/**", "/user/**", "/actuator/health", "/actuator/health/**",
     };
 
     @Bean
     public WebSecurityCustomizer webSecurityCustomizer() {
-        return (web) -> web.ignoring().requestMatchers("/actuator/health");
+        return (web) -> web.ignoring().requestMatchers("/actuator/health", "/actuator/health/**");
     }
 
 
@@ -61,7 +61,7 @@ public class SecurityConfig {
                 .oauth2ResourceServer(oauth -> oauth
                         .bearerTokenResolver(request -> {
                             // if it’s a health check, skip token resolution
-                            if (request.getServletPath().equals("/actuator/health")) {
+                            if (request.getServletPath().startsWith("/actuator/health")) {
                                 return null;
                             }
                             return new DefaultBearerTokenResolver().resolve(request);
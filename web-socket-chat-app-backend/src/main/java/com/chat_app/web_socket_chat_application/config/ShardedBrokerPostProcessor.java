@@ -0,0 +1,33 @@
+package com.chat_app.web_socket_chat_application.config;
+
+import com.chat_app.web_socket_chat_application.app.messaging.ShardedSubscriptionRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Swaps the in-process broker's subscription registry for a sharded one whenever the app runs
+ * with an in-process broker ({@code chat.broker.mode=simple} or {@code node-routing}). The
+ * broker registration API has no hook for a custom registry, so it is set on the handler
+ * before it starts. In relay mode there is no such handler and this does nothing.
+ */
+@Component
+@Slf4j
+public class ShardedBrokerPostProcessor implements BeanPostProcessor {
+
+    // 0 means one shard per available processor
+    @Value("${chat.broker.simple.shards:0}")
+    private int shards;
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof SimpleBrokerMessageHandler handler) {
+            int shardCount = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+            handler.setSubscriptionRegistry(new ShardedSubscriptionRegistry(shardCount));
+            log.info("In-process broker using {} subscription registry shards", shardCount);
+        }
+        return bean;
+    }
+}
@@ -1,16 +1,24 @@
 package com.chat_app.web_socket_chat_application.config;
 
+import com.chat_app.web_socket_chat_application.app.websocket.BackpressureWebSocketHandlerDecorator;
+import com.chat_app.web_socket_chat_application.app.websocket.LocalSubscriptionRegistry;
+import com.chat_app.web_socket_chat_application.app.websocket.OutboundSessionRegistry;
+import com.chat_app.web_socket_chat_application.app.websocket.SessionDrainer;
+import com.chat_app.web_socket_chat_application.app.websocket.SlowConsumerChannelInterceptor;
+import com.chat_app.web_socket_chat_application.app.websocket.StompAuthenticationInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.converter.DefaultContentTypeResolver;
-import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 import java.util.List;
 
@@ -18,22 +26,64 @@ import java.util.List;
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
-    @Value("${spring.rabbitmq.host}")
+    // "relay" forwards to the RabbitMQ STOMP relay, "simple" runs a sharded in-process broker,
+    // "node-routing" runs the in-process broker and routes between replicas over AMQP
+    @Value("${chat.broker.mode:relay}")
+    private String brokerMode;
+
+    @Value("${spring.rabbitmq.host:localhost}")
     private String rabbitmqHost;
 
-    @Value("${spring.rabbitmq.stomp.port}")
+    @Value("${spring.rabbitmq.stomp.port:61613}")
     private int rabbitmqStompPort;
 
-    @Value("${spring.rabbitmq.username}")
+    @Value("${spring.rabbitmq.username:guest}")
     private String rabbitmqUsername;
 
-    @Value("${spring.rabbitmq.password}")
+    @Value("${spring.rabbitmq.password:guest}")
     private String rabbitmqPassword;
 
+    // Time allowed for a single send to a client before the session is considered stalled
+    @Value("${chat.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    // Bytes buffered per session while a send is in progress before the session is closed
+    @Value("${chat.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${chat.websocket.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Autowired
+    private OutboundSessionRegistry outboundSessionRegistry;
+
+    @Autowired
+    private SlowConsumerChannelInterceptor slowConsumerChannelInterceptor;
+
+    @Autowired
+    private LocalSubscriptionRegistry localSubscriptionRegistry;
+
+    @Autowired
+    private StompAuthenticationInterceptor stompAuthenticationInterceptor;
+
+    @Autowired
+    private SessionDrainer sessionDrainer;
+
+    // The Boot-managed mapper, so STOMP and REST serialize identically
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.setApplicationDestinationPrefixes("/app")
-                .enableStompBrokerRelay("/topic", "/queue")
+        registry.setApplicationDestinationPrefixes("/app");
+
+        if ("simple".equalsIgnoreCase(brokerMode) || "node-routing".equalsIgnoreCase(brokerMode)) {
+            // Same /topic and /queue destinations, served from memory on this node
+            registry.enableSimpleBroker("/topic", "/queue");
+            return;
+        }
+
+        registry.enableStompBrokerRelay("/topic", "/queue")
                 .setRelayHost(rabbitmqHost)
                 .setRelayPort(rabbitmqStompPort)
                 .setClientLogin(rabbitmqUsername)
@@ -46,15 +96,35 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/chat")
                 .setAllowedOrigins("http://localhost:5173", "http://localhost:3000", "http://localhost", "http://34.13.77.103")
+                // Refuses new sessions once shutdown has started
+                .addInterceptors(sessionDrainer)
                 .withSockJS();
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(handler -> new BackpressureWebSocketHandlerDecorator(handler, outboundSessionRegistry));
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Authentication runs first so that refused subscriptions are never recorded
+        registration.interceptors(stompAuthenticationInterceptor, localSubscriptionRegistry);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(slowConsumerChannelInterceptor);
+    }
+
     @Override
     public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
         DefaultContentTypeResolver resolver = new DefaultContentTypeResolver();
         resolver.setDefaultMimeType(MimeTypeUtils.APPLICATION_JSON);
-        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
-        converter.setObjectMapper(new ObjectMapper());
+        BufferRecyclingJackson2MessageConverter converter = new BufferRecyclingJackson2MessageConverter(objectMapper);
         converter.setContentTypeResolver(resolver);
         messageConverters.add(converter);
         return false;
@@ -0,0 +1,24 @@
+package com.chat_app.web_socket_chat_application.domain.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Metadata of an uploaded file. The contents live in the blob store under {@code storageKey}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Document(collection = "attachments")
+public class Attachment {
+    @Id
+    private String id;
+    private String uploaderId;
+    private String fileName;
+    private String contentType;
+    private long size;
+    private String storageKey;
+    private String createdAt;
+}
@@ -1,8 +1,11 @@
 package com.chat_app.web_socket_chat_application.domain.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
@@ -10,15 +13,33 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @NoArgsConstructor
 @Builder
 @Document(collection = "chat_messages")
+@CompoundIndexes({
+        @CompoundIndex(name = "sender_client_message_id", def = "{'senderId': 1, 'clientMessageId': 1}", unique = true,
+                partialFilter = "{'clientMessageId': {$exists: true}}"),
+        @CompoundIndex(name = "delivery_pending", def = "{'deliveryPending': 1, '_id': 1}",
+                partialFilter = "{'deliveryPending': true}"),
+        @CompoundIndex(name = "conversation_timestamp", def = "{'conversationId': 1, 'timestamp': 1}"),
+        @CompoundIndex(name = "conversation_receiver_unread", def = "{'conversationId': 1, 'receiverId': 1}",
+                partialFilter = "{'read': false}"),
+        // Nested "id" is stored as "_id"; used to authorize attachment downloads
+        @CompoundIndex(name = "attachment_id", def = "{'attachment._id': 1}", sparse = true)
+})
 public class ChatMessage {
     @Id
     private String id;
+    // Optional id chosen by the client so a retried send is stored only once
+    private String clientMessageId;
     private String conversationId;  
     private String senderId;        
     private String receiverId;      
     private String content;         
     private String timestamp;         
     private boolean read; 
+    // Reference only; the file itself is served from /attachments/{id}
+    private AttachmentInfo attachment;
+    // Outbox marker, written with the message and removed once it has been published
+    @JsonIgnore
+    private Boolean deliveryPending;
 
     @Transient
     private SenderInfo sender;
@@ -30,4 +51,14 @@ public class ChatMessage {
         private String id;
         private String name;
     }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class AttachmentInfo {
+        private String id;
+        private String fileName;
+        private String contentType;
+        private long size;
+    }
 }
@@ -5,14 +5,23 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.HashMap;
+import java.util.Map;
 
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "conversations")
+@CompoundIndexes({
+        @CompoundIndex(name = "sender_receiver", def = "{'senderId': 1, 'receiverId': 1}"),
+        @CompoundIndex(name = "receiver_last_message_time", def = "{'receiverId': 1, 'lastMessageTime': -1}")
+})
 public class Conversation {
     @Id
     private String id;
@@ -20,7 +29,8 @@ public class Conversation {
     private String name;
     private String lastMessage;
     private String lastMessageTime;
-    private int unreadCount;
+    // userId -> messages that participant has not read yet
+    private Map<String, Integer> unreadCounts = new HashMap<>();
     private boolean online;
     private String avatarColor;
     private String category;
@@ -28,6 +38,17 @@ public class Conversation {
     private String senderId;
     private String receiverId;
 
+    // Days to keep messages for; null falls back to chat.retention.max-age-days
+    @Indexed(name = "retention_days", sparse = true)
+    private Integer retentionDays;
+
+    // Incremented with $inc whenever the conversation or its message history changes
+    private long revision;
+
+    public int getUnreadCount(String userId) {
+        return unreadCounts == null ? 0 : unreadCounts.getOrDefault(userId, 0);
+    }
+
     public String getChatId() {
         return senderId + "_" + receiverId;
     }
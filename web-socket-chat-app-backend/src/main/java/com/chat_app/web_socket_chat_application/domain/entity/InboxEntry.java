@@ -0,0 +1,42 @@
+package com.chat_app.web_socket_chat_application.domain.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * One conversation as it appears in one participant's inbox, kept up to date on every write to
+ * the conversation. The id is {@code <conversationId>_<userId>}, so each conversation has
+ * exactly two entries and an inbox is a single range scan over {@code user_inbox}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Document(collection = "inbox_entries")
+@CompoundIndex(name = "user_inbox", def = "{'userId': 1, 'lastMessageTime': -1}")
+public class InboxEntry {
+    @Id
+    private String id;
+    private String userId;
+    @Indexed(name = "conversation_id")
+    private String conversationId;
+    @Indexed(name = "counterpart_id")
+    private String counterpartId;
+    private String counterpartName;
+    private String lastMessage;
+    private String lastMessageTime;
+    private int unreadCount;
+    private boolean online;
+    private String avatarColor;
+    private String category;
+    // Participants as stored on the conversation
+    private String senderId;
+    private String receiverId;
+
+    public static String idOf(String conversationId, String userId) {
+        return conversationId + "_" + userId;
+    }
+}
@@ -0,0 +1,27 @@
+package com.chat_app.web_socket_chat_application.domain.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Archived messages of one conversation, packed together and compressed. Buckets cover
+ * consecutive, non-overlapping time ranges and hold at most {@code chat.archive.bucket-size}
+ * messages.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Document(collection = "chat_message_buckets")
+@CompoundIndex(name = "conversation_first_timestamp", def = "{'conversationId': 1, 'firstTimestamp': 1}")
+public class MessageBucket {
+    @Id
+    private String id;
+    private String conversationId;
+    private String firstTimestamp;
+    private String lastTimestamp;
+    private int count;
+    private byte[] messages;
+}
@@ -0,0 +1,31 @@
+package com.chat_app.web_socket_chat_application.domain.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * One refresh token of a login session. Only a SHA-256 digest of the token secret is stored.
+ * Every refresh replaces the token with a new one in the same {@code familyId}; {@code rotatedAt}
+ * marks tokens that have already been exchanged so that a replayed token can be detected.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+    @Id
+    private String id;
+    @Indexed
+    private String userId;
+    @Indexed
+    private String familyId;
+    private byte[] secretHash;
+    @Indexed(expireAfter = "0s")
+    private Date expiresAt;
+    private Date rotatedAt;
+}
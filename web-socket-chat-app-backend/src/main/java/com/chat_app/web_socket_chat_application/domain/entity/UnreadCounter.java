@@ -0,0 +1,20 @@
+package com.chat_app.web_socket_chat_application.domain.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Number of unread messages of a user across all conversations, kept next to the
+ * per-conversation counters so that the badge is a single document read.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "unread_counters")
+public class UnreadCounter {
+    // The user id
+    @Id
+    private String id;
+    private long total;
+}
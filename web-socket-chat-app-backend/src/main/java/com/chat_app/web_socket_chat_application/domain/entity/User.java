@@ -3,6 +3,7 @@ package com.chat_app.web_socket_chat_application.domain.entity;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Getter
@@ -12,7 +13,9 @@ public class User {
     @Id
     private String id;
 
+    @Indexed(name = "name")
     private String name;
+    @Indexed(name = "phone_number", unique = true)
     private String phoneNumber;
     private String password;
     private String status;
@@ -0,0 +1,8 @@
+package com.chat_app.web_socket_chat_application.domain.projection;
+
+/**
+ * Read-only view of a user for showing who someone is: sender info, conversation names.
+ * Queries returning it load only {@code _id} and {@code name}.
+ */
+public record UserName(String id, String name) {
+}
@@ -0,0 +1,7 @@
+package com.chat_app.web_socket_chat_application.domain.projection;
+
+/**
+ * Read-only view of a user as returned by the user API: everything except the password hash.
+ */
+public record UserProfile(String id, String name, String phoneNumber, String status) {
+}
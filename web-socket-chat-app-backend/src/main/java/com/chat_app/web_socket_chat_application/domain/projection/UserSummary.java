@@ -0,0 +1,8 @@
+package com.chat_app.web_socket_chat_application.domain.projection;
+
+/**
+ * Read-only view of a user with presence. Queries returning it load only {@code _id},
+ * {@code name} and {@code status}.
+ */
+public record UserSummary(String id, String name, String status) {
+}
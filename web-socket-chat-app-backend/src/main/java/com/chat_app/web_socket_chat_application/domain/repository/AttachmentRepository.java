@@ -0,0 +1,7 @@
+package com.chat_app.web_socket_chat_application.domain.repository;
+
+import com.chat_app.web_socket_chat_application.domain.entity.Attachment;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface AttachmentRepository extends MongoRepository<Attachment, String> {
+}
@@ -1,12 +1,15 @@
 package com.chat_app.web_socket_chat_application.domain.repository;
 
 import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ChatMessageRepository extends MongoRepository<ChatMessage, String> {
     List<ChatMessage> findByConversationId(String conversationId);
-    List<ChatMessage> findBySenderIdAndReceiverId(String senderId, String receiverId);
+    Optional<ChatMessage> findBySenderIdAndClientMessageId(String senderId, String clientMessageId);
     List<ChatMessage> findByConversationIdAndReceiverIdAndReadFalse(String conversationId, String receiverId);
+    List<ChatMessage> findByTimestampLessThanAndConversationIdNotNullAndReadTrueOrderByConversationIdAscTimestampAsc(String timestamp, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.chat_app.web_socket_chat_application.domain.repository;
+
+import com.chat_app.web_socket_chat_application.domain.entity.InboxEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface InboxEntryRepository extends MongoRepository<InboxEntry, String> {
+    List<InboxEntry> findByUserIdOrderByLastMessageTimeDesc(String userId);
+    void deleteByConversationId(String conversationId);
+}
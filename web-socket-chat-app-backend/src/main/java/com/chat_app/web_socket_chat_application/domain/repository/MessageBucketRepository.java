@@ -0,0 +1,12 @@
+package com.chat_app.web_socket_chat_application.domain.repository;
+
+import com.chat_app.web_socket_chat_application.domain.entity.MessageBucket;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface MessageBucketRepository extends MongoRepository<MessageBucket, String> {
+    List<MessageBucket> findByConversationIdOrderByFirstTimestampAsc(String conversationId);
+    Optional<MessageBucket> findFirstByConversationIdOrderByFirstTimestampDesc(String conversationId);
+}
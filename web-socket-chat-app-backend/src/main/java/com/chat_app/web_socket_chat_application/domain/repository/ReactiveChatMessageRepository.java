@@ -0,0 +1,9 @@
+package com.chat_app.web_socket_chat_application.domain.repository;
+
+import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveChatMessageRepository extends ReactiveMongoRepository<ChatMessage, String> {
+    Flux<ChatMessage> findByConversationIdOrderByTimestampAsc(String conversationId);
+}
@@ -0,0 +1,11 @@
+package com.chat_app.web_socket_chat_application.domain.repository;
+
+import com.chat_app.web_socket_chat_application.domain.entity.Conversation;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveConversationRepository extends ReactiveMongoRepository<Conversation, String> {
+    Mono<Conversation> findBySenderIdAndReceiverId(String senderId, String receiverId);
+    Flux<Conversation> findBySenderIdOrReceiverIdOrderByLastMessageTimeDesc(String senderId, String receiverId);
+}
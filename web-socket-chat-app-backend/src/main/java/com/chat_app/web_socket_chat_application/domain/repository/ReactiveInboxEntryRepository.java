@@ -0,0 +1,9 @@
+package com.chat_app.web_socket_chat_application.domain.repository;
+
+import com.chat_app.web_socket_chat_application.domain.entity.InboxEntry;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveInboxEntryRepository extends ReactiveMongoRepository<InboxEntry, String> {
+    Flux<InboxEntry> findByUserIdOrderByLastMessageTimeDesc(String userId);
+}
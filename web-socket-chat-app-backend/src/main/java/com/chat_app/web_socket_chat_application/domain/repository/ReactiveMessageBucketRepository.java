@@ -0,0 +1,9 @@
+package com.chat_app.web_socket_chat_application.domain.repository;
+
+import com.chat_app.web_socket_chat_application.domain.entity.MessageBucket;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveMessageBucketRepository extends ReactiveMongoRepository<MessageBucket, String> {
+    Flux<MessageBucket> findByConversationIdOrderByFirstTimestampAsc(String conversationId);
+}
@@ -0,0 +1,19 @@
+package com.chat_app.web_socket_chat_application.domain.repository;
+
+import com.chat_app.web_socket_chat_application.domain.entity.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+    Mono<User> findByPhoneNumber(String phoneNumber);
+    Flux<User> findByNameContainingIgnoreCase(String name);
+
+    // Field-limited reads into the views in domain.projection, as in UserRepository
+    <T> Mono<T> findProjectedById(String id, Class<T> type);
+    <T> Flux<T> findProjectedByIdIn(Collection<String> ids, Class<T> type);
+    <T> Mono<T> findProjectedByPhoneNumber(String phoneNumber, Class<T> type);
+    <T> Flux<T> findProjectedByNameContainingIgnoreCase(String name, Class<T> type);
+}
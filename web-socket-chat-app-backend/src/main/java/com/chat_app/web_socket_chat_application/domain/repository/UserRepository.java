@@ -3,11 +3,23 @@ package com.chat_app.web_socket_chat_application.domain.repository;
 import com.chat_app.web_socket_chat_application.domain.entity.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-
+/**
+ * The {@code findProjected*} methods return one of the read-only views in
+ * {@code domain.projection} and fetch only that view's fields. The full {@link User}, with its
+ * password hash, is for authentication and account writes.
+ */
 public interface UserRepository extends MongoRepository<User, String> {
     User findByName(String name);
     User findByPhoneNumber(String phoneNumber);
     List<User> findByNameContainingIgnoreCase(String name);
+
+    <T> Optional<T> findProjectedById(String id, Class<T> type);
+    <T> List<T> findProjectedByIdIn(Collection<String> ids, Class<T> type);
+    <T> T findProjectedByPhoneNumber(String phoneNumber, Class<T> type);
+    <T> List<T> findProjectedByNameContainingIgnoreCase(String name, Class<T> type);
+    <T> List<T> findAllProjectedBy(Class<T> type);
 }
@@ -3,6 +3,7 @@ package com.chat_app.web_socket_chat_application.mapper;
 import com.chat_app.web_socket_chat_application.api.dto.UserDTO;
 import com.chat_app.web_socket_chat_application.api.dto.UserResponseDTO;
 import com.chat_app.web_socket_chat_application.domain.entity.User;
+import com.chat_app.web_socket_chat_application.domain.projection.UserProfile;
 import org.mapstruct.Mapper;
 
 import java.util.List;
@@ -11,6 +12,6 @@ import java.util.List;
 public interface UserMapper {
     User toUser(UserDTO userDTO);
 
-    UserResponseDTO toUserResponseDTO(User user);
-    List<UserResponseDTO> toUserResponseDTOList(List<User> users);
+    UserResponseDTO toUserResponseDTO(UserProfile user);
+    List<UserResponseDTO> toUserResponseDTOList(List<UserProfile> users);
 }
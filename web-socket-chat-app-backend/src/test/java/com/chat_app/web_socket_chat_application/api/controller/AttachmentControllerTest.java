@@ -0,0 +1,226 @@
+package com.chat_app.web_socket_chat_application.api.controller;
+
+import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
+import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionAdviceHandle;
+import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionCode;
+import com.chat_app.web_socket_chat_application.app.service.AttachmentService;
+import com.chat_app.web_socket_chat_application.domain.entity.Attachment;
+import com.chat_app.web_socket_chat_application.domain.projection.UserName;
+import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentControllerTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private AttachmentService attachmentService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private AttachmentController attachmentController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(attachmentController)
+                .setControllerAdvice(new ExceptionAdviceHandle())
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("1234567890", null));
+        lenient().when(userRepository.findProjectedByPhoneNumber("1234567890", UserName.class))
+                .thenReturn(new UserName("user1", "John Doe"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void upload_shouldReturnStoredAttachment() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "notes.txt", "text/plain", CONTENT);
+        when(attachmentService.upload(eq("user1"), any())).thenReturn(createSampleAttachment());
+
+        // Act & Assert
+        mockMvc.perform(multipart("/attachments").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Success"))
+                .andExpect(jsonPath("$.data.id").value("att1"))
+                .andExpect(jsonPath("$.data.size").value(CONTENT.length));
+
+        verify(attachmentService).upload(eq("user1"), any());
+    }
+
+    @Test
+    void upload_shouldTakeUploaderFromTokenNotFromRequest() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "notes.txt", "text/plain", CONTENT);
+        when(attachmentService.upload(eq("user1"), any())).thenReturn(createSampleAttachment());
+
+        // Act
+        mockMvc.perform(multipart("/attachments").file(file).param("uploaderId", "user2"))
+                .andExpect(status().isOk());
+
+        // Assert
+        verify(attachmentService).upload(eq("user1"), any());
+        verify(attachmentService, never()).upload(eq("user2"), any());
+    }
+
+    @Test
+    void upload_withUnknownUser_shouldBeRejected() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "notes.txt", "text/plain", CONTENT);
+        when(userRepository.findProjectedByPhoneNumber("1234567890", UserName.class)).thenReturn(null);
+
+        // Act & Assert
+        mockMvc.perform(multipart("/attachments").file(file))
+                .andExpect(jsonPath("$.code").value(ExceptionCode.UNAUTHORIZED.getCode()));
+
+        verify(attachmentService, never()).upload(any(), any());
+    }
+
+    @Test
+    void download_withoutRange_shouldReturnWholeFile() throws Exception {
+        // Arrange
+        Attachment attachment = createSampleAttachment();
+        when(attachmentService.getAttachmentFor("att1", "user1")).thenReturn(attachment);
+        when(attachmentService.localPath(attachment)).thenReturn(Optional.empty());
+        stubTransfer(attachment);
+
+        // Act & Assert
+        mockMvc.perform(get("/attachments/{id}", "att1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().longValue("Content-Length", CONTENT.length))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andExpect(header().string("Content-Disposition", startsWith("attachment;")))
+                .andExpect(content().bytes(CONTENT));
+
+        verify(attachmentService).transferTo(eq(attachment), eq(0L), eq((long) CONTENT.length), any());
+    }
+
+    @Test
+    void download_ofHtml_shouldNotBeRenderedInline() throws Exception {
+        // Arrange
+        Attachment attachment = createSampleAttachment();
+        attachment.setFileName("page.html");
+        attachment.setContentType("text/html");
+        when(attachmentService.getAttachmentFor("att1", "user1")).thenReturn(attachment);
+        when(attachmentService.localPath(attachment)).thenReturn(Optional.empty());
+        stubTransfer(attachment);
+
+        // Act & Assert
+        mockMvc.perform(get("/attachments/{id}", "att1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andExpect(header().string("Content-Disposition", startsWith("attachment;")));
+    }
+
+    @Test
+    void download_ofImage_shouldBeShownInline() throws Exception {
+        // Arrange
+        Attachment attachment = createSampleAttachment();
+        attachment.setFileName("photo.png");
+        attachment.setContentType("image/png");
+        when(attachmentService.getAttachmentFor("att1", "user1")).thenReturn(attachment);
+        when(attachmentService.localPath(attachment)).thenReturn(Optional.empty());
+        stubTransfer(attachment);
+
+        // Act & Assert
+        mockMvc.perform(get("/attachments/{id}", "att1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andExpect(header().string("Content-Disposition", startsWith("inline;")));
+    }
+
+    @Test
+    void download_byNonParticipant_shouldBeForbidden() throws Exception {
+        // Arrange
+        when(attachmentService.getAttachmentFor("att1", "user1")).thenThrow(new AppException(ExceptionCode.ATTACHMENT_FORBIDDEN));
+
+        // Act & Assert
+        mockMvc.perform(get("/attachments/{id}", "att1"))
+                .andExpect(jsonPath("$.code").value(ExceptionCode.ATTACHMENT_FORBIDDEN.getCode()));
+
+        verify(attachmentService, never()).transferTo(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void download_withRange_shouldReturnPartialContent() throws Exception {
+        // Arrange
+        Attachment attachment = createSampleAttachment();
+        when(attachmentService.getAttachmentFor("att1", "user1")).thenReturn(attachment);
+        when(attachmentService.localPath(attachment)).thenReturn(Optional.empty());
+        stubTransfer(attachment);
+
+        // Act & Assert
+        mockMvc.perform(get("/attachments/{id}", "att1").header("Range", "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void download_withUnsatisfiableRange_shouldReturn416() throws Exception {
+        // Arrange
+        when(attachmentService.getAttachmentFor("att1", "user1")).thenReturn(createSampleAttachment());
+
+        // Act & Assert
+        mockMvc.perform(get("/attachments/{id}", "att1").header("Range", "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */10"));
+
+        verify(attachmentService, never()).transferTo(any(), anyLong(), anyLong(), any());
+    }
+
+    private void stubTransfer(Attachment attachment) throws Exception {
+        doAnswer(invocation -> {
+            long position = invocation.getArgument(1);
+            long count = invocation.getArgument(2);
+            WritableByteChannel target = invocation.getArgument(3);
+            target.write(ByteBuffer.wrap(CONTENT, (int) position, (int) count));
+            return null;
+        }).when(attachmentService).transferTo(eq(attachment), anyLong(), anyLong(), any());
+    }
+
+    private Attachment createSampleAttachment() {
+        return Attachment.builder()
+                .id("att1")
+                .uploaderId("user1")
+                .fileName("notes.txt")
+                .contentType("text/plain")
+                .size(CONTENT.length)
+                .storageKey("key-1")
+                .build();
+    }
+}
@@ -1,11 +1,14 @@
 package com.chat_app.web_socket_chat_application.api.controller;
 
 import com.chat_app.web_socket_chat_application.api.dto.AuthenticationDTO;
+import com.chat_app.web_socket_chat_application.api.dto.RefreshTokenDTO;
 import com.chat_app.web_socket_chat_application.api.dto.ResetPasswordDTO;
 import com.chat_app.web_socket_chat_application.api.dto.UserDTO;
 import com.chat_app.web_socket_chat_application.api.response.ApiResponse;
 import com.chat_app.web_socket_chat_application.api.response.AuthenticationResponse;
+import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
 import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionAdviceHandle;
+import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionCode;
 import com.chat_app.web_socket_chat_application.app.service.AuthenticationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -93,6 +96,82 @@ class AuthenticationControllerTest {
         verify(authenticationService).login(any(AuthenticationDTO.class));
     }
 
+    @Test
+    void login_shouldRejectWhenHashingIsSaturated() throws Exception {
+        // Arrange
+        AuthenticationDTO authDto = new AuthenticationDTO();
+        authDto.setPhoneNumber("1234567890");
+        authDto.setPassword("password123");
+
+        when(authenticationService.login(any(AuthenticationDTO.class)))
+                .thenThrow(new AppException(ExceptionCode.AUTHENTICATION_BUSY));
+
+        // Act & Assert
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(authDto)))
+                .andExpect(jsonPath("$.code").value(ExceptionCode.AUTHENTICATION_BUSY.getCode()))
+                .andExpect(jsonPath("$.message").value(ExceptionCode.AUTHENTICATION_BUSY.getMessage()));
+
+        verify(authenticationService).login(any(AuthenticationDTO.class));
+    }
+
+    @Test
+    void refresh_shouldReturnRotatedTokens() throws Exception {
+        // Arrange
+        RefreshTokenDTO request = new RefreshTokenDTO();
+        request.setRefreshToken("old-refresh-token");
+
+        AuthenticationResponse authResponse = new AuthenticationResponse(
+                "new-jwt-token", "user1", "John Doe", "online", "new-refresh-token"
+        );
+
+        when(authenticationService.refresh(any(RefreshTokenDTO.class))).thenReturn(authResponse);
+
+        // Act & Assert
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.token").value("new-jwt-token"))
+                .andExpect(jsonPath("$.data.refreshToken").value("new-refresh-token"));
+
+        verify(authenticationService).refresh(any(RefreshTokenDTO.class));
+    }
+
+    @Test
+    void refresh_shouldRejectInvalidToken() throws Exception {
+        // Arrange
+        RefreshTokenDTO request = new RefreshTokenDTO();
+        request.setRefreshToken("reused-refresh-token");
+
+        when(authenticationService.refresh(any(RefreshTokenDTO.class)))
+                .thenThrow(new AppException(ExceptionCode.INVALID_REFRESH_TOKEN));
+
+        // Act & Assert
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(jsonPath("$.code").value(ExceptionCode.INVALID_REFRESH_TOKEN.getCode()));
+    }
+
+    @Test
+    void logout_shouldRevokeRefreshToken() throws Exception {
+        // Arrange
+        RefreshTokenDTO request = new RefreshTokenDTO();
+        request.setRefreshToken("refresh-token");
+
+        // Act & Assert
+        mockMvc.perform(post("/auth/logout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200));
+
+        verify(authenticationService).logout(any(RefreshTokenDTO.class));
+    }
+
     @Test
     void resetPassword_shouldReturnAuthenticationResponse() throws Exception {
         // Arrange
@@ -2,7 +2,12 @@ package com.chat_app.web_socket_chat_application.api.controller;
 
 import com.chat_app.web_socket_chat_application.api.response.ApiResponse;
 import com.chat_app.web_socket_chat_application.api.response.SuccessResponse;
+import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
+import com.chat_app.web_socket_chat_application.app.logging.LogSampler;
+import com.chat_app.web_socket_chat_application.app.messaging.OutboxPublisher;
+import com.chat_app.web_socket_chat_application.app.websocket.StompPrincipal;
 import com.chat_app.web_socket_chat_application.app.service.ChatMessageService;
+import com.chat_app.web_socket_chat_application.app.service.ConversationService;
 import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,9 +15,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
@@ -22,11 +29,13 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,7 +46,13 @@ class ChatControllerTest {
     private ChatMessageService chatMessageService;
 
     @Mock
-    private SimpMessagingTemplate simpMessagingTemplate;
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private ConversationService conversationService;
+
+    @Spy
+    private LogSampler logSampler = new LogSampler(new MockEnvironment());
 
     @InjectMocks
     private ChatController chatController;
@@ -60,21 +75,12 @@ class ChatControllerTest {
         when(chatMessageService.save(any(ChatMessage.class))).thenReturn(savedMessage);
 
         // Act
-        chatController.processMessage(chatMessage);
+        chatController.processMessage(chatMessage, principal("user1"));
 
         // Assert
         verify(chatMessageService).save(any(ChatMessage.class));
-        // Verify message is sent to both receiver and sender
-        verify(simpMessagingTemplate).convertAndSendToUser(
-                eq("user2"),
-                eq("/queue/messages"),
-                eq(savedMessage)
-        );
-        verify(simpMessagingTemplate).convertAndSendToUser(
-                eq("user1"),
-                eq("/queue/messages"),
-                eq(savedMessage)
-        );
+        // Verify the saved message is handed to the outbox for delivery to receiver and sender
+        verify(outboxPublisher).enqueue(eq(savedMessage));
     }
 
     @Test
@@ -87,15 +93,40 @@ class ChatControllerTest {
         when(chatMessageService.save(any(ChatMessage.class))).thenReturn(savedMessage);
 
         // Act
-        chatController.processMessage(chatMessage);
+        chatController.processMessage(chatMessage, principal("user1"));
 
         // Assert
         verify(chatMessageService).save(argThat(msg -> msg.getTimestamp() != null));
-        // Verify message is sent to both receiver and sender (2 calls total)
-        verify(simpMessagingTemplate, times(2)).convertAndSendToUser(anyString(), anyString(), any());
-        // Verify specific calls to receiver and sender
-        verify(simpMessagingTemplate).convertAndSendToUser(eq("user2"), eq("/queue/messages"), eq(savedMessage));
-        verify(simpMessagingTemplate).convertAndSendToUser(eq("user1"), eq("/queue/messages"), eq(savedMessage));
+        // Verify the saved message is handed to the outbox once
+        verify(outboxPublisher, times(1)).enqueue(any());
+        verify(outboxPublisher).enqueue(eq(savedMessage));
+    }
+
+    @Test
+    void processMessage_shouldRejectSpoofedSender() {
+        // Arrange
+        ChatMessage chatMessage = createSampleChatMessage();
+
+        // Act & Assert
+        assertThrows(AppException.class, () -> chatController.processMessage(chatMessage, principal("user2")));
+        verify(chatMessageService, never()).save(any(ChatMessage.class));
+        verify(outboxPublisher, never()).enqueue(any());
+    }
+
+    @Test
+    void processMessage_shouldTakeSenderFromPrincipalWhenMissing() {
+        // Arrange
+        ChatMessage chatMessage = createSampleChatMessage();
+        chatMessage.setSenderId(null);
+        ChatMessage savedMessage = createSavedChatMessage();
+
+        when(chatMessageService.save(any(ChatMessage.class))).thenReturn(savedMessage);
+
+        // Act
+        chatController.processMessage(chatMessage, principal("user1"));
+
+        // Assert
+        verify(chatMessageService).save(argThat(msg -> "user1".equals(msg.getSenderId())));
     }
 
     @Test
@@ -119,6 +150,35 @@ class ChatControllerTest {
         verify(chatMessageService).findChatMessagesBetweenUsers(senderId, receiverId);
     }
 
+    @Test
+    void findChatMessages_shouldReturnNotModifiedWithoutLoadingHistory() throws Exception {
+        // Arrange
+        when(conversationService.getHistoryETag("user1", "user2")).thenReturn("W/\"conv1-3\"");
+
+        // Act & Assert
+        mockMvc.perform(get("/messages/{senderId}/{receiverId}", "user1", "user2")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"conv1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"conv1-3\""));
+
+        verify(chatMessageService, never()).findChatMessagesBetweenUsers(anyString(), anyString());
+    }
+
+    @Test
+    void findChatMessages_shouldReturnHistoryWhenETagChanged() throws Exception {
+        // Arrange
+        when(conversationService.getHistoryETag("user1", "user2")).thenReturn("W/\"conv1-4\"");
+        when(chatMessageService.findChatMessagesBetweenUsers("user1", "user2"))
+                .thenReturn(List.of(createSavedChatMessage()));
+
+        // Act & Assert
+        mockMvc.perform(get("/messages/{senderId}/{receiverId}", "user1", "user2")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"conv1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"conv1-4\""))
+                .andExpect(jsonPath("$.data[0].id").value("msg1"));
+    }
+
     @Test
     void sendMessage_shouldSaveMessageAndSendNotification() throws Exception {
         // Arrange
@@ -138,17 +198,8 @@ class ChatControllerTest {
                 .andExpect(jsonPath("$.data.content").value("Hello World"));
 
         verify(chatMessageService).save(any(ChatMessage.class));
-        // Verify message is sent to both receiver and sender
-        verify(simpMessagingTemplate).convertAndSendToUser(
-                eq("user2"),
-                eq("/queue/messages"),
-                eq(savedMessage)
-        );
-        verify(simpMessagingTemplate).convertAndSendToUser(
-                eq("user1"),
-                eq("/queue/messages"),
-                eq(savedMessage)
-        );
+        // Verify the saved message is handed to the outbox for delivery to receiver and sender
+        verify(outboxPublisher).enqueue(eq(savedMessage));
     }
 
     @Test
@@ -171,11 +222,9 @@ class ChatControllerTest {
         assertEquals(savedMessage, response.getData());
 
         verify(chatMessageService).save(any(ChatMessage.class));
-        // Verify message is sent to both receiver and sender (2 calls total)
-        verify(simpMessagingTemplate, times(2)).convertAndSendToUser(anyString(), anyString(), any());
-        // Verify specific calls to receiver and sender
-        verify(simpMessagingTemplate).convertAndSendToUser(eq("user2"), eq("/queue/messages"), eq(savedMessage));
-        verify(simpMessagingTemplate).convertAndSendToUser(eq("user1"), eq("/queue/messages"), eq(savedMessage));
+        // Verify the saved message is handed to the outbox once
+        verify(outboxPublisher, times(1)).enqueue(any());
+        verify(outboxPublisher).enqueue(eq(savedMessage));
     }
 
     @Test
@@ -194,9 +243,12 @@ class ChatControllerTest {
         assertNotNull(response);
         assertEquals(savedMessage, response.getData());
         verify(chatMessageService).save(any(ChatMessage.class));
-        // Verify message is sent to both receiver and sender
-        verify(simpMessagingTemplate).convertAndSendToUser(eq("user2"), eq("/queue/messages"), eq(savedMessage));
-        verify(simpMessagingTemplate).convertAndSendToUser(eq("user1"), eq("/queue/messages"), eq(savedMessage));
+        // Verify the saved message is handed to the outbox for delivery to receiver and sender
+        verify(outboxPublisher).enqueue(eq(savedMessage));
+    }
+
+    private StompPrincipal principal(String userId) {
+        return new StompPrincipal(userId, "1234567890", null);
     }
 
     private ChatMessage createSampleChatMessage() {
@@ -2,6 +2,7 @@ package com.chat_app.web_socket_chat_application.api.controller;
 
 import com.chat_app.web_socket_chat_application.api.dto.ConversationDTO;
 import com.chat_app.web_socket_chat_application.api.dto.CreateConversationDTO;
+import com.chat_app.web_socket_chat_application.api.dto.RetentionDTO;
 import com.chat_app.web_socket_chat_application.api.response.ApiResponse;
 import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionAdviceHandle;
 import com.chat_app.web_socket_chat_application.app.service.ConversationService;
@@ -13,9 +14,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.Arrays;
 import java.util.List;
@@ -25,6 +29,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -93,6 +99,36 @@ class ConversationControllerTest {
         verify(conversationService).getUserConversations(userId);
     }
 
+    @Test
+    void getUserConversations_shouldSendETagOfInboxVersion() throws Exception {
+        // Arrange
+        String userId = "user1";
+        when(conversationService.getInboxETag(userId)).thenReturn("W/\"inbox-7\"");
+        when(conversationService.getUserConversations(userId))
+                .thenReturn(List.of(createSampleConversationDTO("conv1", "John Doe")));
+
+        // Act & Assert
+        mockMvc.perform(get("/conversations/user/{userId}", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"inbox-7\""))
+                .andExpect(jsonPath("$.data[0].displayName").value("John Doe"));
+    }
+
+    @Test
+    void getUserConversations_shouldReturnNotModifiedWithoutReadingInbox() throws Exception {
+        // Arrange
+        String userId = "user1";
+        when(conversationService.getInboxETag(userId)).thenReturn("W/\"inbox-7\"");
+
+        // Act & Assert
+        mockMvc.perform(get("/conversations/user/{userId}", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"inbox-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"inbox-7\""));
+
+        verify(conversationService, never()).getUserConversations(userId);
+    }
+
     @Test
     void getConversation_shouldReturnSpecificConversation() throws Exception {
         // Arrange
@@ -140,7 +176,7 @@ class ConversationControllerTest {
     void markAsRead_shouldMarkConversationAsRead() throws Exception {
         // Arrange
         String conversationId = "conv1";
-        doNothing().when(conversationService).markAsRead(conversationId);
+        doNothing().when(conversationService).markAsRead(conversationId, null);
 
         // Act & Assert
         mockMvc.perform(post("/conversations/{id}/read", conversationId))
@@ -148,7 +184,44 @@ class ConversationControllerTest {
                 .andExpect(jsonPath("$.message").value("Success"))
                 .andExpect(jsonPath("$.code").value(200));
 
-        verify(conversationService).markAsRead(conversationId);
+        verify(conversationService).markAsRead(conversationId, null);
+    }
+
+    @Test
+    void markAsRead_shouldResetOnlyTheGivenParticipant() throws Exception {
+        // Arrange
+        String conversationId = "conv1";
+        doNothing().when(conversationService).markAsRead(conversationId, "user2");
+
+        // Act & Assert
+        mockMvc.perform(post("/conversations/{id}/read", conversationId).param("userId", "user2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200));
+
+        verify(conversationService).markAsRead(conversationId, "user2");
+    }
+
+    @Test
+    void updateRetention_shouldReturnUpdatedConversation() throws Exception {
+        // Arrange
+        String conversationId = "conv1";
+        RetentionDTO retentionDTO = new RetentionDTO();
+        retentionDTO.setRetentionDays(7);
+
+        Conversation conversation = createSampleConversation(conversationId, "user1", "user2");
+        conversation.setRetentionDays(7);
+
+        when(conversationService.updateRetention(conversationId, 7)).thenReturn(conversation);
+
+        // Act & Assert
+        mockMvc.perform(put("/conversations/{id}/retention", conversationId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(retentionDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Success"))
+                .andExpect(jsonPath("$.data.retentionDays").value(7));
+
+        verify(conversationService).updateRetention(conversationId, 7);
     }
 
     @Test
@@ -182,7 +255,8 @@ class ConversationControllerTest {
         when(conversationService.getUserConversations(userId)).thenReturn(conversationDTOs);
 
         // Act
-        ApiResponse<List<ConversationDTO>> response = conversationController.getUserConversations(userId);
+        ApiResponse<List<ConversationDTO>> response = conversationController.getUserConversations(userId,
+                new ServletWebRequest(new MockHttpServletRequest()));
 
         // Assert
         assertNotNull(response);
@@ -235,16 +309,16 @@ class ConversationControllerTest {
     void markAsRead_directCallToController_shouldReturnSuccessResponse() {
         // Arrange
         String conversationId = "conv1";
-        doNothing().when(conversationService).markAsRead(conversationId);
+        doNothing().when(conversationService).markAsRead(conversationId, null);
 
         // Act
-        ApiResponse<?> response = conversationController.markAsRead(conversationId);
+        ApiResponse<?> response = conversationController.markAsRead(conversationId, null);
 
         // Assert
         assertNotNull(response);
         assertEquals("Success", response.getMessage());
         assertEquals(200, response.getCode());
-        verify(conversationService).markAsRead(conversationId);
+        verify(conversationService).markAsRead(conversationId, null);
     }
 
     @Test
@@ -273,7 +347,6 @@ class ConversationControllerTest {
         conversation.setReceiverId(receiverId);
         conversation.setLastMessage("Hello");
         conversation.setLastMessageTime("2023-01-01T10:00:00Z");
-        conversation.setUnreadCount(0);
         conversation.setOnline(false);
         conversation.setCategory("all");
         conversation.setAvatarColor("#FF5733");
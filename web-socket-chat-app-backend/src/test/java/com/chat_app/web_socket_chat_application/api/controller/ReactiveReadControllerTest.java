@@ -0,0 +1,127 @@
+package com.chat_app.web_socket_chat_application.api.controller;
+
+import com.chat_app.web_socket_chat_application.api.dto.ConversationDTO;
+import com.chat_app.web_socket_chat_application.api.dto.UserResponseDTO;
+import com.chat_app.web_socket_chat_application.app.service.ReactiveReadService;
+import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import com.chat_app.web_socket_chat_application.domain.projection.UserProfile;
+import com.chat_app.web_socket_chat_application.mapper.UserMapper;
+import com.chat_app.web_socket_chat_application.test.base.BaseControllerTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveReadControllerTest extends BaseControllerTest {
+
+    @Mock
+    private ReactiveReadService reactiveReadService;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @InjectMocks
+    private ReactiveReadController reactiveReadController;
+
+    @Override
+    protected Object getController() {
+        return reactiveReadController;
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void findChatMessages_shouldStreamMessagesAsNdjson() throws Exception {
+        // Arrange
+        when(reactiveReadService.findChatMessagesBetweenUsers("user1", "user2"))
+                .thenReturn(Flux.just(createSampleMessage("msg1"), createSampleMessage("msg2")));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/reactive/messages/{senderId}/{receiverId}", "user1", "user2")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"id\":\"msg1\"")))
+                .andExpect(content().string(containsString("\"id\":\"msg2\"")));
+
+        verify(reactiveReadService).findChatMessagesBetweenUsers("user1", "user2");
+    }
+
+    @Test
+    void getUserConversations_shouldReturnJsonArrayWhenRequested() throws Exception {
+        // Arrange
+        ConversationDTO conversation = ConversationDTO.builder().id("conv1").displayName("Jane Smith").build();
+        when(reactiveReadService.getUserConversations("user1")).thenReturn(Flux.just(conversation));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/reactive/conversations/user/{userId}", "user1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].displayName").value("Jane Smith"));
+    }
+
+    @Test
+    void searchUsers_shouldExcludeCallerByPrincipal() throws Exception {
+        // Arrange
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("1234567890", null, List.of()));
+        UserProfile user = new UserProfile("user2", "Jane Smith", "0987654321", "online");
+        UserResponseDTO dto = UserResponseDTO.builder().id("user2").name("Jane Smith").build();
+
+        when(reactiveReadService.searchUsers("Jane", "1234567890")).thenReturn(Flux.just(user));
+        when(userMapper.toUserResponseDTO(user)).thenReturn(dto);
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/reactive/api/users/search").param("query", "Jane")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("user2"));
+
+        verify(reactiveReadService).searchUsers("Jane", "1234567890");
+    }
+
+    private ChatMessage createSampleMessage(String id) {
+        return ChatMessage.builder()
+                .id(id)
+                .conversationId("conv1")
+                .senderId("user1")
+                .receiverId("user2")
+                .content("Hello World")
+                .build();
+    }
+}
@@ -2,8 +2,10 @@ package com.chat_app.web_socket_chat_application.api.controller;
 
 import com.chat_app.web_socket_chat_application.api.dto.UserResponseDTO;
 import com.chat_app.web_socket_chat_application.api.response.ApiResponse;
+import com.chat_app.web_socket_chat_application.app.service.UnreadCounterService;
 import com.chat_app.web_socket_chat_application.app.service.UserService;
-import com.chat_app.web_socket_chat_application.domain.entity.User;
+import com.chat_app.web_socket_chat_application.domain.projection.UserName;
+import com.chat_app.web_socket_chat_application.domain.projection.UserProfile;
 import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
 import com.chat_app.web_socket_chat_application.mapper.UserMapper;
 import com.chat_app.web_socket_chat_application.test.base.BaseControllerTest;
@@ -35,6 +37,9 @@ class UserControllerTest extends BaseControllerTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private UnreadCounterService unreadCounterService;
+
     @Mock
     private UserRepository userRepository;
 
@@ -60,7 +65,7 @@ class UserControllerTest extends BaseControllerTest {
     @Test
     void getAllUsers_shouldReturnAllUsers() throws Exception {
         // Arrange
-        List<User> users = Arrays.asList(
+        List<UserProfile> users = Arrays.asList(
                 createSampleUser("user1", "John Doe", "1234567890"),
                 createSampleUser("user2", "Jane Smith", "0987654321")
         );
@@ -93,8 +98,8 @@ class UserControllerTest extends BaseControllerTest {
         String currentUserPhone = "1234567890";
         String currentUserId = "currentUser";
 
-        User currentUser = createSampleUser(currentUserId, "Current User", currentUserPhone);
-        List<User> filteredUsers = Arrays.asList(
+        UserName currentUser = new UserName(currentUserId, "Current User");
+        List<UserProfile> filteredUsers = Arrays.asList(
                 createSampleUser("user1", "John Doe", "1111111111")
         );
 
@@ -104,7 +109,7 @@ class UserControllerTest extends BaseControllerTest {
 
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getName()).thenReturn(currentUserPhone);
-        when(userRepository.findByPhoneNumber(currentUserPhone)).thenReturn(currentUser);
+        when(userRepository.findProjectedByPhoneNumber(currentUserPhone, UserName.class)).thenReturn(currentUser);
         when(userService.searchUsers(query, currentUserId)).thenReturn(filteredUsers);
         when(userMapper.toUserResponseDTOList(filteredUsers)).thenReturn(userResponseDTOs);
 
@@ -128,7 +133,7 @@ class UserControllerTest extends BaseControllerTest {
 
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getName()).thenReturn(currentUserPhone);
-        when(userRepository.findByPhoneNumber(currentUserPhone)).thenReturn(null);
+        when(userRepository.findProjectedByPhoneNumber(currentUserPhone, UserName.class)).thenReturn(null);
 
         // Act & Assert
         mockMvc.perform(get("/api/users/search?query={query}", query))
@@ -136,7 +141,7 @@ class UserControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("$.message").value("Error: Current user not found based on token."))
                 .andExpect(jsonPath("$.code").value(404));
 
-        verify(userRepository).findByPhoneNumber(currentUserPhone);
+        verify(userRepository).findProjectedByPhoneNumber(currentUserPhone, UserName.class);
         verifyNoInteractions(userService);
     }
 
@@ -144,7 +149,7 @@ class UserControllerTest extends BaseControllerTest {
     void getUserById_shouldReturnSpecificUser() throws Exception {
         // Arrange
         String userId = "user1";
-        User user = createSampleUser(userId, "John Doe", "1234567890");
+        UserProfile user = createSampleUser(userId, "John Doe", "1234567890");
         UserResponseDTO userResponseDTO = createSampleUserResponseDTO(userId, "John Doe", "1234567890");
 
         when(userService.getUserById(userId)).thenReturn(user);
@@ -163,10 +168,25 @@ class UserControllerTest extends BaseControllerTest {
         verify(userMapper).toUserResponseDTO(user);
     }
 
+    @Test
+    void getTotalUnread_shouldReturnBadgeCount() throws Exception {
+        // Arrange
+        String userId = "user1";
+        when(unreadCounterService.getTotalUnread(userId)).thenReturn(7L);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{userId}/unread", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data").value(7));
+
+        verify(unreadCounterService).getTotalUnread(userId);
+    }
+
     @Test
     void getAllUsers_directCallToController_shouldReturnCorrectResponse() {
         // Arrange
-        List<User> users = Arrays.asList(
+        List<UserProfile> users = Arrays.asList(
                 createSampleUser("user1", "John Doe", "1234567890")
         );
 
@@ -196,8 +216,8 @@ class UserControllerTest extends BaseControllerTest {
         String currentUserPhone = "1234567890";
         String currentUserId = "currentUser";
 
-        User currentUser = createSampleUser(currentUserId, "Current User", currentUserPhone);
-        List<User> filteredUsers = Arrays.asList(
+        UserName currentUser = new UserName(currentUserId, "Current User");
+        List<UserProfile> filteredUsers = Arrays.asList(
                 createSampleUser("user1", "John Doe", "1111111111")
         );
 
@@ -207,7 +227,7 @@ class UserControllerTest extends BaseControllerTest {
 
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getName()).thenReturn(currentUserPhone);
-        when(userRepository.findByPhoneNumber(currentUserPhone)).thenReturn(currentUser);
+        when(userRepository.findProjectedByPhoneNumber(currentUserPhone, UserName.class)).thenReturn(currentUser);
         when(userService.searchUsers(query, currentUserId)).thenReturn(filteredUsers);
         when(userMapper.toUserResponseDTOList(filteredUsers)).thenReturn(userResponseDTOs);
 
@@ -227,7 +247,7 @@ class UserControllerTest extends BaseControllerTest {
     void getUserById_directCallToController_shouldReturnCorrectResponse() {
         // Arrange
         String userId = "user1";
-        User user = createSampleUser(userId, "John Doe", "1234567890");
+        UserProfile user = createSampleUser(userId, "John Doe", "1234567890");
         UserResponseDTO userResponseDTO = createSampleUserResponseDTO(userId, "John Doe", "1234567890");
 
         when(userService.getUserById(userId)).thenReturn(user);
@@ -253,7 +273,7 @@ class UserControllerTest extends BaseControllerTest {
 
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getName()).thenReturn(currentUserPhone);
-        when(userRepository.findByPhoneNumber(currentUserPhone)).thenReturn(null);
+        when(userRepository.findProjectedByPhoneNumber(currentUserPhone, UserName.class)).thenReturn(null);
 
         // Act
         ApiResponse<List<UserResponseDTO>> response = userController.searchUsers(query);
@@ -262,7 +282,7 @@ class UserControllerTest extends BaseControllerTest {
         assertNotNull(response);
         assertEquals("Error: Current user not found based on token.", response.getMessage());
         assertEquals(404, response.getCode());
-        verify(userRepository).findByPhoneNumber(currentUserPhone);
+        verify(userRepository).findProjectedByPhoneNumber(currentUserPhone, UserName.class);
         verifyNoInteractions(userService);
     }
 
@@ -280,13 +300,8 @@ class UserControllerTest extends BaseControllerTest {
         verify(userService).getUserById(userId);
     }
 
-    private User createSampleUser(String id, String name, String phoneNumber) {
-        User user = new User();
-        user.setId(id);
-        user.setName(name);
-        user.setPhoneNumber(phoneNumber);
-        user.setStatus("online");
-        return user;
+    private UserProfile createSampleUser(String id, String name, String phoneNumber) {
+        return new UserProfile(id, name, phoneNumber, "online");
     }
 
     private UserResponseDTO createSampleUserResponseDTO(String id, String name, String phoneNumber) {
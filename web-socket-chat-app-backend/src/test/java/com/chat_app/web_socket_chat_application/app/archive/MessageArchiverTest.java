@@ -0,0 +1,100 @@
+package com.chat_app.web_socket_chat_application.app.archive;
+
+import com.chat_app.web_socket_chat_application.app.scheduling.JobLock;
+import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import com.chat_app.web_socket_chat_application.domain.entity.MessageBucket;
+import com.chat_app.web_socket_chat_application.domain.repository.ChatMessageRepository;
+import com.chat_app.web_socket_chat_application.domain.repository.MessageBucketRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageArchiverTest {
+
+    @Mock
+    private ChatMessageRepository chatMessageRepository;
+
+    @Mock
+    private MessageBucketRepository messageBucketRepository;
+
+    @Mock
+    private JobLock jobLock;
+
+    private MessageArchiver messageArchiver;
+
+    @BeforeEach
+    void setUp() {
+        messageArchiver = new MessageArchiver(chatMessageRepository, messageBucketRepository, jobLock, new ObjectMapper());
+        ReflectionTestUtils.setField(messageArchiver, "maxAgeDays", 30);
+        ReflectionTestUtils.setField(messageArchiver, "bucketSize", 500);
+        ReflectionTestUtils.setField(messageArchiver, "batchSize", 5000);
+        ReflectionTestUtils.setField(messageArchiver, "intervalMs", 3_600_000L);
+        lenient().when(jobLock.tryAcquire(eq("message-archiver"), any())).thenReturn(true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void archive_shouldBucketMessagesAndDeleteThemInOneCall() {
+        // Arrange
+        List<ChatMessage> batch = List.of(
+                message("m1", "conv1", "2024-01-01T10:00:00.000Z"),
+                message("m2", "conv1", "2024-01-01T10:01:00.000Z"),
+                message("m3", "conv2", "2024-01-01T10:02:00.000Z"));
+        when(chatMessageRepository.findByTimestampLessThanAndConversationIdNotNullAndReadTrueOrderByConversationIdAscTimestampAsc(
+                anyString(), any(Pageable.class))).thenReturn(batch, List.of());
+        when(messageBucketRepository.findFirstByConversationIdOrderByFirstTimestampDesc(anyString())).thenReturn(Optional.empty());
+
+        // Act
+        int archived = messageArchiver.archive();
+
+        // Assert
+        assertEquals(3, archived);
+        verify(messageBucketRepository, times(2)).save(any(MessageBucket.class));
+        ArgumentCaptor<Iterable<String>> ids = ArgumentCaptor.forClass(Iterable.class);
+        verify(chatMessageRepository, times(2)).deleteAllById(ids.capture());
+        assertEquals(List.of(List.of("m1", "m2"), List.of("m3")), ids.getAllValues());
+        verify(chatMessageRepository, never()).deleteAll(any(Iterable.class));
+        verify(jobLock).release("message-archiver");
+    }
+
+    @Test
+    void archive_whenLeaseLostBetweenBatches_shouldStop() {
+        // Arrange
+        when(jobLock.tryAcquire(eq("message-archiver"), any())).thenReturn(true, false);
+        when(chatMessageRepository.findByTimestampLessThanAndConversationIdNotNullAndReadTrueOrderByConversationIdAscTimestampAsc(
+                anyString(), any(Pageable.class))).thenReturn(List.of(message("m1", "conv1", "2024-01-01T10:00:00.000Z")));
+        when(messageBucketRepository.findFirstByConversationIdOrderByFirstTimestampDesc(anyString())).thenReturn(Optional.empty());
+
+        // Act
+        int archived = messageArchiver.archive();
+
+        // Assert
+        assertEquals(1, archived);
+        verify(chatMessageRepository, times(1)).findByTimestampLessThanAndConversationIdNotNullAndReadTrueOrderByConversationIdAscTimestampAsc(
+                anyString(), any(Pageable.class));
+    }
+
+    private static ChatMessage message(String id, String conversationId, String timestamp) {
+        ChatMessage message = new ChatMessage();
+        message.setId(id);
+        message.setConversationId(conversationId);
+        message.setTimestamp(timestamp);
+        return message;
+    }
+}
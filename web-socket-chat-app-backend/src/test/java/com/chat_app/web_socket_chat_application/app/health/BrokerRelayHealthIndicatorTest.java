@@ -0,0 +1,39 @@
+package com.chat_app.web_socket_chat_application.app.health;
+
+import com.chat_app.web_socket_chat_application.app.messaging.BrokerRelayHealth;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.messaging.simp.broker.BrokerAvailabilityEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BrokerRelayHealthIndicatorTest {
+
+    private BrokerRelayHealth brokerRelayHealth;
+    private BrokerRelayHealthIndicator indicator;
+
+    @BeforeEach
+    void setUp() {
+        brokerRelayHealth = new BrokerRelayHealth(new SimpleMeterRegistry());
+        indicator = new BrokerRelayHealthIndicator(brokerRelayHealth);
+    }
+
+    @Test
+    void health_beforeFirstConnection_shouldBeDown() {
+        // Act & Assert
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+
+    @Test
+    void health_shouldFollowBrokerAvailability() {
+        // Act & Assert
+        brokerRelayHealth.onBrokerAvailability(new BrokerAvailabilityEvent(true, this));
+        assertEquals(Status.UP, indicator.health().getStatus());
+
+        brokerRelayHealth.onBrokerAvailability(new BrokerAvailabilityEvent(false, this));
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+        assertEquals(1L, indicator.health().getDetails().get("outages"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.chat_app.web_socket_chat_application.app.health;
+
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoLatencyHealthIndicatorTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoDatabase database;
+
+    private MongoLatencyHealthIndicator indicator;
+
+    @BeforeEach
+    void setUp() {
+        indicator = new MongoLatencyHealthIndicator(mongoTemplate);
+        ReflectionTestUtils.setField(indicator, "sampleIntervalMs", 5000L);
+        ReflectionTestUtils.setField(indicator, "maxLatencyMs", 20L);
+        ReflectionTestUtils.setField(indicator, "failureThreshold", 3);
+        when(mongoTemplate.getDb()).thenReturn(database);
+    }
+
+    @Test
+    void health_afterFastPing_shouldBeUp() {
+        // Act
+        indicator.sample();
+
+        // Assert
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    @Test
+    void health_afterFailuresBelowThreshold_shouldStayUp() {
+        // Arrange
+        when(database.runCommand(any(Bson.class))).thenThrow(new MongoTimeoutException("timed out"));
+
+        // Act
+        indicator.sample();
+        indicator.sample();
+
+        // Assert
+        assertEquals(Status.UP, indicator.health().getStatus());
+        assertEquals(2, indicator.health().getDetails().get("consecutiveFailures"));
+    }
+
+    @Test
+    void health_afterFailuresReachingThreshold_shouldBeDown() {
+        // Arrange
+        when(database.runCommand(any(Bson.class))).thenThrow(new MongoTimeoutException("timed out"));
+
+        // Act
+        indicator.sample();
+        indicator.sample();
+        indicator.sample();
+
+        // Assert
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+
+    @Test
+    void health_afterSlowPingsReachingThreshold_shouldBeOutOfService() {
+        // Arrange
+        when(database.runCommand(any(Bson.class))).thenAnswer(invocation -> {
+            Thread.sleep(30);
+            return new Document("ok", 1);
+        });
+
+        // Act
+        indicator.sample();
+        indicator.sample();
+        indicator.sample();
+
+        // Assert
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+    }
+
+    @Test
+    void health_afterRecovery_shouldResetTheCount() {
+        // Arrange
+        when(database.runCommand(any(Bson.class)))
+                .thenThrow(new MongoTimeoutException("timed out"))
+                .thenThrow(new MongoTimeoutException("timed out"))
+                .thenReturn(new Document("ok", 1))
+                .thenThrow(new MongoTimeoutException("timed out"));
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            indicator.sample();
+        }
+
+        // Assert
+        assertEquals(Status.UP, indicator.health().getStatus());
+        assertEquals(1, indicator.health().getDetails().get("consecutiveFailures"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.chat_app.web_socket_chat_application.app.health;
+
+import com.chat_app.web_socket_chat_application.app.websocket.OutboundSessionRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SessionLoadHealthIndicatorTest {
+
+    @Mock
+    private OutboundSessionRegistry outboundSessionRegistry;
+
+    private SessionLoadHealthIndicator indicator;
+
+    @BeforeEach
+    void setUp() {
+        indicator = new SessionLoadHealthIndicator(outboundSessionRegistry);
+        ReflectionTestUtils.setField(indicator, "capacity", 100);
+        ReflectionTestUtils.setField(indicator, "resumeRatio", 0.9);
+        ReflectionTestUtils.setField(indicator, "holdMs", 0L);
+    }
+
+    @Test
+    void health_belowCapacity_shouldBeUp() {
+        // Arrange
+        when(outboundSessionRegistry.getSessionCount()).thenReturn(99);
+
+        // Act & Assert
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    @Test
+    void health_atCapacity_shouldBeOutOfServiceUntilBelowResumeRatio() {
+        // Arrange
+        when(outboundSessionRegistry.getSessionCount()).thenReturn(100, 95, 89);
+
+        // Act & Assert
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    @Test
+    void health_withinHoldTime_shouldStayOutOfService() {
+        // Arrange
+        ReflectionTestUtils.setField(indicator, "holdMs", 60_000L);
+        when(outboundSessionRegistry.getSessionCount()).thenReturn(100, 10);
+
+        // Act & Assert
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+    }
+}
@@ -0,0 +1,151 @@
+package com.chat_app.web_socket_chat_application.app.inbox;
+
+import com.chat_app.web_socket_chat_application.app.scheduling.JobLock;
+import com.chat_app.web_socket_chat_application.app.service.InboxService;
+import com.chat_app.web_socket_chat_application.domain.entity.Conversation;
+import com.chat_app.web_socket_chat_application.domain.entity.InboxEntry;
+import com.chat_app.web_socket_chat_application.domain.projection.UserName;
+import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InboxBackfillTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private InboxService inboxService;
+
+    @Mock
+    private JobLock jobLock;
+
+    private InboxBackfill inboxBackfill;
+
+    @BeforeEach
+    void setUp() {
+        inboxBackfill = new InboxBackfill(mongoTemplate, userRepository, inboxService, jobLock);
+        ReflectionTestUtils.setField(inboxBackfill, "batchSize", 2);
+        lenient().when(jobLock.tryAcquire(eq("inbox-backfill"), any())).thenReturn(true);
+        lenient().when(userRepository.findProjectedByIdIn(anyCollection(), eq(UserName.class)))
+                .thenReturn(List.of(new UserName("user1", "John Doe"), new UserName("user2", "Jane Smith")));
+    }
+
+    @Test
+    void backfill_shouldMaterializeMissingConversationsAndRecordCompletion() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(Conversation.class)))
+                .thenReturn(List.of(conversation("c1"), conversation("c2")))
+                .thenReturn(List.of(conversation("c3")));
+        when(mongoTemplate.findDistinct(any(Query.class), eq("conversationId"), eq(InboxEntry.class), eq(String.class)))
+                .thenReturn(List.of("c2"));
+
+        // Act
+        int created = inboxBackfill.backfill();
+
+        // Assert
+        assertEquals(2, created);
+        verify(inboxService, times(2)).rebuild(any(Conversation.class), any(UserName.class), any(UserName.class));
+        assertTrue(inboxBackfill.isComplete());
+        ArgumentCaptor<Update> state = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(3)).upsert(any(Query.class), state.capture(), eq("inbox_backfill"));
+        assertEquals("c2", state.getAllValues().get(0).getUpdateObject().get("$set", Document.class).get("lastId"));
+        assertEquals(true, state.getAllValues().get(2).getUpdateObject().get("$set", Document.class).get("complete"));
+        verify(jobLock).release("inbox-backfill");
+    }
+
+    @Test
+    void backfill_shouldResumeAfterStoredPosition() {
+        // Arrange
+        when(mongoTemplate.findById("conversations", Document.class, "inbox_backfill")).thenReturn(new Document("lastId", "c5"));
+        when(mongoTemplate.find(any(Query.class), eq(Conversation.class))).thenReturn(List.of());
+
+        // Act
+        inboxBackfill.backfill();
+
+        // Assert
+        ArgumentCaptor<Query> page = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(page.capture(), eq(Conversation.class));
+        assertEquals("c5", page.getValue().getQueryObject().get("_id", Document.class).get("$gt"));
+        assertTrue(inboxBackfill.isComplete());
+    }
+
+    @Test
+    void backfill_whenFailingMidway_shouldKeepProgressAndStayIncomplete() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(Conversation.class)))
+                .thenReturn(List.of(conversation("c1"), conversation("c2")))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class, () -> inboxBackfill.backfill());
+        assertFalse(inboxBackfill.isComplete());
+        ArgumentCaptor<Update> state = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), state.capture(), eq("inbox_backfill"));
+        assertEquals("c2", state.getValue().getUpdateObject().get("$set", Document.class).get("lastId"));
+        verify(jobLock).release("inbox-backfill");
+    }
+
+    @Test
+    void backfill_whenAlreadyComplete_shouldNotTakeTheLock() {
+        // Arrange
+        when(mongoTemplate.findById("conversations", Document.class, "inbox_backfill")).thenReturn(new Document("complete", true));
+
+        // Act
+        int created = inboxBackfill.backfill();
+
+        // Assert
+        assertEquals(0, created);
+        assertTrue(inboxBackfill.isComplete());
+        verifyNoInteractions(jobLock);
+    }
+
+    @Test
+    void backfill_whenAnotherReplicaHoldsTheLock_shouldDoNothing() {
+        // Arrange
+        when(jobLock.tryAcquire(eq("inbox-backfill"), any())).thenReturn(false);
+
+        // Act
+        int created = inboxBackfill.backfill();
+
+        // Assert
+        assertEquals(0, created);
+        assertFalse(inboxBackfill.isComplete());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Conversation.class));
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), anyString());
+    }
+
+    private static Conversation conversation(String id) {
+        Conversation conversation = new Conversation();
+        conversation.setId(id);
+        conversation.setSenderId("user1");
+        conversation.setReceiverId("user2");
+        return conversation;
+    }
+}
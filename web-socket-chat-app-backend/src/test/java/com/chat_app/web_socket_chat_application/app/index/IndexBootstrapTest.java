@@ -0,0 +1,123 @@
+package com.chat_app.web_socket_chat_application.app.index;
+
+import com.chat_app.web_socket_chat_application.domain.entity.RefreshToken;
+import com.chat_app.web_socket_chat_application.domain.entity.User;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndexBootstrapTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOps;
+
+    @Test
+    void bootstrap_withMatchingIndexes_shouldCreateNothing() {
+        // Arrange
+        IndexBootstrap indexBootstrap = bootstrapFor(User.class, "users", false);
+        when(indexOps.getIndexInfo()).thenReturn(List.of(
+                index("name", new Document("name", 1), new Document()),
+                index("phone_number", new Document("phoneNumber", 1), new Document("unique", true))));
+
+        // Act
+        List<String> unresolved = indexBootstrap.bootstrap();
+
+        // Assert
+        assertEquals(List.of(), unresolved);
+        verify(indexOps, never()).ensureIndex(any(IndexDefinition.class));
+    }
+
+    @Test
+    void bootstrap_withMissingIndex_shouldCreateIt() {
+        // Arrange
+        IndexBootstrap indexBootstrap = bootstrapFor(User.class, "users", false);
+        when(indexOps.getIndexInfo()).thenReturn(List.of(index("name", new Document("name", 1), new Document())));
+
+        // Act
+        List<String> unresolved = indexBootstrap.bootstrap();
+
+        // Assert
+        assertEquals(List.of(), unresolved);
+        verify(indexOps).ensureIndex(any(IndexDefinition.class));
+    }
+
+    @Test
+    void bootstrap_withNonUniqueIndexOnUniqueKeys_shouldReportMismatch() {
+        // Arrange
+        IndexBootstrap indexBootstrap = bootstrapFor(User.class, "users", false);
+        when(indexOps.getIndexInfo()).thenReturn(List.of(
+                index("name", new Document("name", 1), new Document()),
+                index("phoneNumber_1", new Document("phoneNumber", 1), new Document())));
+
+        // Act
+        List<String> unresolved = indexBootstrap.bootstrap();
+
+        // Assert
+        assertEquals(List.of("users.phone_number"), unresolved);
+        verify(indexOps, never()).ensureIndex(any(IndexDefinition.class));
+    }
+
+    @Test
+    void bootstrap_withTtlMissingOnExistingIndex_shouldFailFast() {
+        // Arrange
+        IndexBootstrap indexBootstrap = bootstrapFor(RefreshToken.class, "refresh_tokens", true);
+        when(indexOps.getIndexInfo()).thenReturn(List.of(
+                index("userId", new Document("userId", 1), new Document()),
+                index("familyId", new Document("familyId", 1), new Document()),
+                index("expiresAt", new Document("expiresAt", 1), new Document())));
+
+        // Act & Assert
+        IllegalStateException error = assertThrows(IllegalStateException.class, indexBootstrap::bootstrap);
+        assertEquals("Missing indexes: [], mismatched indexes: [refresh_tokens.expiresAt]", error.getMessage());
+    }
+
+    @Test
+    void bootstrap_withMatchingTtl_shouldPass() {
+        // Arrange
+        IndexBootstrap indexBootstrap = bootstrapFor(RefreshToken.class, "refresh_tokens", true);
+        when(indexOps.getIndexInfo()).thenReturn(List.of(
+                index("userId", new Document("userId", 1), new Document()),
+                index("familyId", new Document("familyId", 1), new Document()),
+                index("expiresAt", new Document("expiresAt", 1), new Document("expireAfterSeconds", 0))));
+
+        // Act & Assert
+        assertEquals(List.of(), indexBootstrap.bootstrap());
+    }
+
+    private IndexBootstrap bootstrapFor(Class<?> entity, String collection, boolean failFast) {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setInitialEntitySet(Set.of(entity));
+        mappingContext.initialize();
+        when(mongoTemplate.indexOps(collection)).thenReturn(indexOps);
+        IndexBootstrap indexBootstrap = new IndexBootstrap(mongoTemplate, mappingContext);
+        ReflectionTestUtils.setField(indexBootstrap, "mode", "create");
+        ReflectionTestUtils.setField(indexBootstrap, "failFast", failFast);
+        return indexBootstrap;
+    }
+
+    private static IndexInfo index(String name, Document keys, Document options) {
+        Document source = new Document("name", name).append("key", keys);
+        source.putAll(options);
+        return IndexInfo.indexInfoOf(source);
+    }
+}
@@ -0,0 +1,141 @@
+package com.chat_app.web_socket_chat_application.app.messaging;
+
+import com.chat_app.web_socket_chat_application.app.websocket.LocalSubscriptionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.BrokerAvailabilityEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessagePublisherTest {
+
+    @Mock
+    private SimpMessagingTemplate simpMessagingTemplate;
+
+    @Mock
+    private MessageChannel clientOutboundChannel;
+
+    @Mock
+    private ObjectProvider<NodeRouter> nodeRouter;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BrokerRelayHealth relayHealth;
+    private MessagePublisher messagePublisher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relayHealth = new BrokerRelayHealth(meterRegistry);
+        messagePublisher = new MessagePublisher(simpMessagingTemplate, clientOutboundChannel,
+                new LocalSubscriptionRegistry(), relayHealth, nodeRouter, meterRegistry);
+        ReflectionTestUtils.setField(messagePublisher, "bufferCapacity", 2);
+        ReflectionTestUtils.setField(messagePublisher, "replayMaxAttempts", 3);
+        ReflectionTestUtils.setField(messagePublisher, "replayBackoffMs", 1L);
+        ReflectionTestUtils.setField(messagePublisher, "replayMaxBackoffMs", 5L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        messagePublisher.shutdown();
+    }
+
+    @Test
+    void publish_whenBrokerAvailable_shouldReportSent() {
+        // Arrange
+        relayHealth.onBrokerAvailability(new BrokerAvailabilityEvent(true, this));
+
+        // Act & Assert
+        assertTrue(messagePublisher.publish("/queue/user.u1.messages", "hello"));
+        verify(simpMessagingTemplate).convertAndSend("/queue/user.u1.messages", (Object) "hello");
+        assertEquals(0, messagePublisher.getBufferedCount());
+    }
+
+    @Test
+    void publish_whenBrokerUnavailable_shouldReportBufferedOnly() {
+        // Act & Assert
+        assertFalse(messagePublisher.publish("/queue/user.u1.messages", "hello"));
+        verifyNoInteractions(simpMessagingTemplate);
+        assertEquals(1, messagePublisher.getBufferedCount());
+        assertEquals(1.0, meterRegistry.get("chat.broker.relay.buffer.size").gauge().value());
+    }
+
+    @Test
+    void publish_whenSendFails_shouldReportBufferedOnly() {
+        // Arrange
+        relayHealth.onBrokerAvailability(new BrokerAvailabilityEvent(true, this));
+        doThrow(new MessageDeliveryException("relay down")).when(simpMessagingTemplate)
+                .convertAndSend("/queue/user.u1.messages", (Object) "hello");
+        // Keep the scheduled replay from draining the buffer before the assertion
+        ReflectionTestUtils.setField(messagePublisher, "replayBackoffMs", 60_000L);
+        ReflectionTestUtils.setField(messagePublisher, "replayMaxBackoffMs", 60_000L);
+
+        // Act & Assert
+        assertFalse(messagePublisher.publish("/queue/user.u1.messages", "hello"));
+        assertEquals(1, messagePublisher.getBufferedCount());
+    }
+
+    @Test
+    void publish_whenSendFailsWhileAvailable_shouldStillSendLaterFrames() {
+        // Arrange
+        relayHealth.onBrokerAvailability(new BrokerAvailabilityEvent(true, this));
+        doThrow(new MessageDeliveryException("channel full")).doNothing().when(simpMessagingTemplate)
+                .convertAndSend("/queue/user.u1.messages", (Object) "first");
+
+        // Act
+        assertFalse(messagePublisher.publish("/queue/user.u1.messages", "first"));
+        messagePublisher.publish("/queue/user.u2.messages", "second");
+
+        // Assert
+        InOrder inOrder = inOrder(simpMessagingTemplate);
+        inOrder.verify(simpMessagingTemplate, timeout(1000).times(2)).convertAndSend("/queue/user.u1.messages", (Object) "first");
+        inOrder.verify(simpMessagingTemplate, timeout(1000)).convertAndSend("/queue/user.u2.messages", (Object) "second");
+        assertEquals(0, messagePublisher.getBufferedCount());
+    }
+
+    @Test
+    void replay_whenHeadFrameKeepsFailing_shouldDropItAndSendTheRest() {
+        // Arrange
+        relayHealth.onBrokerAvailability(new BrokerAvailabilityEvent(true, this));
+        doThrow(new MessageDeliveryException("rejected")).when(simpMessagingTemplate)
+                .convertAndSend("/queue/user.u1.messages", (Object) "poison");
+
+        // Act
+        messagePublisher.publish("/queue/user.u1.messages", "poison");
+        messagePublisher.publish("/queue/user.u2.messages", "next");
+
+        // Assert
+        verify(simpMessagingTemplate, timeout(1000)).convertAndSend("/queue/user.u2.messages", (Object) "next");
+        // The failed publish plus three replay attempts
+        verify(simpMessagingTemplate, times(4)).convertAndSend("/queue/user.u1.messages", (Object) "poison");
+        assertEquals(1.0, meterRegistry.get("chat.broker.relay.replay.dropped").counter().count());
+        assertEquals(0, messagePublisher.getBufferedCount());
+    }
+
+    @Test
+    void trySend_whenSendFails_shouldLeaveRetryToCaller() {
+        // Arrange
+        relayHealth.onBrokerAvailability(new BrokerAvailabilityEvent(true, this));
+        doThrow(new MessageDeliveryException("relay down")).when(simpMessagingTemplate)
+                .convertAndSend("/queue/user.u1.messages", (Object) "hello");
+
+        // Act & Assert
+        assertFalse(messagePublisher.trySend("/queue/user.u1.messages", "hello"));
+        assertEquals(0, messagePublisher.getBufferedCount());
+        assertTrue(messagePublisher.publish("/queue/user.u2.messages", "next"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.chat_app.web_socket_chat_application.app.messaging;
+
+import com.chat_app.web_socket_chat_application.app.websocket.LocalSubscriptionRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.Invocation;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NodeRouterTest {
+
+    private static final String DESTINATION = "/queue/user.user1.messages";
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private AmqpAdmin amqpAdmin;
+
+    @Mock
+    private SimpMessagingTemplate simpMessagingTemplate;
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MessageChannel channel;
+
+    private LocalSubscriptionRegistry localSubscriptions;
+    private NodeRouter nodeRouter;
+
+    @BeforeEach
+    void setUp() {
+        localSubscriptions = new LocalSubscriptionRegistry();
+        nodeRouter = new NodeRouter(rabbitTemplate, amqpAdmin, new Queue("chat.node.test"),
+                new TopicExchange(NodeRouter.EXCHANGE), simpMessagingTemplate, localSubscriptions,
+                connectionFactory, eventPublisher);
+        nodeRouter.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeRouter.shutdown();
+    }
+
+    @Test
+    void reconnect_whenCallbacksArriveOutOfOrder_shouldKeepDestinationBound() throws Exception {
+        // Arrange: the new session is subscribed, the old session's "inactive" callback comes last
+        frame(SimpMessageType.SUBSCRIBE, "session2");
+        reset(amqpAdmin);
+
+        // Act
+        nodeRouter.onDestinationActive(DESTINATION);
+        nodeRouter.onDestinationInactive(DESTINATION);
+        awaitBindings();
+
+        // Assert
+        verify(amqpAdmin, atLeastOnce()).declareBinding(any(Binding.class));
+        verify(amqpAdmin, never()).removeBinding(any(Binding.class));
+    }
+
+    @Test
+    void reconnect_throughRegistry_shouldLeaveDestinationBound() throws Exception {
+        // Act
+        frame(SimpMessageType.SUBSCRIBE, "session1");
+        frame(SimpMessageType.DISCONNECT, "session1");
+        frame(SimpMessageType.SUBSCRIBE, "session2");
+        awaitBindings();
+
+        // Assert: the binding may drop briefly between the sessions, but must end up in place
+        assertEquals("declareBinding", lastBindingCall());
+    }
+
+    @Test
+    void staleActiveCallback_afterLastSubscriberLeft_shouldNotBind() throws Exception {
+        // Act
+        nodeRouter.onDestinationActive(DESTINATION);
+        nodeRouter.onDestinationInactive(DESTINATION);
+        awaitBindings();
+
+        // Assert
+        verify(amqpAdmin, never()).declareBinding(any(Binding.class));
+        verify(amqpAdmin, atLeastOnce()).removeBinding(any(Binding.class));
+    }
+
+    private void frame(SimpMessageType type, String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        if (type == SimpMessageType.SUBSCRIBE) {
+            accessor.setSubscriptionId("sub-0");
+            accessor.setDestination(DESTINATION);
+        }
+        localSubscriptions.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), channel);
+    }
+
+    private String lastBindingCall() {
+        List<Invocation> calls = List.copyOf(mockingDetails(amqpAdmin).getInvocations());
+        return calls.isEmpty() ? null : calls.get(calls.size() - 1).getMethod().getName();
+    }
+
+    // Binding changes run on the router's single thread, so a task queued behind them waits for all
+    private void awaitBindings() throws Exception {
+        ExecutorService bindingExecutor = (ExecutorService) ReflectionTestUtils.getField(nodeRouter, "bindingExecutor");
+        bindingExecutor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+}
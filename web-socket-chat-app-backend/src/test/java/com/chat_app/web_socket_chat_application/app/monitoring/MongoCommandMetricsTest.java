@@ -0,0 +1,89 @@
+package com.chat_app.web_socket_chat_application.app.monitoring;
+
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MongoCommandMetricsTest {
+
+    @Test
+    void redact_shouldKeepFieldsAndOperatorsButHideValues() {
+        // Arrange
+        BsonDocument filter = BsonDocument.parse(
+                "{'senderId': 'user1', 'timestamp': {'$lt': '2024-01-01'}, 'read': false}");
+
+        // Act & Assert
+        assertEquals(BsonDocument.parse("{'senderId': '?', 'timestamp': {'$lt': '?'}, 'read': '?'}"),
+                MongoCommandMetrics.redact(filter));
+    }
+
+    @Test
+    void redact_shouldKeepClauseArraysAndCollapseValueLists() {
+        // Arrange
+        BsonDocument filter = BsonDocument.parse(
+                "{'$or': [{'senderId': 'a'}, {'receiverId': 'b'}], '_id': {'$in': ['x', 'y', 'z']}}");
+
+        // Act & Assert
+        assertEquals(BsonDocument.parse("{'$or': [{'senderId': '?'}, {'receiverId': '?'}], '_id': {'$in': '?'}}"),
+                MongoCommandMetrics.redact(filter));
+    }
+
+    @Test
+    void filterOf_shouldFindTheFilterOfEachCommand() {
+        // Act & Assert
+        assertEquals("{\"a\": \"?\"}", MongoCommandMetrics.filterOf("find",
+                BsonDocument.parse("{'find': 'c', 'filter': {'a': 1}}")));
+        assertEquals("{\"b\": \"?\"}", MongoCommandMetrics.filterOf("count",
+                BsonDocument.parse("{'count': 'c', 'query': {'b': 2}}")));
+        assertEquals("{\"c\": \"?\"}", MongoCommandMetrics.filterOf("update",
+                BsonDocument.parse("{'update': 'c', 'updates': [{'q': {'c': 3}, 'u': {'$set': {'d': 4}}}]}")));
+        assertEquals("{\"d\": \"?\"}", MongoCommandMetrics.filterOf("delete",
+                BsonDocument.parse("{'delete': 'c', 'deletes': [{'q': {'d': 4}, 'limit': 0}]}")));
+        assertEquals("{\"e\": \"?\"}", MongoCommandMetrics.filterOf("aggregate",
+                BsonDocument.parse("{'aggregate': 'c', 'pipeline': [{'$match': {'e': 5}}, {'$limit': 1}]}")));
+        assertEquals("{}", MongoCommandMetrics.filterOf("getMore",
+                BsonDocument.parse("{'getMore': {'$numberLong': '42'}, 'collection': 'c'}")));
+    }
+
+    @Test
+    void collectionOf_getMore_shouldUseCollectionField() {
+        // Act & Assert
+        assertEquals("chat_messages", MongoCommandMetrics.collectionOf("getMore",
+                BsonDocument.parse("{'getMore': {'$numberLong': '42'}, 'collection': 'chat_messages'}")));
+        assertEquals("chat_messages", MongoCommandMetrics.collectionOf("find",
+                BsonDocument.parse("{'find': 'chat_messages'}")));
+    }
+
+    @Test
+    void getMore_shouldBeTaggedWithItsCollection() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MongoCommandMetrics metrics = new MongoCommandMetrics(meterRegistry);
+        CommandStartedEvent started = mock(CommandStartedEvent.class);
+        when(started.getCommandName()).thenReturn("getMore");
+        when(started.getRequestId()).thenReturn(7);
+        when(started.getCommand()).thenReturn(BsonDocument.parse("{'getMore': {'$numberLong': '42'}, 'collection': 'chat_messages'}"));
+        CommandSucceededEvent succeeded = mock(CommandSucceededEvent.class);
+        when(succeeded.getCommandName()).thenReturn("getMore");
+        when(succeeded.getRequestId()).thenReturn(7);
+        when(succeeded.getElapsedTime(any(TimeUnit.class))).thenReturn(1_000_000L);
+        when(succeeded.getResponse()).thenReturn(BsonDocument.parse("{'cursor': {'nextBatch': [{}, {}]}, 'ok': 1}"));
+
+        // Act
+        metrics.commandStarted(started);
+        metrics.commandSucceeded(succeeded);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("chat.mongo.command").tag("collection", "chat_messages").timer().count());
+        assertEquals(2.0, meterRegistry.get("chat.mongo.command.documents").tag("collection", "chat_messages").summary().totalAmount());
+    }
+}
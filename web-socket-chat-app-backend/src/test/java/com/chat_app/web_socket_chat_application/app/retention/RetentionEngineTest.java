@@ -0,0 +1,149 @@
+package com.chat_app.web_socket_chat_application.app.retention;
+
+import com.chat_app.web_socket_chat_application.app.scheduling.JobLock;
+import com.chat_app.web_socket_chat_application.app.service.UnreadCounterService;
+import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import com.chat_app.web_socket_chat_application.domain.entity.Conversation;
+import com.chat_app.web_socket_chat_application.domain.entity.MessageBucket;
+import com.chat_app.web_socket_chat_application.domain.repository.ConversationRepository;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetentionEngineTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private JobLock jobLock;
+
+    @Mock
+    private UnreadCounterService unreadCounterService;
+
+    private RetentionEngine retentionEngine;
+
+    @BeforeEach
+    void setUp() {
+        retentionEngine = new RetentionEngine(mongoTemplate, conversationRepository, jobLock, unreadCounterService);
+        ReflectionTestUtils.setField(retentionEngine, "batchSize", 100);
+        ReflectionTestUtils.setField(retentionEngine, "orphanGraceMs", 3_600_000L);
+    }
+
+    @Test
+    void sweepOrphans_shouldPurgeOnlyOldMessagesOfConversationsThatDoNotExist() {
+        // Arrange
+        when(mongoTemplate.aggregateStream(any(Aggregation.class), eq(ChatMessage.class), eq(Document.class)))
+                .thenReturn(Stream.of(new Document("_id", "live"), new Document("_id", "gone"), new Document("_id", null)));
+        when(conversationRepository.existsById("live")).thenReturn(true);
+        when(conversationRepository.existsById("gone")).thenReturn(false);
+        when(mongoTemplate.getCollectionName(ChatMessage.class)).thenReturn("chat_messages");
+        when(mongoTemplate.getCollectionName(MessageBucket.class)).thenReturn("message_buckets");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString())).thenReturn(List.of());
+
+        // Act
+        retentionEngine.sweepOrphans();
+
+        // Assert
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(queries.capture(), eq(Document.class), anyString());
+        String messageQuery = queries.getAllValues().get(0).getQueryObject().toJson();
+        assertTrue(messageQuery.contains("\"gone\""), messageQuery);
+        assertTrue(messageQuery.contains("\"timestamp\": {\"$lt\""), messageQuery);
+        verify(conversationRepository, never()).existsById(null);
+    }
+
+    @Test
+    void sweepOrphans_whenConversationCreatedDuringSweep_shouldNotPurgeIt() {
+        // Arrange
+        when(mongoTemplate.aggregateStream(any(Aggregation.class), eq(ChatMessage.class), eq(Document.class)))
+                .thenReturn(Stream.of(new Document("_id", "new")));
+        when(conversationRepository.existsById("new")).thenReturn(true);
+
+        // Act
+        long deleted = retentionEngine.sweepOrphans();
+
+        // Assert
+        assertEquals(0, deleted);
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Document.class), anyString());
+    }
+
+    @Test
+    void enforce_whenDeletingUnreadMessages_shouldTakeThemOffTheCounters() {
+        // Arrange
+        Conversation conversation = new Conversation();
+        conversation.setId("c1");
+        conversation.setRetentionDays(30);
+        when(jobLock.tryAcquire(eq("retention"), any())).thenReturn(true);
+        when(mongoTemplate.find(any(Query.class), eq(Conversation.class))).thenReturn(List.of(conversation));
+        when(mongoTemplate.getCollectionName(ChatMessage.class)).thenReturn("chat_messages");
+        when(mongoTemplate.getCollectionName(MessageBucket.class)).thenReturn("message_buckets");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("chat_messages"))).thenReturn(List.of(
+                new Document("_id", "m1").append("conversationId", "c1").append("receiverId", "u2").append("read", false),
+                new Document("_id", "m2").append("conversationId", "c1").append("receiverId", "u2").append("read", false),
+                new Document("_id", "m3").append("conversationId", "c1").append("receiverId", "u1").append("read", true)));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("message_buckets"))).thenReturn(List.of());
+        when(mongoTemplate.remove(any(Query.class), eq("chat_messages")))
+                .thenReturn(DeleteResult.acknowledged(2), DeleteResult.acknowledged(1));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Conversation.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // Act
+        long deleted = retentionEngine.enforce();
+
+        // Assert
+        assertEquals(3, deleted);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(Conversation.class));
+        assertEquals(-2L, ((Document) update.getValue().getUpdateObject().get("$inc")).get("unreadCounts.u2"));
+        verify(unreadCounterService).decrement("u2", 2);
+        verify(unreadCounterService, never()).decrement(eq("u1"), anyLong());
+    }
+
+    @Test
+    void purgeConversation_withOnlyArchivedMessages_shouldStillDeleteBuckets() {
+        // Arrange
+        when(mongoTemplate.getCollectionName(ChatMessage.class)).thenReturn("chat_messages");
+        when(mongoTemplate.getCollectionName(MessageBucket.class)).thenReturn("message_buckets");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("message_buckets")))
+                .thenReturn(List.of(new Document("_id", "b1").append("conversationId", "c1")));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("chat_messages"))).thenReturn(List.of());
+        when(mongoTemplate.remove(any(Query.class), eq("message_buckets"))).thenReturn(DeleteResult.acknowledged(1));
+        retentionEngine.start();
+
+        // Act
+        retentionEngine.purgeConversation("c1");
+
+        // Assert
+        verify(mongoTemplate, timeout(1000)).remove(any(Query.class), eq("message_buckets"));
+        // Wait for the message pass too, so the purge has finished before the worker stops
+        verify(mongoTemplate, timeout(1000)).find(any(Query.class), eq(Document.class), eq("chat_messages"));
+        retentionEngine.stop();
+    }
+}
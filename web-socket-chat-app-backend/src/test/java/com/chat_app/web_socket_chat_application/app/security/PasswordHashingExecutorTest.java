@@ -0,0 +1,123 @@
+package com.chat_app.web_socket_chat_application.app.security;
+
+import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
+import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void matches_shouldCompareOnThePool() {
+        // Arrange
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        executor = start(encoder, 5000);
+        String hash = encoder.encode("secret");
+
+        // Act & Assert
+        assertTrue(executor.matches("secret", hash));
+        assertFalse(executor.matches("wrong", hash));
+    }
+
+    @Test
+    void matchNothing_shouldRunARealComparison() {
+        // Arrange
+        PasswordEncoder encoder = spy(new BCryptPasswordEncoder(4));
+        executor = start(encoder, 5000);
+
+        // Act
+        executor.matchNothing("secret");
+
+        // Assert: compared against a real hash, which BCrypt does not short-circuit
+        verify(encoder).matches(eq("secret"), startsWith("$2a$04$"));
+    }
+
+    @Test
+    void matches_whenPoolAndQueueAreFull_shouldRejectAtOnce() throws Exception {
+        // Arrange: one worker and one queue slot, both taken by comparisons that block
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.matches(any(), anyString())).thenAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return true;
+        });
+        executor = start(encoder, 5000);
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> executor.matches("a", "hash"));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.matches("b", "hash"));
+        awaitQueued();
+
+        // Act
+        AppException error = assertThrows(AppException.class, () -> executor.matches("c", "hash"));
+
+        // Assert
+        assertEquals(ExceptionCode.AUTHENTICATION_BUSY.getCode(), error.getCode());
+        assertEquals(1.0, meterRegistry.counter("chat.auth.hashing.rejected").count());
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matches_whenWaitExceedsTimeout_shouldGiveUp() {
+        // Arrange
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.matches(any(), anyString())).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return true;
+        });
+        executor = start(encoder, 50);
+
+        // Act
+        AppException error = assertThrows(AppException.class, () -> executor.matches("a", "hash"));
+
+        // Assert
+        assertEquals(ExceptionCode.AUTHENTICATION_BUSY.getCode(), error.getCode());
+        assertEquals(1.0, meterRegistry.counter("chat.auth.hashing.rejected").count());
+    }
+
+    private PasswordHashingExecutor start(PasswordEncoder encoder, long timeoutMs) {
+        PasswordHashingExecutor hashing = new PasswordHashingExecutor(encoder, meterRegistry);
+        ReflectionTestUtils.setField(hashing, "threads", 1);
+        ReflectionTestUtils.setField(hashing, "queueCapacity", 1);
+        ReflectionTestUtils.setField(hashing, "timeoutMs", timeoutMs);
+        hashing.start();
+        return hashing;
+    }
+
+    private void awaitQueued() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("chat.auth.hashing.queue.depth").gauge().value() < 1) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("second comparison was never queued");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.chat_app.web_socket_chat_application.app.service;
+
+import com.chat_app.web_socket_chat_application.app.attachment.BlobStore;
+import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
+import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionCode;
+import com.chat_app.web_socket_chat_application.domain.entity.Attachment;
+import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import com.chat_app.web_socket_chat_application.domain.repository.AttachmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentServiceTest {
+
+    @Mock
+    private AttachmentRepository attachmentRepository;
+
+    @Mock
+    private BlobStore blobStore;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private AttachmentService attachmentService;
+    private Attachment attachment;
+
+    @BeforeEach
+    void setUp() {
+        attachmentService = new AttachmentService(attachmentRepository, blobStore, mongoTemplate);
+        attachment = Attachment.builder().id("att1").uploaderId("user1").fileName("notes.txt")
+                .contentType("text/plain").size(10).storageKey("key-1").build();
+        when(attachmentRepository.findById("att1")).thenReturn(Optional.of(attachment));
+    }
+
+    @Test
+    void getAttachmentFor_uploader_shouldBeAllowedWithoutLookup() {
+        // Act & Assert
+        assertSame(attachment, attachmentService.getAttachmentFor("att1", "user1"));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void getAttachmentFor_participantOfConversation_shouldBeAllowed() {
+        // Arrange
+        when(mongoTemplate.exists(any(Query.class), eq(ChatMessage.class))).thenReturn(true);
+
+        // Act
+        assertSame(attachment, attachmentService.getAttachmentFor("att1", "user2"));
+
+        // Assert
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).exists(query.capture(), eq(ChatMessage.class));
+        String json = query.getValue().getQueryObject().toJson();
+        assertTrue(json.contains("\"senderId\": \"user2\"") && json.contains("\"receiverId\": \"user2\""), json);
+    }
+
+    @Test
+    void getAttachmentFor_nonParticipant_shouldBeForbidden() {
+        // Arrange
+        when(mongoTemplate.exists(any(Query.class), eq(ChatMessage.class))).thenReturn(false);
+
+        // Act & Assert
+        AppException e = assertThrows(AppException.class, () -> attachmentService.getAttachmentFor("att1", "user3"));
+        assertEquals(ExceptionCode.ATTACHMENT_FORBIDDEN.getCode(), e.getCode());
+    }
+
+    @Test
+    void getAttachmentInfo_byOtherThanUploader_shouldBeForbidden() {
+        // Act & Assert
+        AppException e = assertThrows(AppException.class, () -> attachmentService.getAttachmentInfo("att1", "user2"));
+        assertEquals(ExceptionCode.ATTACHMENT_FORBIDDEN.getCode(), e.getCode());
+    }
+
+    @Test
+    void getAttachmentInfo_byUploader_shouldReturnMetadata() {
+        // Act
+        ChatMessage.AttachmentInfo info = attachmentService.getAttachmentInfo("att1", "user1");
+
+        // Assert
+        assertEquals("att1", info.getId());
+        assertEquals("notes.txt", info.getFileName());
+    }
+}
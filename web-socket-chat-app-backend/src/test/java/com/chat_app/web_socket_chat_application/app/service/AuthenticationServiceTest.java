@@ -0,0 +1,117 @@
+package com.chat_app.web_socket_chat_application.app.service;
+
+import com.chat_app.web_socket_chat_application.api.dto.AuthenticationDTO;
+import com.chat_app.web_socket_chat_application.api.response.AuthenticationResponse;
+import com.chat_app.web_socket_chat_application.app.cache.CacheInvalidationBus;
+import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
+import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionCode;
+import com.chat_app.web_socket_chat_application.app.presence.PresenceUpdater;
+import com.chat_app.web_socket_chat_application.app.security.PasswordHashingExecutor;
+import com.chat_app.web_socket_chat_application.app.security.RefreshTokenStore;
+import com.chat_app.web_socket_chat_application.config.JwtUtil;
+import com.chat_app.web_socket_chat_application.domain.entity.User;
+import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private PasswordHashingExecutor passwordHashing;
+
+    @Mock
+    private PresenceUpdater presenceUpdater;
+
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @InjectMocks
+    private AuthenticationService authenticationService;
+
+    @Test
+    void login_withValidCredentials_shouldIssueTokens() {
+        // Arrange
+        when(userRepository.findByPhoneNumber("1234567890")).thenReturn(createSampleUser());
+        when(passwordHashing.matches("secret", "hash")).thenReturn(true);
+        when(jwtUtil.generateToken("1234567890")).thenReturn("jwt");
+        when(refreshTokenStore.issue("user1")).thenReturn("refresh");
+
+        // Act
+        AuthenticationResponse response = authenticationService.login(credentials("secret"));
+
+        // Assert
+        assertEquals("jwt", response.getToken());
+        assertEquals("refresh", response.getRefreshToken());
+        verify(presenceUpdater).updateStatus("user1", "online");
+    }
+
+    @Test
+    void login_withWrongPassword_shouldBeRejected() {
+        // Arrange
+        when(userRepository.findByPhoneNumber("1234567890")).thenReturn(createSampleUser());
+        when(passwordHashing.matches("wrong", "hash")).thenReturn(false);
+
+        // Act & Assert
+        AppException error = assertThrows(AppException.class, () -> authenticationService.login(credentials("wrong")));
+        assertEquals(ExceptionCode.INVALID_PASSWORD.getCode(), error.getCode());
+        verifyNoInteractions(refreshTokenStore);
+    }
+
+    @Test
+    void login_withUnknownUser_shouldStillHashBeforeRejecting() {
+        // Arrange
+        when(userRepository.findByPhoneNumber("1234567890")).thenReturn(null);
+
+        // Act & Assert
+        AppException error = assertThrows(AppException.class, () -> authenticationService.login(credentials("secret")));
+        assertEquals(ExceptionCode.USER_NOT_EXISTED.getCode(), error.getCode());
+        verify(passwordHashing).matchNothing("secret");
+        verify(passwordHashing, never()).matches(any(), anyString());
+    }
+
+    @Test
+    void login_whenHashingIsSaturated_shouldReportBusy() {
+        // Arrange
+        when(userRepository.findByPhoneNumber("1234567890")).thenReturn(null);
+        doThrow(new AppException(ExceptionCode.AUTHENTICATION_BUSY)).when(passwordHashing).matchNothing("secret");
+
+        // Act & Assert
+        AppException error = assertThrows(AppException.class, () -> authenticationService.login(credentials("secret")));
+        assertEquals(ExceptionCode.AUTHENTICATION_BUSY.getCode(), error.getCode());
+    }
+
+    private static AuthenticationDTO credentials(String password) {
+        AuthenticationDTO dto = new AuthenticationDTO();
+        dto.setPhoneNumber("1234567890");
+        dto.setPassword(password);
+        return dto;
+    }
+
+    private static User createSampleUser() {
+        User user = new User();
+        user.setId("user1");
+        user.setName("John Doe");
+        user.setPhoneNumber("1234567890");
+        user.setPassword("hash");
+        return user;
+    }
+}
@@ -0,0 +1,246 @@
+package com.chat_app.web_socket_chat_application.app.service;
+
+import com.chat_app.web_socket_chat_application.api.dto.ConversationDTO;
+import com.chat_app.web_socket_chat_application.app.cache.CacheInvalidationBus;
+import com.chat_app.web_socket_chat_application.app.exceptions.AppException;
+import com.chat_app.web_socket_chat_application.app.exceptions.ExceptionCode;
+import com.chat_app.web_socket_chat_application.app.inbox.InboxBackfill;
+import com.chat_app.web_socket_chat_application.app.retention.RetentionEngine;
+import com.chat_app.web_socket_chat_application.domain.entity.Conversation;
+import com.chat_app.web_socket_chat_application.domain.entity.UnreadCounter;
+import com.chat_app.web_socket_chat_application.domain.projection.UserName;
+import com.chat_app.web_socket_chat_application.domain.repository.ConversationRepository;
+import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConversationServiceTest {
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Mock
+    private RetentionEngine retentionEngine;
+
+    @Mock
+    private InboxService inboxService;
+
+    @Mock
+    private InboxBackfill inboxBackfill;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ConversationService conversationService;
+
+    // Stands in for the conversation document and the unread_counters collection; every
+    // fake write is applied atomically, as Mongo applies a single-document update
+    private final Object store = new Object();
+    private Map<String, Integer> unreadCounts;
+    private final Map<String, Long> totals = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        conversationService = new ConversationService(conversationRepository, userRepository, cacheInvalidationBus,
+                retentionEngine, new UnreadCounterService(mongoTemplate), inboxService, inboxBackfill, mongoTemplate);
+        unreadCounts = new HashMap<>(Map.of("user1", 2, "user2", 3));
+        totals.put("user1", 2L);
+        totals.put("user2", 3L);
+
+        lenient().when(inboxService.onMessage(anyString(), anyString(), anyString(), anyString(), anyString())).thenReturn(true);
+        lenient().when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Conversation.class))).thenAnswer(invocation -> {
+            Update update = invocation.getArgument(1);
+            synchronized (store) {
+                if (unreadCounts == null) {
+                    return UpdateResult.acknowledged(0, 0L, null);
+                }
+                update.getUpdateObject().get("$inc", Document.class).forEach((field, delta) -> {
+                    if (field.startsWith("unreadCounts.")) {
+                        unreadCounts.merge(field.substring("unreadCounts.".length()), ((Number) delta).intValue(), Integer::sum);
+                    }
+                });
+                return UpdateResult.acknowledged(1, 1L, null);
+            }
+        });
+        lenient().when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(UnreadCounter.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            Update update = invocation.getArgument(1);
+            long delta = ((Number) update.getUpdateObject().get("$inc", Document.class).get("total")).longValue();
+            synchronized (store) {
+                totals.merge(query.getQueryObject().getString("_id"), delta, Long::sum);
+            }
+            return UpdateResult.acknowledged(1, 1L, null);
+        });
+        lenient().when(mongoTemplate.findAndRemove(any(Query.class), eq(Conversation.class))).thenAnswer(invocation -> {
+            synchronized (store) {
+                if (unreadCounts == null) {
+                    return null;
+                }
+                Conversation removed = createSampleConversation();
+                removed.setUnreadCounts(new HashMap<>(unreadCounts));
+                unreadCounts = null;
+                return removed;
+            }
+        });
+    }
+
+    @Test
+    void updateLastMessage_shouldCountOneUnreadForRecipient() {
+        // Act
+        conversationService.updateLastMessage("conv1", "user1", "user2", "Hello", "2024-01-01T10:00:00.000Z");
+
+        // Assert
+        assertEquals(4, unreadCounts.get("user2"));
+        assertEquals(4L, totals.get("user2"));
+        assertEquals(2L, totals.get("user1"));
+    }
+
+    @Test
+    void deleteConversation_shouldTakeRemovedCountsOffTotals() {
+        // Act
+        conversationService.deleteConversation("conv1");
+
+        // Assert
+        assertEquals(0L, totals.get("user1"));
+        assertEquals(0L, totals.get("user2"));
+        verify(inboxService).onDeleted(any(Conversation.class));
+        verify(retentionEngine).purgeConversation("conv1");
+    }
+
+    @Test
+    void deleteConversation_whenMissing_shouldThrowAndLeaveTotals() {
+        // Arrange
+        conversationService.deleteConversation("conv1");
+
+        // Act & Assert
+        AppException error = assertThrows(AppException.class, () -> conversationService.deleteConversation("conv1"));
+        assertEquals(ExceptionCode.CHATROOM_NOT_EXISTED.getCode(), error.getCode());
+        assertEquals(0L, totals.get("user2"));
+    }
+
+    @Test
+    void concurrentSendsAndDelete_shouldLeaveNoUnreadBehind() throws Exception {
+        // Arrange
+        int senders = 8;
+        int messagesPerSender = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(senders + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < senders; i++) {
+            String recipient = i % 2 == 0 ? "user2" : "user1";
+            String sender = i % 2 == 0 ? "user1" : "user2";
+            tasks.add(executor.submit(() -> {
+                start.await();
+                for (int m = 0; m < messagesPerSender; m++) {
+                    try {
+                        conversationService.updateLastMessage("conv1", sender, recipient, "Hello", "2024-01-01T10:00:00.000Z");
+                    } catch (AppException e) {
+                        // Deleted meanwhile
+                    }
+                }
+                return null;
+            }));
+        }
+        tasks.add(executor.submit(() -> {
+            start.await();
+            Thread.sleep(1);
+            conversationService.deleteConversation("conv1");
+            return null;
+        }));
+        start.countDown();
+        for (Future<?> task : tasks) {
+            task.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(0L, totals.get("user1"));
+        assertEquals(0L, totals.get("user2"));
+    }
+
+    private Conversation createSampleConversation() {
+        Conversation conversation = new Conversation();
+        conversation.setId("conv1");
+        conversation.setSenderId("user1");
+        conversation.setReceiverId("user2");
+        return conversation;
+    }
+
+    @Test
+    void getUserConversations_whenUserMaterialized_shouldServeInboxBeforeBackfillCompletes() {
+        // Arrange
+        List<ConversationDTO> inbox = List.of(ConversationDTO.builder().id("conv1").build());
+        when(inboxService.getInbox("user1")).thenReturn(inbox);
+        when(inboxBackfill.isComplete()).thenReturn(false);
+        when(inboxService.isMaterialized("user1")).thenReturn(true);
+
+        // Act
+        List<ConversationDTO> result = conversationService.getUserConversations("user1");
+
+        // Assert
+        assertEquals(inbox, result);
+        verify(conversationRepository, never()).findBySenderIdOrReceiverId(anyString(), anyString());
+    }
+
+    @Test
+    void getUserConversations_whenNotMaterialized_shouldLookUpUsersOnceAndMarkMaterialized() {
+        // Arrange
+        Conversation withJane = new Conversation();
+        withJane.setId("conv1");
+        withJane.setSenderId("user1");
+        withJane.setReceiverId("user2");
+        Conversation withSelf = new Conversation();
+        withSelf.setId("conv2");
+        withSelf.setSenderId("user1");
+        withSelf.setReceiverId("user1");
+        when(inboxService.getInbox("user1")).thenReturn(List.of(ConversationDTO.builder().id("conv2").build()));
+        when(conversationRepository.findBySenderIdOrReceiverId("user1", "user1")).thenReturn(new ArrayList<>(List.of(withJane, withSelf)));
+        when(userRepository.findProjectedByIdIn(any(), eq(UserName.class)))
+                .thenReturn(List.of(new UserName("user1", "John Doe"), new UserName("user2", "Jane Smith")));
+
+        // Act
+        List<ConversationDTO> result = conversationService.getUserConversations("user1");
+
+        // Assert
+        assertEquals(List.of("Jane Smith", "John Doe"), result.stream().map(ConversationDTO::getDisplayName).toList());
+        verify(userRepository, times(1)).findProjectedByIdIn(any(), eq(UserName.class));
+        verify(userRepository, never()).findProjectedById(anyString(), any());
+        verify(inboxService).rebuild(eq(withJane), any(UserName.class), any(UserName.class));
+        verify(inboxService, never()).rebuild(eq(withSelf), any(UserName.class), any(UserName.class));
+        verify(inboxService).markMaterialized("user1");
+    }
+}
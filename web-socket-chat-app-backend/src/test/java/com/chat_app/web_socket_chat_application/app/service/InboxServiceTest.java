@@ -0,0 +1,199 @@
+package com.chat_app.web_socket_chat_application.app.service;
+
+import com.chat_app.web_socket_chat_application.domain.entity.Conversation;
+import com.chat_app.web_socket_chat_application.domain.entity.InboxEntry;
+import com.chat_app.web_socket_chat_application.domain.projection.UserName;
+import com.chat_app.web_socket_chat_application.domain.repository.InboxEntryRepository;
+import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InboxServiceTest {
+
+    @Mock
+    private InboxEntryRepository inboxEntryRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private InboxService inboxService;
+
+    @BeforeEach
+    void setUp() {
+        inboxService = new InboxService(inboxEntryRepository, userRepository, mongoTemplate);
+    }
+
+    @Test
+    void getVersion_withoutInbox_shouldReturnNull() {
+        // Act & Assert
+        assertNull(inboxService.getVersion("user1"));
+    }
+
+    @Test
+    void getVersion_shouldReturnStoredCounter() {
+        // Arrange
+        when(mongoTemplate.findById("user1", Document.class, "inbox_versions")).thenReturn(new Document("version", 7));
+
+        // Act & Assert
+        assertEquals(7L, inboxService.getVersion("user1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_shouldWriteOneEntryPerParticipantWithTheOtherAsCounterpart() {
+        // Arrange
+        Conversation conversation = createSampleConversation();
+
+        // Act
+        inboxService.rebuild(conversation, new UserName("user1", "John Doe"), new UserName("user2", "Jane Smith"));
+
+        // Assert
+        ArgumentCaptor<List<InboxEntry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(inboxEntryRepository).saveAll(entries.capture());
+        InboxEntry senderEntry = entries.getValue().get(0);
+        InboxEntry receiverEntry = entries.getValue().get(1);
+        assertEquals("conv1_user1", senderEntry.getId());
+        assertEquals("Jane Smith", senderEntry.getCounterpartName());
+        assertEquals(0, senderEntry.getUnreadCount());
+        assertEquals("conv1_user2", receiverEntry.getId());
+        assertEquals("John Doe", receiverEntry.getCounterpartName());
+        assertEquals(3, receiverEntry.getUnreadCount());
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), any(Update.class), eq("inbox_versions"));
+    }
+
+    @Test
+    void rebuild_whenParticipantMissing_shouldWriteNothing() {
+        // Arrange
+        when(userRepository.findProjectedById("user1", UserName.class)).thenReturn(Optional.of(new UserName("user1", "John Doe")));
+        when(userRepository.findProjectedById("user2", UserName.class)).thenReturn(Optional.empty());
+
+        // Act
+        inboxService.rebuild(createSampleConversation());
+
+        // Assert
+        verifyNoInteractions(inboxEntryRepository);
+    }
+
+    @Test
+    void onMessage_whenEntriesExist_shouldCountUnreadForRecipientAndBumpBothVersions() {
+        // Arrange
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(InboxEntry.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+
+        // Act
+        boolean applied = inboxService.onMessage("conv1", "user1", "user2", "Hello", "2024-01-01T10:00:00.000Z");
+
+        // Assert
+        assertTrue(applied);
+        ArgumentCaptor<Query> unread = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateFirst(unread.capture(), any(Update.class), eq(InboxEntry.class));
+        assertEquals("conv1_user2", unread.getValue().getQueryObject().get("_id"));
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), any(Update.class), eq("inbox_versions"));
+    }
+
+    @Test
+    void onMessage_whenEntriesMissing_shouldAskForRebuild() {
+        // Arrange
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(InboxEntry.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // Act
+        boolean applied = inboxService.onMessage("conv1", "user1", "user2", "Hello", "2024-01-01T10:00:00.000Z");
+
+        // Assert
+        assertFalse(applied);
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(InboxEntry.class));
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), anyString());
+    }
+
+    @Test
+    void onMessage_inSelfConversation_shouldApplyToTheSingleEntry() {
+        // Arrange
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(InboxEntry.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // Act
+        boolean applied = inboxService.onMessage("conv1", "user1", "user1", "Note", "2024-01-01T10:00:00.000Z");
+
+        // Assert
+        assertTrue(applied);
+        verify(mongoTemplate, times(1)).upsert(any(Query.class), any(Update.class), eq("inbox_versions"));
+    }
+
+    @Test
+    void onPresenceChanged_shouldUpdateEntriesShowingTheUserAndBumpTheirOwners() {
+        // Arrange
+        when(mongoTemplate.updateMulti(any(Query.class), eq(Update.update("online", true)), eq(InboxEntry.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+        when(mongoTemplate.find(any(Query.class), eq(InboxEntry.class))).thenReturn(List.of(
+                InboxEntry.builder().userId("user2").build(), InboxEntry.builder().userId("user3").build()));
+
+        // Act
+        inboxService.onPresenceChanged("user1", true);
+
+        // Assert
+        ArgumentCaptor<Query> shown = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(shown.capture(), any(Update.class), eq(InboxEntry.class));
+        assertEquals("user1", shown.getValue().getQueryObject().get("counterpartId"));
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), any(Update.class), eq("inbox_versions"));
+    }
+
+    @Test
+    void onRenamed_whenNothingChanged_shouldLeaveVersionsAlone() {
+        // Arrange
+        when(mongoTemplate.updateMulti(any(Query.class), eq(Update.update("counterpartName", "Johnny")), eq(InboxEntry.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        // Act
+        inboxService.onRenamed("user1", "Johnny");
+
+        // Assert
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), anyString());
+    }
+
+    @Test
+    void onRead_shouldResetUnreadAndBumpReaderVersion() {
+        // Act
+        inboxService.onRead("conv1", "user2");
+
+        // Assert
+        verify(mongoTemplate).updateFirst(any(Query.class), eq(Update.update("unreadCount", 0)), eq(InboxEntry.class));
+        verify(mongoTemplate, times(1)).upsert(any(Query.class), any(Update.class), eq("inbox_versions"));
+    }
+
+    private Conversation createSampleConversation() {
+        Conversation conversation = new Conversation();
+        conversation.setId("conv1");
+        conversation.setSenderId("user1");
+        conversation.setReceiverId("user2");
+        conversation.setLastMessage("Hello");
+        conversation.setUnreadCounts(Map.of("user2", 3));
+        return conversation;
+    }
+}
@@ -0,0 +1,93 @@
+package com.chat_app.web_socket_chat_application.app.service;
+
+import com.chat_app.web_socket_chat_application.domain.entity.Conversation;
+import com.chat_app.web_socket_chat_application.domain.entity.UnreadCounter;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadCounterServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private UnreadCounterService unreadCounterService;
+
+    @BeforeEach
+    void setUp() {
+        unreadCounterService = new UnreadCounterService(mongoTemplate);
+    }
+
+    @Test
+    void getTotalUnread_shouldReturnStoredTotal() {
+        // Arrange
+        when(mongoTemplate.findById("user1", UnreadCounter.class)).thenReturn(new UnreadCounter("user1", 5));
+
+        // Act & Assert
+        assertEquals(5, unreadCounterService.getTotalUnread("user1"));
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), any(String.class), eq(Document.class));
+    }
+
+    @Test
+    void getTotalUnread_whenNegative_shouldRecountFromConversations() {
+        // Arrange
+        when(mongoTemplate.findById("user1", UnreadCounter.class)).thenReturn(new UnreadCounter("user1", -2));
+        stubRecount(4);
+
+        // Act
+        long total = unreadCounterService.getTotalUnread("user1");
+
+        // Assert
+        assertEquals(4, total);
+        verify(mongoTemplate).updateFirst(any(Query.class), eq(Update.update("total", 4L)), eq(UnreadCounter.class));
+    }
+
+    @Test
+    void getTotalUnread_whenNeverCounted_shouldStoreRecountUnlessCreatedMeanwhile() {
+        // Arrange
+        when(mongoTemplate.findById("user1", UnreadCounter.class)).thenReturn(null, new UnreadCounter("user1", 3));
+        stubRecount(3);
+
+        // Act
+        long total = unreadCounterService.getTotalUnread("user1");
+
+        // Assert
+        assertEquals(3, total);
+        verify(mongoTemplate).upsert(any(Query.class), eq(new Update().setOnInsert("total", 3L)), eq(UnreadCounter.class));
+    }
+
+    @Test
+    void decrement_shouldIncByNegativeCountAndSkipZero() {
+        // Act
+        unreadCounterService.decrement("user1", 3);
+        unreadCounterService.decrement("user1", 0);
+
+        // Assert
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(UnreadCounter.class));
+        assertEquals(-3L, update.getValue().getUpdateObject().get("$inc", Document.class).get("total"));
+    }
+
+    private void stubRecount(long total) {
+        when(mongoTemplate.getCollectionName(Conversation.class)).thenReturn("conversations");
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("conversations"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(new Document("total", total)), new Document()));
+    }
+}
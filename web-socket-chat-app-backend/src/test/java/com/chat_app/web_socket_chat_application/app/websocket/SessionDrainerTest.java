@@ -0,0 +1,171 @@
+package com.chat_app.web_socket_chat_application.app.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SessionDrainerTest {
+
+    private OutboundSessionRegistry registry;
+    private SessionDrainer drainer;
+    private FakeTicker ticker;
+
+    // Session id -> fake time at which it was closed
+    private final Map<String, Long> closedAt = new LinkedHashMap<>();
+    private final Map<String, CloseStatus> closeStatus = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        registry = new OutboundSessionRegistry(new SimpleMeterRegistry());
+        drainer = new SessionDrainer(registry);
+        ticker = new FakeTicker();
+        ReflectionTestUtils.setField(drainer, "ticker", ticker);
+        ReflectionTestUtils.setField(drainer, "enabled", true);
+        ReflectionTestUtils.setField(drainer, "spreadMs", 20_000L);
+        ReflectionTestUtils.setField(drainer, "flushTimeoutMs", 2_000L);
+        ReflectionTestUtils.setField(drainer, "reconnectJitterMs", 10_000L);
+        ReflectionTestUtils.setField(drainer, "timeoutMs", 30_000L);
+    }
+
+    @Test
+    void drain_shouldCloseEverySessionOnceWithinTheSpread() throws Exception {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            open("session" + i);
+        }
+
+        // Act
+        drainer.drain();
+
+        // Assert
+        assertEquals(20, closedAt.size());
+        closedAt.values().forEach(at -> assertTrue(at <= 20_000, "closed at " + at));
+        closeStatus.values().forEach(status -> {
+            assertEquals(OutboundSessionRegistry.DRAIN_CLOSE_CODE, status.getCode());
+            assertTrue(status.getReason().startsWith("draining;reconnect-after="));
+            long reconnectAfter = Long.parseLong(status.getReason().substring("draining;reconnect-after=".length()));
+            assertTrue(reconnectAfter >= 0 && reconnectAfter <= 10_000);
+        });
+        assertTrue(ticker.now <= 20_000);
+    }
+
+    @Test
+    void drain_shouldWaitForPendingFramesBeforeClosing() throws Exception {
+        // Arrange: three frames queued, one written every 100 ms of fake time
+        ReflectionTestUtils.setField(drainer, "spreadMs", 0L);
+        open("session1");
+        for (int i = 0; i < 3; i++) {
+            registry.onEnqueued("session1");
+        }
+        ticker.onSleep = () -> {
+            if (ticker.now % 100 == 0) {
+                registry.onWritten("session1");
+            }
+        };
+
+        // Act
+        drainer.drain();
+
+        // Assert
+        assertEquals(0, registry.getDepth("session1"));
+        assertEquals(300L, closedAt.get("session1"));
+    }
+
+    @Test
+    void drain_shouldGiveUpOnFlushAfterFlushTimeout() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(drainer, "spreadMs", 0L);
+        open("session1");
+        registry.onEnqueued("session1");
+
+        // Act
+        drainer.drain();
+
+        // Assert
+        assertEquals(2_000L, closedAt.get("session1"));
+    }
+
+    @Test
+    void drain_shouldCloseTheRestAtTheDeadline() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(drainer, "spreadMs", 60_000L);
+        ReflectionTestUtils.setField(drainer, "timeoutMs", 5_000L);
+        for (int i = 0; i < 50; i++) {
+            open("session" + i);
+        }
+
+        // Act
+        drainer.drain();
+
+        // Assert
+        assertEquals(50, closedAt.size());
+        closedAt.values().forEach(at -> assertTrue(at <= 5_000, "closed at " + at));
+        assertTrue(ticker.now <= 5_000);
+    }
+
+    @Test
+    void beforeHandshake_whileDraining_shouldRefuseWith503() throws Exception {
+        // Arrange
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        ServletServerHttpResponse response = new ServletServerHttpResponse(servletResponse);
+        assertTrue(drainer.beforeHandshake(mock(ServerHttpRequest.class), response, mock(WebSocketHandler.class), new HashMap<>()));
+
+        // Act
+        drainer.drain();
+        boolean accepted = drainer.beforeHandshake(mock(ServerHttpRequest.class), response, mock(WebSocketHandler.class), new HashMap<>());
+        response.flush();
+
+        // Assert
+        assertFalse(accepted);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), servletResponse.getStatus());
+        assertEquals("1", servletResponse.getHeader("Retry-After"));
+    }
+
+    private void open(String sessionId) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(sessionId);
+        doAnswer(invocation -> {
+            closedAt.put(sessionId, ticker.now);
+            closeStatus.put(sessionId, invocation.getArgument(0));
+            return null;
+        }).when(session).close(any(CloseStatus.class));
+        registry.register(session);
+    }
+
+    // Sleeping advances the time instead of waiting
+    private static class FakeTicker implements SessionDrainer.Ticker {
+        private long now;
+        private Runnable onSleep = () -> { };
+
+        @Override
+        public long currentTimeMillis() {
+            return now;
+        }
+
+        @Override
+        public void sleep(long millis) {
+            for (long i = 0; i < millis; i++) {
+                now++;
+                onSleep.run();
+            }
+        }
+    }
+}
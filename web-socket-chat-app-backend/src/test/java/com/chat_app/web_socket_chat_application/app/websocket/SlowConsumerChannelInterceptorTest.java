@@ -0,0 +1,159 @@
+package com.chat_app.web_socket_chat_application.app.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlowConsumerChannelInterceptorTest {
+
+    private static final String SESSION = "session1";
+
+    @Mock
+    private WebSocketSession session;
+
+    @Mock
+    private MessageChannel channel;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundSessionRegistry registry;
+    private SlowConsumerChannelInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new OutboundSessionRegistry(meterRegistry);
+        ReflectionTestUtils.setField(registry, "dropEphemeralDepth", 2);
+        ReflectionTestUtils.setField(registry, "notificationOnlyDepth", 4);
+        ReflectionTestUtils.setField(registry, "disconnectDepth", 6);
+        ReflectionTestUtils.setField(registry, "resumeAfterMs", 5000L);
+        interceptor = new SlowConsumerChannelInterceptor(registry, new ObjectMapper());
+        ReflectionTestUtils.setField(interceptor, "ephemeralDestinations", List.of("/topic/typing"));
+        lenient().when(session.getId()).thenReturn(SESSION);
+        registry.register(session);
+    }
+
+    @Test
+    void preSend_belowThresholds_shouldPassAndCountTheFrame() {
+        // Arrange
+        Message<byte[]> frame = frame("/topic/typing");
+
+        // Act
+        Message<?> result = interceptor.preSend(frame, channel);
+
+        // Assert
+        assertSame(frame, result);
+        assertEquals(1, registry.getDepth(SESSION));
+    }
+
+    @Test
+    void preSend_whenBehind_shouldDropEphemeralEventsOnly() {
+        // Arrange
+        backlog(2);
+
+        // Act
+        Message<?> typing = interceptor.preSend(frame("/topic/typing"), channel);
+        Message<?> chat = interceptor.preSend(frame("/queue/user.user1.messages"), channel);
+
+        // Assert
+        assertNull(typing);
+        assertEquals("{\"text\":\"hello\"}", new String((byte[]) chat.getPayload(), StandardCharsets.UTF_8));
+        assertEquals(1.0, meterRegistry.counter("chat.websocket.slow_consumer.dropped", "reason", "ephemeral").count());
+        assertEquals(3, registry.getDepth(SESSION));
+    }
+
+    @Test
+    void preSend_whenFarBehind_shouldSendNotificationInsteadOfBody() {
+        // Arrange
+        backlog(4);
+
+        // Act
+        Message<?> result = interceptor.preSend(frame("/queue/user.user1.messages",
+                "{\"id\":\"m1\",\"conversationId\":\"c\\\"1\",\"content\":\"hello\"}"), channel);
+
+        // Assert
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(result);
+        assertEquals("true", accessor.getFirstNativeHeader(SlowConsumerChannelInterceptor.NOTIFICATION_ONLY_HEADER));
+        assertEquals("{\"type\":\"NOTIFICATION\",\"destination\":\"/queue/user.user1.messages\",\"messageId\":\"m1\",\"conversationId\":\"c\\\"1\"}",
+                new String((byte[]) result.getPayload(), StandardCharsets.UTF_8));
+        assertEquals(1.0, meterRegistry.counter("chat.websocket.slow_consumer.dropped", "reason", "notification_only").count());
+    }
+
+    @Test
+    void preSend_atDisconnectDepth_shouldCloseOnceWithResumeHint() throws Exception {
+        // Arrange
+        backlog(6);
+
+        // Act
+        Message<?> first = interceptor.preSend(frame("/queue/user.user1.messages"), channel);
+        Message<?> second = interceptor.preSend(frame("/queue/user.user1.messages"), channel);
+
+        // Assert
+        assertNull(first);
+        assertNull(second);
+        ArgumentCaptor<CloseStatus> status = ArgumentCaptor.forClass(CloseStatus.class);
+        verify(session, times(1)).close(status.capture());
+        assertEquals(OutboundSessionRegistry.SLOW_CONSUMER_CLOSE_CODE, status.getValue().getCode());
+        assertEquals("slow-consumer;resume-after=5000", status.getValue().getReason());
+        assertEquals(1.0, meterRegistry.counter("chat.websocket.slow_consumer.disconnected").count());
+    }
+
+    @Test
+    void depthGauges_shouldAggregateOverSessionsWithoutPerSessionSeries() {
+        // Arrange
+        WebSocketSession other = mock(WebSocketSession.class);
+        when(other.getId()).thenReturn("session2");
+        registry.register(other);
+        backlog(3);
+        registry.onEnqueued("session2");
+
+        // Act & Assert
+        assertEquals(3.0, meterRegistry.get("chat.websocket.outbound.queue.depth.max").gauge().value());
+        assertEquals(4.0, meterRegistry.get("chat.websocket.outbound.queue.depth.total").gauge().value());
+        assertEquals(0, meterRegistry.find("chat.websocket.outbound.queue.depth").tagKeys("session").meters().size());
+
+        registry.unregister(SESSION);
+        assertEquals(1.0, meterRegistry.get("chat.websocket.outbound.queue.depth.max").gauge().value());
+    }
+
+    private void backlog(int frames) {
+        for (int i = 0; i < frames; i++) {
+            registry.onEnqueued(SESSION);
+        }
+    }
+
+    private static Message<byte[]> frame(String destination) {
+        return frame(destination, "{\"text\":\"hello\"}");
+    }
+
+    private static Message<byte[]> frame(String destination, String body) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setSessionId(SESSION);
+        accessor.setDestination(destination);
+        accessor.setHeader("simpMessageType", SimpMessageType.MESSAGE);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(body.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}
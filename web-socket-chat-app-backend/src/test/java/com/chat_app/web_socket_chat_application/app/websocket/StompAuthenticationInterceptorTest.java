@@ -0,0 +1,121 @@
+package com.chat_app.web_socket_chat_application.app.websocket;
+
+import com.chat_app.web_socket_chat_application.domain.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+class StompAuthenticationInterceptorTest {
+
+    private static final StompPrincipal USER1 = new StompPrincipal("user1", "1234567890", Instant.now().plusSeconds(3600));
+
+    @Mock
+    private JwtDecoder jwtDecoder;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MessageChannel channel;
+
+    private StompAuthenticationInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new StompAuthenticationInterceptor(jwtDecoder, userRepository);
+    }
+
+    @Test
+    void subscribe_toOwnQueue_shouldBeAllowed() {
+        // Arrange
+        Message<?> message = subscribe("/queue/user.user1.messages");
+
+        // Act & Assert
+        assertSame(message, interceptor.preSend(message, channel));
+    }
+
+    @Test
+    void subscribe_toTopic_shouldBeAllowed() {
+        // Arrange
+        Message<?> message = subscribe("/topic/presence");
+
+        // Act & Assert
+        assertSame(message, interceptor.preSend(message, channel));
+    }
+
+    @Test
+    void subscribe_toForeignUserQueue_shouldBeRejected() {
+        // Arrange
+        Message<?> message = subscribe("/queue/user.user2.messages");
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message, channel));
+    }
+
+    @Test
+    void subscribe_toOwnIdAsPrefixOfForeignId_shouldBeRejected() {
+        // Arrange
+        Message<?> message = subscribe("/queue/user.user12.messages");
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message, channel));
+    }
+
+    @Test
+    void subscribe_toOtherQueue_shouldBeRejected() {
+        // Arrange
+        Message<?> message = subscribe("/queue/admin");
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message, channel));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/queue/**", "/queue/*", "/queue/user.*.messages", "/queue/user.user1.messages/**",
+            "/queue/user.?ser2.messages", "/queue/{user}", "/topic/#", "/topic/*"})
+    void subscribe_withWildcard_shouldBeRejected(String destination) {
+        // Arrange
+        Message<?> message = subscribe(destination);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message, channel));
+    }
+
+    @Test
+    void subscribe_withoutPrincipal_shouldBeRejected() {
+        // Arrange
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination("/queue/user.user1.messages");
+        accessor.setLeaveMutable(true);
+        Message<?> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message, channel));
+    }
+
+    private static Message<?> subscribe(String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setUser(USER1);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
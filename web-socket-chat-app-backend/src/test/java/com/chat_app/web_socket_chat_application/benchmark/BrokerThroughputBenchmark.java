@@ -0,0 +1,197 @@
+package com.chat_app.web_socket_chat_application.benchmark;
+
+import com.chat_app.web_socket_chat_application.app.messaging.ShardedSubscriptionRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SubscriptionRegistry;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares publish-to-deliver throughput of the in-process broker (default and sharded
+ * subscription registry) with the RabbitMQ STOMP relay.
+ * Run with {@code mvn test -Pbenchmark}; the relay case needs {@code -Dbenchmark.relay.host}.
+ */
+@Tag("benchmark")
+class BrokerThroughputBenchmark {
+
+    private static final int DESTINATIONS = Integer.getInteger("benchmark.destinations", 1_000);
+    private static final int MESSAGES = Integer.getInteger("benchmark.messages", 200_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", Runtime.getRuntime().availableProcessors());
+    private static final int SHARDS = Integer.getInteger("benchmark.shards", Runtime.getRuntime().availableProcessors());
+    private static final byte[] PAYLOAD = "{\"content\":\"benchmark\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void simpleBrokerWithDefaultRegistry() throws Exception {
+        runSimpleBroker("simple/default", new DefaultSubscriptionRegistry());
+    }
+
+    @Test
+    void simpleBrokerWithShardedRegistry() throws Exception {
+        runSimpleBroker("simple/sharded", new ShardedSubscriptionRegistry(SHARDS));
+    }
+
+    @Test
+    void stompBrokerRelay() throws Exception {
+        String host = System.getProperty("benchmark.relay.host");
+        assumeTrue(host != null, "Set -Dbenchmark.relay.host to benchmark the RabbitMQ relay");
+
+        CountingChannel outbound = new CountingChannel();
+        StompBrokerRelayMessageHandler relay = new StompBrokerRelayMessageHandler(
+                new ExecutorSubscribableChannel(), outbound, new ExecutorSubscribableChannel(), List.of("/topic", "/queue"));
+        relay.setRelayHost(host);
+        relay.setRelayPort(Integer.getInteger("benchmark.relay.port", 61613));
+        relay.start();
+        try {
+            awaitAvailable(relay);
+            // Relay sessions are real broker connections, so keep their number modest
+            int destinations = Math.min(DESTINATIONS, 100);
+            for (int i = 0; i < destinations; i++) {
+                relay.handleMessage(stompFrame(StompCommand.CONNECT, "s" + i, null, null));
+            }
+            Thread.sleep(2000);
+            for (int i = 0; i < destinations; i++) {
+                relay.handleMessage(stompFrame(StompCommand.SUBSCRIBE, "s" + i, "sub" + i, "/queue/bench." + i));
+            }
+            Thread.sleep(2000);
+            outbound.count.reset();
+
+            int messages = Math.min(MESSAGES, 50_000);
+            long start = System.nanoTime();
+            publish(relay, destinations, messages);
+            // Relay delivery is asynchronous, so wait for the frames to come back from RabbitMQ
+            long deadline = start + TimeUnit.SECONDS.toNanos(60);
+            while (outbound.messageCount() < messages && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            report("relay", (int) outbound.messageCount(), System.nanoTime() - start);
+        } finally {
+            relay.stop();
+        }
+    }
+
+    private void runSimpleBroker(String name, SubscriptionRegistry registry) throws Exception {
+        CountingChannel outbound = new CountingChannel();
+        SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(
+                new ExecutorSubscribableChannel(), outbound, new ExecutorSubscribableChannel(), List.of("/topic", "/queue"));
+        broker.setSubscriptionRegistry(registry);
+        broker.start();
+        try {
+            for (int i = 0; i < DESTINATIONS; i++) {
+                broker.handleMessage(connect("s" + i));
+                broker.handleMessage(subscribe("s" + i, "sub" + i, "/queue/user." + i + ".messages"));
+            }
+            // Warm up, then measure
+            publish(broker, DESTINATIONS, MESSAGES / 5);
+            outbound.count.reset();
+            long elapsed = publish(broker, DESTINATIONS, MESSAGES);
+            assertTrue(outbound.messageCount() >= MESSAGES);
+            report(name, MESSAGES, elapsed);
+        } finally {
+            broker.stop();
+        }
+    }
+
+    private long publish(AbstractBrokerMessageHandler broker, int destinations, int messages) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        int perThread = messages / THREADS;
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t;
+            pool.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    broker.handleMessage(message("/queue/user." + ((i * THREADS + offset) % destinations) + ".messages"));
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.MINUTES);
+        return System.nanoTime() - start;
+    }
+
+    private void awaitAvailable(AbstractBrokerMessageHandler broker) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!broker.isBrokerAvailable() && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(broker.isBrokerAvailable(), "Broker relay did not connect");
+    }
+
+    private void report(String name, int messages, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("[broker-benchmark] %-15s %,d msgs in %.3f s = %,.0f msgs/s (%d threads)%n",
+                name, messages, seconds, messages / seconds, THREADS);
+    }
+
+    private static Message<byte[]> connect(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+        accessor.setSessionId(sessionId);
+        accessor.setHeader(SimpMessageHeaderAccessor.HEART_BEAT_HEADER, new long[] {0, 0});
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> subscribe(String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> message(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(PAYLOAD, accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> stompFrame(StompCommand command, String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        if (command == StompCommand.CONNECT) {
+            accessor.setAcceptVersion("1.2");
+        }
+        if (subscriptionId != null) {
+            accessor.setSubscriptionId(subscriptionId);
+        }
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static class CountingChannel implements MessageChannel {
+        private final LongAdder count = new LongAdder();
+
+        @Override
+        public boolean send(Message<?> message, long timeout) {
+            if (SimpMessageType.MESSAGE.equals(SimpMessageHeaderAccessor.getMessageType(message.getHeaders()))) {
+                count.increment();
+            }
+            return true;
+        }
+
+        long messageCount() {
+            return count.sum();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.chat_app.web_socket_chat_application.benchmark;
+
+import com.chat_app.web_socket_chat_application.api.dto.ConversationDTO;
+import com.chat_app.web_socket_chat_application.api.response.SuccessResponse;
+import com.chat_app.web_socket_chat_application.config.BufferRecyclingJackson2MessageConverter;
+import com.chat_app.web_socket_chat_application.config.JsonWarmup;
+import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * JMH comparison of the JSON paths before and after sharing the Boot mapper: {@code plain} is a
+ * bare {@code new ObjectMapper()} as the STOMP converter used to have, {@code shared} is the
+ * Boot-style mapper with Blackbird, warmed up, behind the buffer-recycling STOMP converter.
+ * Run with {@code mvn test -Pbenchmark -Dtest=JsonSerializationBenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonSerializationBenchmark {
+
+    private static final int HISTORY_SIZE = 50;
+    private static final int INBOX_SIZE = 20;
+
+    @Param({"plain", "shared"})
+    public String mapper;
+
+    private MappingJackson2MessageConverter stompConverter;
+    private MappingJackson2HttpMessageConverter restConverter;
+    private ChatMessage message;
+    private Message<byte[]> inboundFrame;
+    private SuccessResponse<List<ChatMessage>> history;
+    private SuccessResponse<List<ConversationDTO>> inbox;
+
+    @Test
+    void run() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JsonSerializationBenchmark.class.getName() + "\\.")
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+        assertFalse(results.isEmpty());
+    }
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper;
+        if ("shared".equals(mapper)) {
+            objectMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+            new JsonWarmup(objectMapper).warmUp();
+            stompConverter = new BufferRecyclingJackson2MessageConverter(objectMapper);
+        } else {
+            objectMapper = new ObjectMapper();
+            stompConverter = new MappingJackson2MessageConverter(objectMapper);
+        }
+        restConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+
+        message = message(0);
+        inboundFrame = MessageBuilder.withPayload(
+                "{\"senderId\":\"user1\",\"receiverId\":\"user2\",\"content\":\"Hello there\",\"clientMessageId\":\"c-1\"}".getBytes())
+                .build();
+        history = new SuccessResponse<>(IntStream.range(0, HISTORY_SIZE).mapToObj(JsonSerializationBenchmark::message).toList());
+        inbox = new SuccessResponse<>(IntStream.range(0, INBOX_SIZE).mapToObj(i -> ConversationDTO.builder()
+                .id("conv" + i)
+                .displayName("User " + i)
+                .lastMessage("Last message in conversation " + i)
+                .lastMessageTime("2024-01-01T10:00:00.000Z")
+                .unreadCount(i % 3)
+                .senderId("user1")
+                .receiverId("user" + (i + 2))
+                .chatId("user1_user" + (i + 2))
+                .build()).toList());
+    }
+
+    @Benchmark
+    public Message<?> stompOutboundMessage() {
+        return stompConverter.toMessage(message, null);
+    }
+
+    @Benchmark
+    public Object stompInboundMessage() {
+        return stompConverter.fromMessage(inboundFrame, ChatMessage.class);
+    }
+
+    @Benchmark
+    public HttpOutputMessage restHistory() throws IOException {
+        DiscardingOutputMessage output = new DiscardingOutputMessage();
+        restConverter.write(history, MediaType.APPLICATION_JSON, output);
+        return output;
+    }
+
+    @Benchmark
+    public HttpOutputMessage restInbox() throws IOException {
+        DiscardingOutputMessage output = new DiscardingOutputMessage();
+        restConverter.write(inbox, MediaType.APPLICATION_JSON, output);
+        return output;
+    }
+
+    private static ChatMessage message(int i) {
+        return ChatMessage.builder()
+                .id("msg" + i)
+                .conversationId("conv1")
+                .senderId("user1")
+                .receiverId("user2")
+                .content("Message number " + i + " with a typical amount of chat text in it")
+                .timestamp("2024-01-01T10:00:00.000Z")
+                .sender(new ChatMessage.SenderInfo("user1", "John Doe"))
+                .build();
+    }
+
+    // The response body is streamed to the socket in production, so nothing is kept here
+    private static class DiscardingOutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.chat_app.web_socket_chat_application.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures time from process start until {@code /actuator/health} answers, for the plain jar and
+ * for the AOT + CDS build produced by {@code -Pfast-startup}.
+ * Build first with {@code mvn -Pfast-startup package -DskipTests}, then run
+ * {@code mvn test -Pbenchmark -Dtest=StartupBenchmark}. By default any health response counts as
+ * ready, so the benchmark runs without MongoDB or RabbitMQ; with
+ * {@code -Dbenchmark.startup.require-up=true} only an UP status counts.
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+
+    private static final int RUNS = Integer.getInteger("benchmark.startup.runs", 3);
+    private static final int PORT = Integer.getInteger("benchmark.startup.port", 18080);
+    private static final Duration TIMEOUT = Duration.ofSeconds(Long.getLong("benchmark.startup.timeout-seconds", 120));
+    private static final boolean REQUIRE_UP = Boolean.getBoolean("benchmark.startup.require-up");
+    private static final Path TARGET = Path.of("target");
+    private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void plainJar() throws Exception {
+        Path jar = findJar(TARGET);
+        assumeTrue(jar != null, "Package the application first");
+        measure("plain", TARGET, List.of("-jar", jar.getFileName().toString()));
+    }
+
+    @Test
+    void aotWithCdsArchive() throws Exception {
+        Path cds = TARGET.resolve("cds");
+        Path jar = findJar(cds);
+        assumeTrue(jar != null && Files.exists(cds.resolve("application.jsa")), "Build with -Pfast-startup first");
+        measure("aot+cds", cds, List.of(
+                "-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true", "-jar", jar.getFileName().toString()));
+    }
+
+    private void measure(String name, Path workingDirectory, List<String> launchArguments) throws Exception {
+        List<Long> timings = new ArrayList<>();
+        for (int run = 0; run < RUNS; run++) {
+            List<String> command = new ArrayList<>(List.of(JAVA,
+                    "-Dserver.port=" + PORT,
+                    "-Djwt.secret=startup-benchmark-placeholder-secret-not-used-for-any-real-token-00",
+                    "-Djwt.expiration=3600000"));
+            if (!REQUIRE_UP) {
+                // An unreachable MongoDB would hold every health call for the default 30 s server selection
+                // timeout. Health indicators cannot be switched off here because AOT fixes them at build time.
+                command.add("-Dspring.data.mongodb.uri=mongodb://localhost:27017/chat?serverSelectionTimeoutMS=200");
+            }
+            command.addAll(launchArguments);
+
+            Process process = new ProcessBuilder(command)
+                    .directory(workingDirectory.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            long start = System.nanoTime();
+            try {
+                assertTrue(awaitHealth(start), name + " did not become ready within " + TIMEOUT);
+                timings.add(Duration.ofNanos(System.nanoTime() - start).toMillis());
+            } finally {
+                process.destroy();
+                process.waitFor();
+            }
+        }
+        Collections.sort(timings);
+        System.out.printf("[startup-benchmark] %-8s time-to-ready min %,d ms, median %,d ms over %d runs%n",
+                name, timings.get(0), timings.get(timings.size() / 2), timings.size());
+    }
+
+    private boolean awaitHealth(long start) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/actuator/health"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (!REQUIRE_UP || response.statusCode() == 200) {
+                    return true;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            } catch (IOException e) {
+                // Listening but not answering yet
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    private static Path findJar(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().matches("web-socket-chat-application-.*(?<!-plain)\\.jar"))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.chat_app.web_socket_chat_application.domain.repository;
+
+import com.chat_app.web_socket_chat_application.app.index.IndexBootstrap;
+import com.chat_app.web_socket_chat_application.domain.entity.ChatMessage;
+import com.chat_app.web_socket_chat_application.domain.entity.InboxEntry;
+import com.chat_app.web_socket_chat_application.domain.projection.UserName;
+import com.chat_app.web_socket_chat_application.domain.projection.UserProfile;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs every repository query method against a real MongoDB with the indexes from
+ * {@link IndexBootstrap}, captures the commands it sends and checks their explain plans for a
+ * collection scan. Needs Docker; skipped where it is not available.
+ */
+@DataMongoTest(properties = "chat.mongo.indexes.fail-fast=true")
+@Testcontainers(disabledWithoutDocker = true)
+@Import({IndexBootstrap.class, RepositoryQueryPlanTest.CommandCapture.class})
+class RepositoryQueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private IndexBootstrap indexBootstrap;
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+    @Autowired
+    private ConversationRepository conversationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private InboxEntryRepository inboxEntryRepository;
+    @Autowired
+    private MessageBucketRepository messageBucketRepository;
+    @Autowired
+    private ReactiveChatMessageRepository reactiveChatMessageRepository;
+    @Autowired
+    private ReactiveConversationRepository reactiveConversationRepository;
+
+    @BeforeEach
+    void setUp() {
+        CommandCapture.commands.clear();
+    }
+
+    @Test
+    void bootstrap_shouldLeaveNoDeclaredIndexMissing() {
+        assertEquals(List.of(), indexBootstrap.bootstrap());
+    }
+
+    @Test
+    void chatMessageQueries_shouldUseIndexes() {
+        assertIndexed(() -> chatMessageRepository.findByConversationId("conv1"));
+        assertIndexed(() -> chatMessageRepository.findBySenderIdAndClientMessageId("user1", "client1"));
+        assertIndexed(() -> chatMessageRepository.findByConversationIdAndReceiverIdAndReadFalse("conv1", "user2"));
+        assertIndexed(() -> chatMessageRepository.findByTimestampLessThanAndConversationIdNotNullAndReadTrueOrderByConversationIdAscTimestampAsc(
+                "2024-01-01T00:00:00.000Z", PageRequest.of(0, 100)));
+        assertIndexed(() -> reactiveChatMessageRepository.findByConversationIdOrderByTimestampAsc("conv1").collectList().block());
+        // Attachment download authorization in AttachmentService
+        assertIndexed(() -> mongoTemplate.exists(Query.query(Criteria.where("attachment.id").is("att1")
+                .orOperator(Criteria.where("senderId").is("user1"), Criteria.where("receiverId").is("user1"))), ChatMessage.class));
+    }
+
+    @Test
+    void conversationQueries_shouldUseIndexes() {
+        assertIndexed(() -> conversationRepository.findBySenderIdAndReceiverId("user1", "user2"));
+        assertIndexed(() -> conversationRepository.findBySenderId("user1"));
+        assertIndexed(() -> conversationRepository.findByReceiverId("user2"));
+        assertIndexed(() -> conversationRepository.findBySenderIdOrReceiverId("user1", "user1"));
+        assertIndexed(() -> reactiveConversationRepository.findBySenderIdOrReceiverIdOrderByLastMessageTimeDesc("user1", "user1")
+                .collectList().block());
+    }
+
+    @Test
+    void userQueries_shouldUseIndexes() {
+        assertIndexed(() -> userRepository.findByName("John Doe"));
+        assertIndexed(() -> userRepository.findByPhoneNumber("1234567890"));
+        assertIndexed(() -> userRepository.findByNameContainingIgnoreCase("john"));
+        assertIndexed(() -> userRepository.findProjectedById("user1", UserName.class));
+        assertIndexed(() -> userRepository.findProjectedByIdIn(List.of("user1", "user2"), UserName.class));
+        assertIndexed(() -> userRepository.findProjectedByPhoneNumber("1234567890", UserName.class));
+        assertIndexed(() -> userRepository.findProjectedByNameContainingIgnoreCase("john", UserProfile.class));
+        // findAllProjectedBy lists every user and is a collection scan by design
+    }
+
+    @Test
+    void inboxAndArchiveQueries_shouldUseIndexes() {
+        assertIndexed(() -> inboxEntryRepository.findByUserIdOrderByLastMessageTimeDesc("user1"));
+        assertIndexed(() -> inboxEntryRepository.deleteByConversationId("conv1"));
+        // Rename and presence fan-out in InboxService
+        assertIndexed(() -> mongoTemplate.find(Query.query(Criteria.where("counterpartId").is("user1")), InboxEntry.class));
+        assertIndexed(() -> messageBucketRepository.findByConversationIdOrderByFirstTimestampAsc("conv1"));
+        assertIndexed(() -> messageBucketRepository.findFirstByConversationIdOrderByFirstTimestampDesc("conv1"));
+    }
+
+    private void assertIndexed(Runnable query) {
+        CommandCapture.commands.clear();
+        query.run();
+        List<BsonDocument> commands = List.copyOf(CommandCapture.commands);
+        assertFalse(commands.isEmpty(), "No query was sent");
+        for (BsonDocument command : commands) {
+            Document explain = mongoTemplate.getDb().runCommand(new Document("explain", explainable(command))
+                    .append("verbosity", "queryPlanner"));
+            Object winningPlan = ((Document) explain.get("queryPlanner")).get("winningPlan");
+            assertFalse(scansCollection(winningPlan), () -> command.toJson() + " scans the collection: " + explain.toJson());
+        }
+    }
+
+    // The explained command must not carry the session and routing fields the driver added
+    private static BsonDocument explainable(BsonDocument command) {
+        BsonDocument copy = command.clone();
+        for (String field : List.of("$db", "lsid", "$clusterTime", "$readPreference", "txnNumber", "apiVersion")) {
+            copy.remove(field);
+        }
+        return copy;
+    }
+
+    private static boolean scansCollection(Object plan) {
+        if (plan instanceof Document document) {
+            return "COLLSCAN".equals(document.get("stage"))
+                    || document.values().stream().anyMatch(RepositoryQueryPlanTest::scansCollection);
+        }
+        if (plan instanceof List<?> list) {
+            return list.stream().anyMatch(RepositoryQueryPlanTest::scansCollection);
+        }
+        return false;
+    }
+
+    @TestConfiguration
+    static class CommandCapture {
+        private static final Set<String> QUERIES = Set.of("find", "count", "distinct", "aggregate", "delete", "update", "findAndModify");
+        static final List<BsonDocument> commands = new CopyOnWriteArrayList<>();
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer commandCapture() {
+            return settings -> settings.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if (QUERIES.contains(event.getCommandName())) {
+                        commands.add(event.getCommand().clone());
+                    }
+                }
+            });
+        }
+    }
+}
@@ -2,7 +2,7 @@ import { useState, useEffect, useCallback, useRef } from "react";
 import axios from "axios";
 import Sidebar from "../components/Sidebar";
 import ChatArea from "../components/ChatArea";
-import type { Conversation, Message } from "../types";
+import type { Conversation, Message, MessageNotification } from "../types";
 import { logoutUser } from "../services/authService";
 import { useNavigate } from "react-router-dom";
 import { toast } from "react-toastify";
@@ -24,6 +24,9 @@ function Chat() {
   const [isLoadingConversations, setIsLoadingConversations] = useState(true);
   const [isLoadingMessages, setIsLoadingMessages] = useState(false);
   const [error, setError] = useState("");
+  // Bumped to reload data when only a notification arrived instead of the message
+  const [messagesReload, setMessagesReload] = useState(0);
+  const [conversationsReload, setConversationsReload] = useState(0);
   const [currentUser, setCurrentUser] = useState({
     id: localStorage.getItem("userId") || "",
     name: localStorage.getItem("userName") || "",
@@ -34,11 +37,18 @@ function Chat() {
   // Reference to track current active conversation for WebSocket handler
   const activeConversationRef = useRef<string | null>(null);
 
+  // Reference to the conversation list for the same handler
+  const conversationsRef = useRef<Conversation[]>([]);
+
   // Update ref whenever activeConversationId changes
   useEffect(() => {
     activeConversationRef.current = activeConversationId;
   }, [activeConversationId]);
 
+  useEffect(() => {
+    conversationsRef.current = conversations;
+  }, [conversations]);
+
   useEffect(() => {
     if (!currentUser.id || webSocketConnected.current) return;
 
@@ -100,7 +110,35 @@ function Chat() {
       });
     };
 
-    connectWebSocket(currentUser.id, handleMessageReceived);
+    const handleNotificationReceived = (notification: MessageNotification) => {
+      const conversationId = notification.conversationId;
+      if (conversationId && activeConversationRef.current === conversationId) {
+        setMessagesReload((n) => n + 1);
+        return;
+      }
+
+      const known =
+        conversationId &&
+        conversationsRef.current.some((conv) => conv.id === conversationId);
+      if (!known) {
+        // Unknown conversation, the list itself is out of date
+        setConversationsReload((n) => n + 1);
+        return;
+      }
+      setConversations((prev) =>
+        prev.map((conv) =>
+          conv.id === conversationId
+            ? { ...conv, unreadCount: conv.unreadCount + 1 }
+            : conv
+        )
+      );
+    };
+
+    connectWebSocket(
+      currentUser.id,
+      handleMessageReceived,
+      handleNotificationReceived
+    );
     webSocketConnected.current = true;
 
     return () => {
@@ -153,7 +191,7 @@ function Chat() {
     };
 
     fetchConversations();
-  }, [currentUser.id, navigate]);
+  }, [currentUser.id, navigate, conversationsReload]);
 
   // Fetch messages when active conversation changes
   useEffect(() => {
@@ -181,7 +219,9 @@ function Chat() {
         setMessages(data.data || []);
 
         // Mark conversation as read
-        await axios.post(`/conversations/${activeConversationId}/read`);
+        await axios.post(`/conversations/${activeConversationId}/read`, null, {
+          params: { userId: currentUser.id },
+        });
 
         // Update the local conversations list to reflect read status
         setConversations((prev) =>
@@ -200,7 +240,7 @@ function Chat() {
     };
 
     fetchMessages();
-  }, [activeConversationId, currentUser.id]);
+  }, [activeConversationId, currentUser.id, messagesReload]);
 
   // Modify the handleSendMessage function
   const handleSendMessage = async (content: string) => {
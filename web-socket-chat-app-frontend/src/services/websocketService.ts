@@ -1,15 +1,17 @@
 import { Client, IMessage } from "@stomp/stompjs";
 import { toast } from "react-toastify";
-import { Message } from "../types";
+import { Message, MessageNotification } from "../types";
 import SockJS from "sockjs-client";
 
 let stompClient: Client | null = null;
 let reconnectAttempts = 0;
 const MAX_RECONNECT_ATTEMPTS = 5;
+const DEFAULT_RECONNECT_DELAY = 5000;
 
 export const connectWebSocket = (
   userId: string,
-  onMessageReceived: (message: Message) => void
+  onMessageReceived: (message: Message) => void,
+  onNotificationReceived?: (notification: MessageNotification) => void
 ) => {
   if (stompClient) {
     console.log("WebSocket client already exists");
@@ -18,12 +20,19 @@ export const connectWebSocket = (
 
   const client = new Client({
     webSocketFactory: () => new SockJS("http://localhost:8080/chat"),
-    reconnectDelay: 5000,
+    // The server authenticates the session once, from the CONNECT frame
+    beforeConnect: () => {
+      client.connectHeaders = {
+        Authorization: `Bearer ${localStorage.getItem("authToken")}`,
+      };
+    },
+    reconnectDelay: DEFAULT_RECONNECT_DELAY,
     heartbeatIncoming: 4000,
     heartbeatOutgoing: 4000,
     onConnect: () => {
       console.log("Connected to WebSocket");
       reconnectAttempts = 0;
+      client.reconnectDelay = DEFAULT_RECONNECT_DELAY;
 
       // Subscribe to personal message queue
       const subscription = client.subscribe(
@@ -35,7 +44,12 @@ export const connectWebSocket = (
           try {
             const receivedMessage = JSON.parse(message.body);
             console.log("Parsed message via WebSocket:", receivedMessage);
-            onMessageReceived(receivedMessage);
+            // A slow client gets only the ids and has to load the message itself
+            if (receivedMessage.type === "NOTIFICATION") {
+              onNotificationReceived?.(receivedMessage);
+            } else {
+              onMessageReceived(receivedMessage);
+            }
           } catch (error) {
             console.error("Error processing WebSocket message:", error);
           }
@@ -47,8 +61,13 @@ export const connectWebSocket = (
       console.error("STOMP error:", frame);
       toast.error("Connection error. Trying to reconnect...");
     },
-    onWebSocketClose: () => {
-      console.log("WebSocket connection closed");
+    onWebSocketClose: (event: CloseEvent) => {
+      console.log("WebSocket connection closed", event.code, event.reason);
+      // A draining or overloaded server says how long to wait, e.g. "draining;reconnect-after=3200"
+      const hint = /(?:reconnect|resume)-after=(\d+)/.exec(event.reason ?? "");
+      if (hint) {
+        client.reconnectDelay = Math.max(Number(hint[1]), 500);
+      }
     },
   });
 
@@ -24,6 +24,14 @@ export interface Message {
   read: boolean;
 }
 
+// Sent in place of a message while this client is far behind; fetch the message over REST
+export interface MessageNotification {
+  type: "NOTIFICATION";
+  destination: string;
+  messageId: string | null;
+  conversationId: string | null;
+}
+
 export interface User {
   id: string;
   name: string;